@@ -1,22 +1,40 @@
 package com.nooblab;
 
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 
 import com.nooblab.adapter.GraphicsAdapter;
 import com.nooblab.adapter.GraphicsAdapterFactory;
+import com.nooblab.adapter.ImageCacheStats;
+import com.nooblab.adapter.LayerEffect;
+import com.nooblab.element.AbstractElement;
 import com.nooblab.element.Circle;
+import com.nooblab.element.Container;
 import com.nooblab.element.Element;
 import com.nooblab.element.Image;
+import com.nooblab.element.IndexedImage;
 import com.nooblab.element.Line;
+import com.nooblab.element.PixelCanvas;
+import com.nooblab.element.PixelImage;
 import com.nooblab.element.Polygon;
 import com.nooblab.element.Positionable;
 import com.nooblab.element.Rectangle;
 import com.nooblab.element.Resizable;
 import com.nooblab.element.Text;
+import com.nooblab.element.TileMap;
+import com.nooblab.render.FrameContext;
+import com.nooblab.render.RenderStats;
+import com.nooblab.render.Renderer;
+import com.nooblab.style.StyleApplier;
+import com.nooblab.util.AsyncImageLoader;
+import com.nooblab.util.CSSColor;
+import com.nooblab.util.CardAtlas;
+import com.nooblab.util.CSSPaint;
 import com.nooblab.util.ElementList;
 import com.nooblab.util.ImageLoader;
-import com.nooblab.util.SVGImageLoader;
+import com.nooblab.util.IndexedPixels;
 import com.nooblab.util.StringImageLoader;
 
 public final class Graphics {
@@ -32,11 +50,22 @@ public final class Graphics {
      */
     protected static int sleepTime = 10;
 
+    /**
+     * Relative change in size after which a resized SVG web sprite is converted
+     * again, rather than having its image stretched
+     */
+    private static final double RASTER_SCALE_THRESHOLD = 0.2;
+
     /**
      * Graphics adapter to be used for drawing
      */
     protected static GraphicsAdapter graphicsAdapter;
 
+    /**
+     * Renderer that draws the elements every frame
+     */
+    protected static Renderer renderer;
+
     /**
      * Main thread
      */
@@ -70,7 +99,10 @@ public final class Graphics {
      * @param y            the y-coordinate of the rectangle's top-left edge
      * @param width        the width of the rectangle
      * @param height       the height of the rectangle
-     * @param fillColour   the fill colour of the rectangle (optional)
+     * @param fillColour   the fill colour of the rectangle (optional), may also be
+     *                     a gradient such as
+     *                     <code>linear-gradient(to right, red, blue)</code> or an
+     *                     image pattern such as <code>url(tile.png)</code>
      * @param strokeColour the outline colour of the rectangle (optional)
      * @param strokeWeight the thickness of the outline (optional)
      * @return ID of the rectangle
@@ -78,7 +110,8 @@ public final class Graphics {
     public static String drawRectangle(int x, int y, int width, int height, String fillColour, String strokeColour, int strokeWeight) {
         checkInitialized();
         Rectangle rectangle = new Rectangle(x, y, width, height, fillColour, strokeColour, strokeWeight);
-        graphicsElements.add(rectangle);
+        preloadPaint(CSSPaint.fromColor(fillColour));
+        addElement(rectangle);
         sleepInternal();
         return rectangle.getId();
     }
@@ -102,7 +135,8 @@ public final class Graphics {
     public static String drawCircle(int x, int y, int r, String colour, String strokeColor, int strokeWeight) {
         checkInitialized();
         Circle circle = new Circle(x, y, r, colour, strokeColor, strokeWeight);
-        graphicsElements.add(circle);
+        preloadPaint(CSSPaint.fromColor(colour));
+        addElement(circle);
         sleepInternal();
         return circle.getId();
     }
@@ -126,7 +160,7 @@ public final class Graphics {
     public static String drawLine(int x, int y, int x2, int y2, String strokeColour, int strokeWeight) {
         checkInitialized();
         Line line = new Line(x, y, x2, y2, strokeColour, strokeWeight);
-        graphicsElements.add(line);
+        addElement(line);
         sleepInternal();
         return line.getId();
     }
@@ -167,7 +201,8 @@ public final class Graphics {
         }
 
         Polygon polygon = new Polygon(x, y, colour, strokeColour, strokeWidth);
-        graphicsElements.add(polygon);
+        preloadPaint(CSSPaint.fromColor(colour));
+        addElement(polygon);
         sleepInternal();
         return polygon.getId();
     }
@@ -205,7 +240,8 @@ public final class Graphics {
         }
 
         Polygon polygon = new Polygon(x, y, colour, strokeColour, strokeWidth);
-        graphicsElements.add(polygon);
+        preloadPaint(CSSPaint.fromColor(colour));
+        addElement(polygon);
         sleepInternal();
         return polygon.getId();
     }
@@ -236,7 +272,9 @@ public final class Graphics {
     public static String drawText(int x, int y, String text, String style) {
         checkInitialized();
         Text textElement = new Text(x, y, text, style);
-        graphicsElements.add(textElement);
+        StyleApplier.preloadFont(graphicsAdapter, textElement.getResolvedStyle());
+        preloadPaint(textElement.getResolvedStyle().getPaint());
+        addElement(textElement);
         sleepInternal();
         return textElement.getId();
     }
@@ -248,6 +286,12 @@ public final class Graphics {
      * omitted or set to 0 (or a negative value),
      * the image's natural size will apply.
      *
+     * <p>
+     * The image is downloaded in the background, so this returns straight away and
+     * the sprite appears once its image has loaded. Use {@link #preload(String...)}
+     * to start downloading many images at once.
+     * </p>
+     *
      * @param x      the x-coordinate at which to draw the image
      * @param y      the y-coordinate at which to draw the image
      * @param url    the source URL of the image
@@ -256,16 +300,9 @@ public final class Graphics {
      */
     public static String drawWebSprite(int x, int y, String url, int width, int height) {
         checkInitialized();
-
-        byte[] imageData;
-        if (url.endsWith(".svg")) {
-            imageData = SVGImageLoader.loadAsPNG(url, width, height);
-        } else {
-            imageData = ImageLoader.load(url, width, height);
-        }
-
-        Image image = new Image(imageData, x, y, width, height);
-        graphicsElements.add(image);
+        Image image = new Image(null, x, y, width, height);
+        loadWebSpriteImage(image, url, width, height);
+        addElement(image);
         sleepInternal();
         return image.getId();
     }
@@ -303,18 +340,349 @@ public final class Graphics {
      */
     public static String drawSprite(int x, int y, String[][] data, int width, int height) {
         checkInitialized();
-        byte[] pixelData;
-        try {
-            pixelData = StringImageLoader.loadAsPNG(data);
-        } catch (IOException e) {
-            throw new IllegalArgumentException("Failed to load sprite data");
+        IndexedPixels indexed = StringImageLoader.loadAsIndexed(data);
+        Image image;
+        if (indexed != null) {
+            image = new IndexedImage(indexed, x, y, width, height);
+        } else {
+            // Too many colours for a palette
+            image = new PixelImage(StringImageLoader.loadAsARGB(data), data[0].length, data.length,
+                    x, y, width, height);
         }
-        Image image = new Image(pixelData, x, y, width, height);
-        graphicsElements.add(image);
+        addElement(image);
         sleepInternal();
         return image.getId();
     }
 
+    /**
+     * drawTileMap draws a grid of tiles taken from a single <b>tileset</b> image,
+     * which is loaded from the given URL. The tileset is cut into square tiles of
+     * <b>tileSize</b> pixels, numbered from 0 left to right and top to bottom.
+     * <b>tiles</b> is a 2D array of those numbers, one inner array per row of the
+     * map; use -1 to leave a cell empty.
+     *
+     * <p>
+     * Use this instead of drawing each tile as its own sprite or rectangle: the map
+     * is cached in chunks, only the part that is on screen is drawn, and changing a
+     * tile with {@link #updateTile(String, int, int, int)} only redraws the chunk
+     * around it.
+     * </p>
+     *
+     * <p>
+     * The tileset is downloaded in the background, like the image of a web sprite,
+     * so this returns straight away and the map appears once the tileset has
+     * loaded. If the tileset cannot be loaded or is narrower than one tile, the map
+     * stays empty and a message is printed.
+     * </p>
+     *
+     * @param x          the x-coordinate of the map's top-left corner
+     * @param y          the y-coordinate of the map's top-left corner
+     * @param tilesetUrl the source URL of the tileset image
+     * @param tileSize   the width and height of a single tile in pixels
+     * @param tiles      a 2D array of tile numbers, indexed by row and then column
+     * @return ID of the tile map
+     * @throws IllegalArgumentException if the tile size is not positive, or the
+     *                                  map is empty or its rows differ in length
+     */
+    public static String drawTileMap(int x, int y, String tilesetUrl, int tileSize, int[][] tiles) {
+        checkInitialized();
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Tile size must be positive");
+        }
+        if (tiles == null || tiles.length == 0 || tiles[0] == null || tiles[0].length == 0) {
+            throw new IllegalArgumentException("Tile map must have at least one tile");
+        }
+        int columns = tiles[0].length;
+        for (int[] row : tiles) {
+            if (row == null || row.length != columns) {
+                throw new IllegalArgumentException("All rows of a tile map must have the same length");
+            }
+        }
+
+        int[] flatTiles = new int[tiles.length * columns];
+        for (int row = 0; row < tiles.length; row++) {
+            System.arraycopy(tiles[row], 0, flatTiles, row * columns, columns);
+        }
+
+        TileMap tileMap = new TileMap(null, 0, tileSize, flatTiles, columns, x, y);
+        AsyncImageLoader.load(tilesetUrl, 0, 0).thenAccept(tileset -> {
+            int tilesetColumns = ImageLoader.readWidth(tileset) / tileSize;
+            if (tilesetColumns <= 0) {
+                System.err.println("Tileset " + tilesetUrl + " could not be loaded or is narrower than one tile");
+                return;
+            }
+            // A map removed while downloading would never release the prepared image
+            if (findElement(tileMap.getId()) == tileMap) {
+                graphicsAdapter.prepareRasterImage(tileset);
+            }
+            tileMap.setTileset(tileset, tilesetColumns);
+        });
+        addElement(tileMap);
+        sleepInternal();
+        return tileMap.getId();
+    }
+
+    /**
+     * Given an <b>id</b> of a tile map, changes the tile at <b>column</b> and
+     * <b>row</b> to the tileset number <b>tile</b> (or -1 to clear it).
+     *
+     * @param id     the ID of the tile map to update
+     * @param column the column of the tile to change
+     * @param row    the row of the tile to change
+     * @param tile   the new tile number
+     */
+    public static void updateTile(String id, int column, int row, int tile) {
+        checkInitialized();
+        Element element = findElement(id);
+        if (element instanceof TileMap) {
+            ((TileMap) element).setTile(column, row, tile);
+        } else {
+            throw new IllegalArgumentException("Element with ID " + id + " is not a tile map");
+        }
+        sleepInternal();
+    }
+
+    /**
+     * drawPixelCanvas draws a grid of <b>pixelWidth</b> by <b>pixelHeight</b>
+     * pixels at position <b>x</b> and <b>y</b>, stretched to <b>width</b> and
+     * <b>height</b>. The pixels start out transparent and are changed with
+     * {@link #setPixel(String, int, int, String)},
+     * {@link #fillPixelSpan(String, int, int, int, String)} and
+     * {@link #blitPixels(String, int, int, String[][])}.
+     *
+     * <p>
+     * Use this for fractals, cellular automata or paint programs instead of
+     * thousands of tiny rectangles or sprites that are drawn again and again: only
+     * the pixels that changed are redrawn.
+     * </p>
+     *
+     * @param x           the x-coordinate of the canvas
+     * @param y           the y-coordinate of the canvas
+     * @param pixelWidth  the number of pixels across
+     * @param pixelHeight the number of pixels down
+     * @param width       the width to draw the canvas
+     * @param height      the height to draw the canvas
+     * @return ID of the pixel canvas
+     */
+    public static String drawPixelCanvas(int x, int y, int pixelWidth, int pixelHeight, int width, int height) {
+        checkInitialized();
+        PixelCanvas canvas = new PixelCanvas(pixelWidth, pixelHeight, x, y, width, height);
+        addElement(canvas);
+        sleepInternal();
+        return canvas.getId();
+    }
+
+    /**
+     * drawPixelCanvas draws a grid of pixels at position <b>x</b> and <b>y</b>,
+     * with one pixel for every point of its <b>width</b> and <b>height</b>.
+     *
+     * @param x      the x-coordinate of the canvas
+     * @param y      the y-coordinate of the canvas
+     * @param width  the number of pixels across
+     * @param height the number of pixels down
+     * @return ID of the pixel canvas
+     * @see #drawPixelCanvas(int, int, int, int, int, int)
+     */
+    public static String drawPixelCanvas(int x, int y, int width, int height) {
+        return drawPixelCanvas(x, y, width, height, width, height);
+    }
+
+    /**
+     * Given an <b>id</b> of a pixel canvas, sets the pixel at <b>px</b> and
+     * <b>py</b> to <b>colour</b>. Pixels outside the canvas are ignored.
+     *
+     * <p>
+     * Unlike the other drawing methods this does not pause, so a program can
+     * change many pixels quickly; the changes appear with the next frame.
+     * </p>
+     *
+     * @param id     the ID of the pixel canvas
+     * @param px     the column of the pixel
+     * @param py     the row of the pixel
+     * @param colour the new colour of the pixel
+     */
+    public static void setPixel(String id, int px, int py, String colour) {
+        findPixelCanvas(id).setPixel(px, py, CSSColor.toARGB(colour));
+    }
+
+    /**
+     * Given an <b>id</b> of a pixel canvas, sets <b>length</b> pixels of row
+     * <b>py</b>, starting at column <b>px</b>, to <b>colour</b>. This is much
+     * faster than setting the pixels one by one. Like
+     * {@link #setPixel(String, int, int, String)}, this does not pause.
+     *
+     * @param id     the ID of the pixel canvas
+     * @param px     the column of the first pixel
+     * @param py     the row of the pixels
+     * @param length the number of pixels to set
+     * @param colour the new colour of the pixels
+     */
+    public static void fillPixelSpan(String id, int px, int py, int length, String colour) {
+        findPixelCanvas(id).fillSpan(px, py, length, CSSColor.toARGB(colour));
+    }
+
+    /**
+     * Given an <b>id</b> of a pixel canvas, copies the block of <b>pixels</b> onto
+     * it with its top-left pixel at column <b>px</b> and row <b>py</b>. The
+     * <b>pixels</b> are given like the data of
+     * {@link #drawSprite(int, int, String[][], int, int)}. Like
+     * {@link #setPixel(String, int, int, String)}, this does not pause.
+     *
+     * @param id     the ID of the pixel canvas
+     * @param px     the column to copy the block to
+     * @param py     the row to copy the block to
+     * @param pixels a 2D array of strings, each representing a single pixel's colour
+     * @throws IllegalArgumentException if the block is empty or its rows differ in length
+     */
+    public static void blitPixels(String id, int px, int py, String[][] pixels) {
+        if (pixels == null || pixels.length == 0 || pixels[0] == null || pixels[0].length == 0) {
+            throw new IllegalArgumentException("Pixel block must have at least one pixel");
+        }
+        for (String[] row : pixels) {
+            if (row == null || row.length != pixels[0].length) {
+                throw new IllegalArgumentException("All rows of a pixel block must have the same length");
+            }
+        }
+        findPixelCanvas(id).blit(StringImageLoader.loadAsARGB(pixels), pixels[0].length, pixels.length, px, py);
+    }
+
+    /**
+     * drawContainer draws a rectangular panel at the position specified by <b>x</b>
+     * and <b>y</b> of the specified <b>width</b> and <b>height</b>. Shapes moved
+     * into the panel with {@link #addToContainer(String, String...)} are only
+     * visible inside it, which is useful for UI panels, scrolling views and
+     * minimaps. The panel can be filled with the optional <b>backgroundColour</b>;
+     * pass {@code null} for a see-through panel.
+     *
+     * <p>
+     * Shapes that are scrolled out of the panel are not drawn at all, so a panel
+     * can hold far more shapes than fit in it without slowing the program down.
+     * </p>
+     *
+     * @param x                the x-coordinate of the panel's top-left corner
+     * @param y                the y-coordinate of the panel's top-left corner
+     * @param width            the width of the panel
+     * @param height           the height of the panel
+     * @param backgroundColour the background colour of the panel (optional)
+     * @return ID of the container
+     */
+    public static String drawContainer(int x, int y, int width, int height, String backgroundColour) {
+        checkInitialized();
+        Container container = new Container(x, y, width, height, backgroundColour);
+        addElement(container);
+        sleepInternal();
+        return container.getId();
+    }
+
+    /**
+     * Moves the shapes with the given <b>ids</b> into the container with the ID
+     * <b>containerId</b>. From then on their positions are measured from the
+     * top-left corner of the container's content instead of the canvas, and
+     * anything outside the container is cut off. Shapes that are not found are
+     * ignored.
+     *
+     * @param containerId the ID of the container
+     * @param ids         the IDs of the shapes to move into the container
+     */
+    public static void addToContainer(String containerId, String... ids) {
+        checkInitialized();
+        Element element = findElement(containerId);
+        if (!(element instanceof Container)) {
+            throw new IllegalArgumentException("Element with ID " + containerId + " is not a container");
+        }
+        Container container = (Container) element;
+        for (String id : ids) {
+            Element child = findElement(id);
+            if (child == null || child == container || (child instanceof Container
+                    && ((Container) child).contains(container))) {
+                continue;
+            }
+            renderer.unmarkStatic(child);
+            removeElement(id);
+            container.add(child);
+        }
+        sleepInternal();
+    }
+
+    /**
+     * Scrolls the content of the container with the given <b>id</b>, so that the
+     * point <b>scrollX</b>, <b>scrollY</b> of the content appears at the top-left
+     * corner of the container.
+     *
+     * @param id      the ID of the container
+     * @param scrollX the horizontal scroll position
+     * @param scrollY the vertical scroll position
+     */
+    public static void scrollContainer(String id, int scrollX, int scrollY) {
+        checkInitialized();
+        Element element = findElement(id);
+        if (element instanceof Container) {
+            ((Container) element).scrollTo(scrollX, scrollY);
+        } else {
+            throw new IllegalArgumentException("Element with ID " + id + " is not a container");
+        }
+        sleepInternal();
+    }
+
+    /**
+     * Makes the shape with the given <b>id</b> see-through. An <b>opacity</b> of
+     * <code>1</code> draws the shape normally, <code>0.5</code> half transparent
+     * and <code>0</code> not at all. A container is made see-through as a whole,
+     * including every shape inside it.
+     *
+     * @param id      the ID of the shape
+     * @param opacity the opacity, from 0 to 1
+     */
+    public static void setOpacity(String id, double opacity) {
+        checkInitialized();
+        findAbstractElement(id).setOpacity(opacity);
+        sleepInternal();
+    }
+
+    /**
+     * Draws a soft shadow behind the shape with the given <b>id</b>. The shadow
+     * is moved by <b>offsetX</b> and <b>offsetY</b> and blurred by
+     * <b>blurRadius</b> pixels. Shadows work on shapes with a known size, such as
+     * rectangles, circles, images and containers.
+     *
+     * @param id           the ID of the shape
+     * @param offsetX      how far the shadow is moved to the right
+     * @param offsetY      how far the shadow is moved down
+     * @param blurRadius   how soft the shadow is
+     * @param shadowColour the colour of the shadow, e.g. <code>rgba(0, 0, 0, 0.5)</code>
+     */
+    public static void setDropShadow(String id, int offsetX, int offsetY, int blurRadius, String shadowColour) {
+        checkInitialized();
+        findAbstractElement(id).setEffect(LayerEffect.dropShadow(offsetX, offsetY, blurRadius,
+                CSSColor.toARGB(shadowColour)));
+        sleepInternal();
+    }
+
+    /**
+     * Blurs the shape with the given <b>id</b> by <b>radius</b> pixels. Blurs
+     * work on shapes with a known size, such as rectangles, circles, images and
+     * containers.
+     *
+     * @param id     the ID of the shape
+     * @param radius how blurry the shape is
+     */
+    public static void setBlur(String id, int radius) {
+        checkInitialized();
+        findAbstractElement(id).setEffect(LayerEffect.blur(radius));
+        sleepInternal();
+    }
+
+    /**
+     * Removes the shadow or blur from the shape with the given <b>id</b>.
+     *
+     * @param id the ID of the shape
+     */
+    public static void clearEffect(String id) {
+        checkInitialized();
+        findAbstractElement(id).setEffect(null);
+        sleepInternal();
+    }
+
     /**
      * As per the &ldquo;shiny&rdquo; example earlier on, <b>drawPlayingCard</b>
      * lets you draw a playing card.
@@ -330,6 +698,13 @@ public final class Graphics {
      * There is no need to specify a height; it is calculated proportionally to the
      * width.
      *
+     * <p>
+     * The card images are downloaded from NoobLab and converted in the background
+     * like web sprites, unless the deck was prepared with
+     * {@link #preloadPlayingCards(int)} for this width. Without a network
+     * connection, see {@link #useBundledPlayingCards(boolean)}.
+     * </p>
+     *
      * @param card  which card to draw (e.g. "ace", "10", "king")
      * @param suit  the suit of the card (e.g. "clubs", "spades", "hearts",
      *              "diamonds")
@@ -338,8 +713,48 @@ public final class Graphics {
      * @param width the width of the card; the height is auto-calculated
      */
     public static String drawPlayingCard(String card, String suit, int x, int y, int width) {
-        String url = "https://www.nooblab.com/NoobLab/images/cards/" + card + "_of_" + suit + ".svg";
-        return drawWebSprite(x, y, url, width, (int) Math.floor(width * 1.45));
+        CardAtlas atlas = CardAtlas.find(width);
+        if (atlas == null || !CardAtlas.CARDS.contains(card) || !CardAtlas.SUITS.contains(suit)) {
+            return drawWebSprite(x, y, CardAtlas.getCardUrl(card, suit), width, CardAtlas.getCardHeight(width));
+        }
+
+        checkInitialized();
+        Image image = new Image(atlas.getData(), x, y, width, atlas.getCardHeight());
+        image.setRegion(atlas.getCardX(card), atlas.getCardY(suit), width, atlas.getCardHeight());
+        addElement(image);
+        sleepInternal();
+        return image.getId();
+    }
+
+    /**
+     * Prepares a whole deck of playing cards of the given <b>width</b> up front, so
+     * that {@link #drawPlayingCard(String, String, int, int, int)} draws cards of
+     * that width straight away, without loading anything. A full deck can then be
+     * dealt within a single frame.
+     *
+     * <p>
+     * This waits until all 52 cards have been loaded, which happens all at once.
+     * Call it once for every card width your program uses, before drawing cards.
+     * The prepared deck is remembered on disk, so later runs start faster.
+     * </p>
+     *
+     * @param width the width of the cards; the height is auto-calculated
+     */
+    public static void preloadPlayingCards(int width) {
+        checkInitialized();
+        graphicsAdapter.prepareRasterImage(CardAtlas.build(width).getData());
+    }
+
+    /**
+     * Tells the graphics engine whether to draw playing cards with the simple
+     * placeholder cards that come with the library, instead of the NoobLab cards
+     * downloaded from the web. The placeholder cards look different but need no
+     * network connection. Cards drawn earlier keep their images.
+     *
+     * @param bundled {@code true} to use the placeholder cards that come with the library
+     */
+    public static void useBundledPlayingCards(boolean bundled) {
+        CardAtlas.setBundledCards(bundled);
     }
 
     /**
@@ -352,7 +767,7 @@ public final class Graphics {
      */
     public static void updateText(String id, String newText) {
         checkInitialized();
-        Element element = graphicsElements.findByID(id);
+        Element element = findElement(id);
         if (element instanceof Text) {
             ((Text) element).setText(newText);
         } else {
@@ -371,9 +786,11 @@ public final class Graphics {
      */
     public static void updateTextStyle(String id, String newStyle) {
         checkInitialized();
-        Element element = graphicsElements.findByID(id);
+        Element element = findElement(id);
         if (element instanceof Text) {
             ((Text) element).setStyle(newStyle);
+            StyleApplier.preloadFont(graphicsAdapter, ((Text) element).getResolvedStyle());
+            preloadPaint(((Text) element).getResolvedStyle().getPaint());
         } else {
             throw new IllegalArgumentException("Element with ID " + id + " is not a text element");
         }
@@ -388,20 +805,31 @@ public final class Graphics {
      * @param url
      */
     public static void updateWebSpriteImage(String id, String url) {
-        Element image = graphicsElements.findByID(id);
+        Element image = findElement(id);
         if (image instanceof Image) {
-            byte[] imageData;
-            if (url.endsWith(".svg")) {
-                imageData = SVGImageLoader.loadAsPNG(url, ((Image) image).getWidth(), ((Image) image).getHeight());
-            } else {
-                imageData = ImageLoader.load(url, ((Image) image).getWidth(), ((Image) image).getHeight());
-            }
-            ((Image) image).setData(imageData);
+            loadWebSpriteImage((Image) image, url, ((Image) image).getWidth(), ((Image) image).getHeight());
         } else {
             throw new IllegalArgumentException("Element with ID " + id + " is not an image element");
         }
     }
 
+    /**
+     * Starts downloading the images at the given <b>urls</b> in the background, all
+     * at the same time. Call this before drawing many web sprites or playing cards,
+     * for example a whole deck, so that they are fetched in one go rather than one
+     * after another.
+     *
+     * <p>
+     * Drawing web sprites never waits for their images: they appear as soon as the
+     * image has loaded. Preloading just makes that happen sooner.
+     * </p>
+     *
+     * @param urls the source URLs of the images
+     */
+    public static void preload(String... urls) {
+        AsyncImageLoader.preload(urls);
+    }
+
     /**
      * Given an <b>id</b> of an existing shape, repositions it at the coordinates
      * <b>newX</b> and <b>newY</b>.
@@ -417,7 +845,7 @@ public final class Graphics {
      */
     public static void updatePosition(String id, int newX) {
         checkInitialized();
-        Element element = graphicsElements.findByID(id);
+        Element element = findElement(id);
         if (element instanceof Positionable) {
             ((Positionable) element).setX(newX);
         } else {
@@ -441,7 +869,7 @@ public final class Graphics {
      */
     public static void updatePosition(String id, int newX, int newY) {
         checkInitialized();
-        Element element = graphicsElements.findByID(id);
+        Element element = findElement(id);
         if (element instanceof Positionable) {
             ((Positionable) element).setX(newX);
             ((Positionable) element).setY(newY);
@@ -466,7 +894,7 @@ public final class Graphics {
      */
     public static void updatePosition(String id, Void unused, int newY) {
         checkInitialized();
-        Element element = graphicsElements.findByID(id);
+        Element element = findElement(id);
         if (element instanceof Positionable) {
             ((Positionable) element).setY(newY);
         } else {
@@ -487,6 +915,10 @@ public final class Graphics {
      * that value will be used
      * as the new radius of the circle.
      * </p>
+     * <p>
+     * Web sprites showing an SVG image are converted again at their new size in the
+     * background when the size changes noticeably, so they stay sharp.
+     * </p>
      *
      * @param id     the ID of the shape to resize
      * @param width  the new width (or radius if resizing a circle)
@@ -494,10 +926,11 @@ public final class Graphics {
      */
     public static void resizeShape(String id, int width, int height) {
         checkInitialized();
-        Element element = graphicsElements.findByID(id);
+        Element element = findElement(id);
         if (element instanceof Resizable) {
             ((Resizable) element).setWidth(width);
             ((Resizable) element).setHeight(height);
+            rasterizeAtDisplayedSize(element);
         } else if (element instanceof Circle) {
             ((Circle) element).setRadius(width);
         } else {
@@ -524,9 +957,10 @@ public final class Graphics {
      */
     public static void resizeShape(String id, int width) {
         checkInitialized();
-        Element element = graphicsElements.findByID(id);
+        Element element = findElement(id);
         if (element instanceof Resizable) {
             ((Resizable) element).setWidth(width);
+            rasterizeAtDisplayedSize(element);
         } else if (element instanceof Circle) {
             ((Circle) element).setRadius(width);
         } else {
@@ -546,7 +980,10 @@ public final class Graphics {
      */
     public static void removeShape(String id) {
         checkInitialized();
-        graphicsElements.removeByID(id);
+        Element element = removeElement(id);
+        if (element != null) {
+            renderer.elementRemoved(element);
+        }
         sleepInternal();
     }
 
@@ -558,7 +995,7 @@ public final class Graphics {
      */
     public static void showShape(String id) {
         checkInitialized();
-        Element element = graphicsElements.findByID(id);
+        Element element = findElement(id);
         if (element != null) {
             element.show();
         }
@@ -573,7 +1010,7 @@ public final class Graphics {
      */
     public static void hideShape(String id) {
         checkInitialized();
-        Element element = graphicsElements.findByID(id);
+        Element element = findElement(id);
         if (element != null) {
             element.hide();
         }
@@ -588,7 +1025,7 @@ public final class Graphics {
      */
     public static void toggleShape(String id) {
         checkInitialized();
-        Element element = graphicsElements.findByID(id);
+        Element element = findElement(id);
         if (element != null) {
             element.toggle();
         }
@@ -601,7 +1038,34 @@ public final class Graphics {
      */
     public static void wipeCanvas() {
         checkInitialized();
+        for (Element element : graphicsElements) {
+            renderer.elementRemoved(element);
+        }
         graphicsElements.clear();
+        renderer.clearFrame();
+        sleepInternal();
+    }
+
+    /**
+     * Draws a whole frame at once. Instead of creating shapes that stay on the
+     * canvas and have IDs, everything drawn through the given <b>ctx</b> is shown
+     * until the next call to {@code frame}, which replaces it. This suits programs
+     * that redraw everything on every loop, and is much faster than calling
+     * {@code wipeCanvas} and drawing every shape again. Shapes drawn this way
+     * appear on top of shapes created with the other drawing methods.
+     * For example:
+     * <pre>
+     * Graphics.frame(ctx -&gt; {
+     *     ctx.rect(0, 0, 1000, 1000, "black");
+     *     ctx.circle(x, 500, 20, "red");
+     * });
+     * </pre>
+     *
+     * @param drawing the code that draws the frame using the given context
+     */
+    public static void frame(Consumer<FrameContext> drawing) {
+        checkInitialized();
+        renderer.submitFrame(drawing);
         sleepInternal();
     }
 
@@ -666,6 +1130,98 @@ public final class Graphics {
         sleepInternal();
     }
 
+    /**
+     * Tells the graphics engine whether shapes may be drawn in any order. By
+     * default, shapes added later are always drawn on top of shapes added earlier.
+     * If your shapes never overlap, or you do not mind which of two overlapping
+     * shapes ends up on top, passing {@code true} lets the engine group similar
+     * shapes together, which makes drawing thousands of shapes faster.
+     *
+     * @param unordered {@code true} if the order in which shapes are drawn does not matter
+     */
+    public static void setUnorderedDrawing(boolean unordered) {
+        checkInitialized();
+        renderer.setUnordered(unordered);
+    }
+
+    /**
+     * Marks the shapes with the given <b>ids</b> as static, meaning they will rarely
+     * change. The graphics engine remembers how to draw them and then draws them
+     * all at once every frame, which is much faster for backgrounds made of many
+     * shapes. The shapes can still be updated; the engine simply notices the change
+     * and remembers them again. Static shapes are drawn together where the first
+     * of them would be drawn, so shapes added in between them end up on top.
+     * Shapes that are not found are ignored.
+     *
+     * @param ids the IDs of the shapes to mark as static
+     */
+    public static void markStatic(String... ids) {
+        checkInitialized();
+        List<Element> members = new ArrayList<Element>();
+        for (String id : ids) {
+            Element element = findElement(id);
+            if (element != null) {
+                members.add(element);
+            }
+        }
+        if (!members.isEmpty()) {
+            renderer.markStatic(members.get(0).getId(), members);
+        }
+        sleepInternal();
+    }
+
+    /**
+     * Stops treating the shapes with the given <b>ids</b> as static, so they are
+     * drawn on their own again. See {@link #markStatic(String...)}.
+     *
+     * @param ids the IDs of the shapes that are no longer static
+     */
+    public static void unmarkStatic(String... ids) {
+        checkInitialized();
+        for (String id : ids) {
+            Element element = findElement(id);
+            if (element != null) {
+                renderer.unmarkStatic(element);
+            }
+        }
+        sleepInternal();
+    }
+
+    /**
+     * Returns statistics about the images kept in memory for drawing, such as
+     * how much memory they use and how often an image had to be decoded again.
+     *
+     * @return statistics of the image cache
+     */
+    public static ImageCacheStats getImageCacheStats() {
+        checkInitialized();
+        return graphicsAdapter.getImageCacheStats();
+    }
+
+    /**
+     * Limits the memory used by the images kept for drawing to <b>bytes</b>.
+     * When more is needed, the images drawn least recently are dropped and loaded
+     * again when they are next drawn.
+     *
+     * @param bytes the memory limit in bytes
+     */
+    public static void setImageCacheLimit(long bytes) {
+        checkInitialized();
+        graphicsAdapter.setImageCacheBudget(bytes);
+    }
+
+    /**
+     * Returns statistics about the most recently rendered frame, such as how many
+     * shapes were drawn and how many were skipped because other shapes covered them.
+     * This is useful for finding out why a graphical program runs slowly.
+     *
+     * @return statistics of the last rendered frame
+     */
+    public static RenderStats getRenderStats() {
+        checkInitialized();
+        return renderer.getStats();
+    }
+
     /**
      * Sleep after each drawing method to allow for animations
      */
@@ -677,6 +1233,155 @@ public final class Graphics {
         LockSupport.park();
     }
 
+    /**
+     * Adds an element on top of the canvas.
+     *
+     * @param element The element to add.
+     */
+    private static void addElement(Element element) {
+        graphicsElements.add(element);
+        renderer.elementAdded(element);
+    }
+
+    /**
+     * Finds an element on the canvas or inside a container.
+     *
+     * @param id The ID of the element.
+     * @return The element, or {@code null} if not found.
+     */
+    private static Element findElement(String id) {
+        Element element = graphicsElements.findByID(id);
+        if (element != null) {
+            return element;
+        }
+        for (Element topLevel : graphicsElements) {
+            if (topLevel instanceof Container) {
+                element = ((Container) topLevel).findByID(id);
+                if (element != null) {
+                    return element;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes an element from the canvas or from the container holding it.
+     *
+     * @param id The ID of the element.
+     * @return The removed element, or {@code null} if not found.
+     */
+    private static Element removeElement(String id) {
+        Element element = graphicsElements.removeByID(id);
+        if (element != null) {
+            return element;
+        }
+        for (Element topLevel : graphicsElements) {
+            if (topLevel instanceof Container) {
+                element = ((Container) topLevel).removeByID(id);
+                if (element != null) {
+                    return element;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds a pixel canvas.
+     *
+     * @param id The ID of the pixel canvas.
+     * @return The pixel canvas.
+     * @throws IllegalArgumentException if no such pixel canvas exists.
+     */
+    private static PixelCanvas findPixelCanvas(String id) {
+        checkInitialized();
+        Element element = findElement(id);
+        if (element instanceof PixelCanvas) {
+            return (PixelCanvas) element;
+        }
+        throw new IllegalArgumentException("Element with ID " + id + " is not a pixel canvas");
+    }
+
+    /**
+     * Finds an element that supports opacity and effects.
+     *
+     * @param id The ID of the element.
+     * @return The element.
+     * @throws IllegalArgumentException if no such element exists or it does not
+     *                                  support opacity and effects.
+     */
+    private static AbstractElement findAbstractElement(String id) {
+        Element element = findElement(id);
+        if (element == null) {
+            throw new IllegalArgumentException("Element with ID " + id + " not found");
+        }
+        if (!(element instanceof AbstractElement)) {
+            throw new IllegalArgumentException("Element with ID " + id + " does not support opacity and effects");
+        }
+        return (AbstractElement) element;
+    }
+
+    /**
+     * Loads the image of a web sprite in the background and shows it once it has
+     * loaded, unless the sprite has been pointed at another URL or size in the meantime.
+     *
+     * @param image  The web sprite.
+     * @param url    The source URL of the image.
+     * @param width  The width to convert SVG images to.
+     * @param height The height to convert SVG images to.
+     */
+    private static void loadWebSpriteImage(Image image, String url, int width, int height) {
+        image.setSource(url, width, height);
+        AsyncImageLoader.load(url, width, height).thenAccept(data -> {
+            if (data != null && image.hasSource(url, width, height)) {
+                // A sprite removed while downloading would never release the prepared image
+                if (findElement(image.getId()) == image) {
+                    graphicsAdapter.prepareRasterImage(data);
+                }
+                image.setData(data);
+            }
+        });
+    }
+
+    /**
+     * Converts the vector image of a resized web sprite again at its new size, if
+     * the size has changed by more than {@link #RASTER_SCALE_THRESHOLD}. The sprite
+     * keeps showing its stretched image until the new one has been converted.
+     *
+     * @param element The resized element.
+     */
+    private static void rasterizeAtDisplayedSize(Element element) {
+        if (!(element instanceof Image)) {
+            return;
+        }
+        Image image = (Image) element;
+        String url = image.getSource();
+        if (url == null || !AsyncImageLoader.isSVG(url) || image.getWidth() <= 0 || image.getHeight() <= 0) {
+            return;
+        }
+        if (exceedsScaleThreshold(image.getWidth(), image.getSourceWidth())
+                || exceedsScaleThreshold(image.getHeight(), image.getSourceHeight())) {
+            loadWebSpriteImage(image, url, image.getWidth(), image.getHeight());
+        }
+    }
+
+    private static boolean exceedsScaleThreshold(int displayed, int rasterized) {
+        return rasterized <= 0 || Math.abs(displayed - rasterized) > rasterized * RASTER_SCALE_THRESHOLD;
+    }
+
+    /**
+     * Loads the image of a pattern fill on the calling thread, so that the
+     * rendering thread never waits for a download.
+     *
+     * @param paint The paint to load, may be {@code null}.
+     */
+    private static void preloadPaint(CSSPaint paint) {
+        if (paint != null) {
+            paint.getImageData();
+        }
+    }
+
     /**
      * Check if the graphics engine has been initialized.
      */
@@ -684,12 +1389,12 @@ public final class Graphics {
         if (graphicsAdapter == null) {
             graphicsAdapter = GraphicsAdapterFactory.getGraphicsAdapter();
             graphicsAdapter.init();
+            renderer = new Renderer(graphicsAdapter, graphicsElements);
             graphicsAdapter.scheduleFrameUpdates(() -> {
-                graphicsAdapter.clear();
                 try {
-                    graphicsElements.forEach(element -> element.draw(graphicsAdapter));
+                    renderer.renderFrame();
                 } catch (Exception e) {
-                    // ConcurrentModificationException can occur if the list is modified while iterating
+                    // The element list can be modified by the main thread while a frame is being rendered
                 }
             }, 60);
         }
@@ -0,0 +1,90 @@
+package com.nooblab.adapter;
+
+import java.util.Arrays;
+
+import javafx.scene.paint.Color;
+
+/**
+ * A cache of JavaFX {@link Color} objects keyed by packed ARGB values.
+ * <p>
+ * The cache is an open-addressing hash table over primitive keys, so looking up
+ * a color never allocates. When the table becomes too full it is simply emptied,
+ * which keeps its size bounded for programs that animate through many colors.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+class ARGBColorCache {
+
+    /**
+     * Number of slots in the table, must be a power of two.
+     */
+    private static final int CAPACITY = 1024;
+
+    /**
+     * Number of cached colors at which the table is emptied.
+     */
+    private static final int MAX_SIZE = CAPACITY * 3 / 4;
+
+    private final int[] keys;
+    private final Color[] colors;
+    private int size;
+
+    /**
+     * Creates an empty color cache.
+     */
+    ARGBColorCache() {
+        this.keys = new int[CAPACITY];
+        this.colors = new Color[CAPACITY];
+    }
+
+    /**
+     * Gets the color for the given ARGB value, creating it on first use.
+     *
+     * @param argb The packed ARGB value.
+     * @return The corresponding JavaFX color.
+     */
+    Color get(int argb) {
+        int mask = CAPACITY - 1;
+        int slot = mix(argb) & mask;
+        while (colors[slot] != null) {
+            if (keys[slot] == argb) {
+                return colors[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == MAX_SIZE) {
+            clear();
+            slot = mix(argb) & mask;
+        }
+
+        Color color = Color.rgb(argb >> 16 & 0xFF, argb >> 8 & 0xFF, argb & 0xFF, (argb >>> 24) / 255.0);
+        keys[slot] = argb;
+        colors[slot] = color;
+        size++;
+        return color;
+    }
+
+    /**
+     * Gets the number of cached colors.
+     *
+     * @return The number of cached colors.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes all cached colors.
+     */
+    void clear() {
+        Arrays.fill(colors, null);
+        size = 0;
+    }
+
+    private static int mix(int value) {
+        int hash = value * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
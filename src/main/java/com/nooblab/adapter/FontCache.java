@@ -0,0 +1,106 @@
+package com.nooblab.adapter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.nooblab.text.FontStyle;
+import com.nooblab.text.FontWeight;
+
+import javafx.scene.text.Font;
+import javafx.scene.text.FontPosture;
+
+/**
+ * A cache of resolved JavaFX fonts keyed by family, size, weight and style.
+ * <p>
+ * Resolving a font is expensive, so every combination is only resolved once.
+ * Lookups reuse a single key object and do not allocate once the font is cached.
+ * The cache may be used from several threads, so fonts can be resolved ahead of
+ * time outside the rendering thread.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+class FontCache {
+
+    /**
+     * Number of cached fonts at which the cache is emptied.
+     */
+    private static final int MAX_SIZE = 256;
+
+    private final Map<FontKey, Font> fonts;
+    private final FontKey lookupKey;
+
+    /**
+     * Creates an empty font cache.
+     */
+    FontCache() {
+        this.fonts = new HashMap<FontKey, Font>();
+        this.lookupKey = new FontKey();
+    }
+
+    /**
+     * Gets the font with the given attributes, resolving it on first use.
+     *
+     * @param family The font family.
+     * @param size   The font size.
+     * @param weight The font weight.
+     * @param style  The font style.
+     * @return The resolved JavaFX font.
+     */
+    synchronized Font get(String family, int size, FontWeight weight, FontStyle style) {
+        lookupKey.set(family, size, weight, style);
+        Font font = fonts.get(lookupKey);
+        if (font == null) {
+            if (fonts.size() == MAX_SIZE) {
+                fonts.clear();
+            }
+            FontPosture posture = style == FontStyle.ITALIC ? FontPosture.ITALIC : FontPosture.REGULAR;
+            font = Font.font(family, javafx.scene.text.FontWeight.findByName(weight.getValue()), posture, size);
+
+            FontKey key = new FontKey();
+            key.set(family, size, weight, style);
+            fonts.put(key, font);
+        }
+        return font;
+    }
+
+    /**
+     * Gets the number of cached fonts.
+     *
+     * @return The number of cached fonts.
+     */
+    synchronized int size() {
+        return fonts.size();
+    }
+
+    private static final class FontKey {
+        private String family;
+        private int size;
+        private FontWeight weight;
+        private FontStyle style;
+
+        private void set(String family, int size, FontWeight weight, FontStyle style) {
+            this.family = family;
+            this.size = size;
+            this.weight = weight;
+            this.style = style;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof FontKey)) {
+                return false;
+            }
+            FontKey other = (FontKey) obj;
+            return size == other.size && weight == other.weight && style == other.style
+                    && Objects.equals(family, other.family);
+        }
+
+        @Override
+        public int hashCode() {
+            return ((Objects.hashCode(family) * 31 + size) * 31 + Objects.hashCode(weight)) * 31
+                    + Objects.hashCode(style);
+        }
+    }
+}
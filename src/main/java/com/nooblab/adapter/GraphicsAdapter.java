@@ -3,6 +3,7 @@ package com.nooblab.adapter;
 import com.nooblab.text.FontStyle;
 import com.nooblab.text.FontWeight;
 import com.nooblab.text.TextAlign;
+import com.nooblab.util.CSSPaint;
 
 /**
  * Represents an abstract graphics adapter interface for rendering 2D graphics.
@@ -78,6 +79,78 @@ public interface GraphicsAdapter {
      */
     void restoreState(GraphicsState state);
 
+    /**
+     * Saves the current graphics state on the adapter's state stack.
+     * <p>
+     * In addition to the properties saved by {@link #saveState()}, the state stack
+     * saves the transformation and the clip region of the drawing surface. Unlike {@link #saveState()},
+     * pushing a state does not allocate, which makes it suitable for nested drawing
+     * on every frame. Every push must be matched by a {@link #popState()} before the
+     * current offscreen layer, if any, is finished.
+     * </p>
+     */
+    void pushState();
+
+    /**
+     * Restores the graphics state saved by the matching {@link #pushState()} call,
+     * including the transformation and the clip region of the drawing surface.
+     *
+     * @throws IllegalStateException if no state was pushed.
+     */
+    void popState();
+
+    /**
+     * Moves the origin of the coordinate system used by subsequent drawing calls.
+     * <p>
+     * The translation adds up with any previous translation and is undone by
+     * {@link #popState()}. It is not affected by {@link #resetState()}.
+     * </p>
+     *
+     * @param dx The horizontal distance in pixels.
+     * @param dy The vertical distance in pixels.
+     */
+    void translate(int dx, int dy);
+
+    /**
+     * Restricts subsequent drawing to the given rectangle.
+     * <p>
+     * The rectangle is given in the current coordinate system and is intersected
+     * with the current clip region, if any. The clip region is undone by
+     * {@link #popState()}, so it should be set after a {@link #pushState()} call.
+     * It is not affected by {@link #resetState()}.
+     * </p>
+     *
+     * @param x      The x-coordinate of the rectangle's top-left corner.
+     * @param y      The y-coordinate of the rectangle's top-left corner.
+     * @param width  The width of the rectangle.
+     * @param height The height of the rectangle.
+     */
+    void clipRect(int x, int y, int width, int height);
+
+    /**
+     * Restricts subsequent drawing to the given polygon.
+     * <p>
+     * Behaves like {@link #clipRect(int, int, int, int)} with an arbitrary outline.
+     * </p>
+     *
+     * @param xPoints An array of x-coordinates for the polygon's vertices.
+     * @param yPoints An array of y-coordinates for the polygon's vertices.
+     * @param nPoints The number of points in the polygon.
+     */
+    void clipPolygon(int[] xPoints, int[] yPoints, int nPoints);
+
+    /**
+     * Makes subsequent drawing more transparent.
+     * <p>
+     * The opacity multiplies with any previous opacity and is undone by
+     * {@link #popState()}, so it should be set after a {@link #pushState()} call.
+     * It is not affected by {@link #resetState()}.
+     * </p>
+     *
+     * @param opacity The opacity, from {@code 0} (invisible) to {@code 1} (unchanged).
+     */
+    void multiplyOpacity(double opacity);
+
     /**
      * Resets the graphics state to its default settings.
      * <p>
@@ -114,6 +187,9 @@ public interface GraphicsAdapter {
 
     /**
      * Sets the fill color used for filling shapes and text.
+     * <p>
+     * Gradient and image pattern definitions are accepted too, see {@link #setFillPaint(CSSPaint)}.
+     * </p>
      *
      * @param color The color in a string format (e.g., hexadecimal or named colors).
      * @see <a href="https://developer.mozilla.org/en-US/docs/Web/CSS/named-color">Named Colors Reference</a>
@@ -128,6 +204,39 @@ public interface GraphicsAdapter {
      */
     void setStroke(String color);
 
+    /**
+     * Sets the fill color used for filling shapes and text.
+     * <p>
+     * Prefer this method when drawing repeatedly with the same color, since the
+     * color does not have to be parsed again.
+     * </p>
+     *
+     * @param argb The color as a packed ARGB value, e.g. {@code 0xFFFF0000} for opaque red.
+     * @see com.nooblab.util.CSSColor#toARGB(String)
+     */
+    void setFill(int argb);
+
+    /**
+     * Sets the stroke color used for drawing outlines of shapes and text.
+     *
+     * @param argb The color as a packed ARGB value, e.g. {@code 0xFFFF0000} for opaque red.
+     * @see com.nooblab.util.CSSColor#toARGB(String)
+     */
+    void setStroke(int argb);
+
+    /**
+     * Sets a gradient or image pattern used for filling shapes and text.
+     * <p>
+     * The paint replaces the fill color until the next call to one of the
+     * {@code setFill} methods. Adapters cache the objects they build for a paint
+     * definition, so using the same paint on every frame is cheap.
+     * </p>
+     *
+     * @param paint The paint to fill with.
+     * @see CSSPaint#parse(String)
+     */
+    void setFillPaint(CSSPaint paint);
+
     /**
      * Sets the line width for stroking shapes and paths.
      *
@@ -170,6 +279,20 @@ public interface GraphicsAdapter {
      */
     void setFontStyle(FontStyle style);
 
+    /**
+     * Resolves a font ahead of time so that drawing text with it later is fast.
+     * <p>
+     * May be called from any thread. Adapters that do not need to resolve fonts
+     * may ignore this call.
+     * </p>
+     *
+     * @param fontFamily The name of the font family.
+     * @param size       The font size in points.
+     * @param weight     The font weight.
+     * @param style      The font style.
+     */
+    void preloadFont(String fontFamily, int size, FontWeight weight, FontStyle style);
+
     /**
      * Fills a rectangle with the current fill color.
      *
@@ -261,7 +384,14 @@ public interface GraphicsAdapter {
      * <p>
      * The provided {@code id} is required for caching and post-processing by the
      * underlying rendering engine. This allows optimizations such as texture
-     * reuse, transformations, and lazy loading.
+     * reuse, transformations, and lazy loading. Identifiers drawing identical image
+     * data may share one decoded image, which is kept until every identifier using
+     * it has been purged with {@link #purgeRasterImage(String)}.
+     * </p>
+     * <p>
+     * Adapters may decode images in the background. Until the image is decoded,
+     * nothing is drawn; see {@link #prepareRasterImage(byte[])} and
+     * {@link #isRasterImageReady(String)}.
      * </p>
      *
      * @param id     A unique identifier for the raster image.
@@ -276,15 +406,231 @@ public interface GraphicsAdapter {
     /**
      * Purges a raster image from cache.
      * <p>
-     * This method removes any cached or post-processed versions of the specified
-     * raster image. It should be used when the source data has changed and needs
-     * to be reloaded.
+     * This method releases the cached or post-processed versions of the specified
+     * raster image. Images shared with other identifiers are only dropped once the
+     * last of them is purged. It should be used when the source data has changed
+     * and needs to be reloaded, or when the image is no longer drawn.
      * </p>
      *
      * @param id The unique identifier of the raster image to purge.
      */
     void purgeRasterImage(String id);
 
+    /**
+     * Starts decoding a raster image in the background, so that it is ready by the
+     * time it is first drawn.
+     * <p>
+     * Unlike the drawing methods, this method may be called from any thread. It does
+     * nothing if an image with the same data is already decoded or being decoded.
+     * </p>
+     *
+     * @param data The raw image data in a supported raster format (e.g., PNG, BMP),
+     *             ignored if {@code null}.
+     */
+    void prepareRasterImage(byte[] data);
+
+    /**
+     * Checks if the raster image last drawn under the given identifier has been
+     * decoded and was actually drawn.
+     *
+     * @param id The unique identifier of the raster image.
+     * @return {@code true} if the image is decoded.
+     */
+    boolean isRasterImageReady(String id);
+
+    /**
+     * Checks if the raster image last drawn under the given identifier has been
+     * decoded and has no transparent or translucent pixels.
+     *
+     * @param id The unique identifier of the raster image.
+     * @return {@code true} if the image is decoded and fully opaque.
+     */
+    boolean isRasterImageOpaque(String id);
+
+    /**
+     * Sets the maximum memory used by decoded raster images.
+     * <p>
+     * When the budget is exceeded, the least recently drawn images are dropped and
+     * decoded again when they are next drawn. May be called from any thread.
+     * </p>
+     *
+     * @param bytes The budget in bytes.
+     */
+    void setImageCacheBudget(long bytes);
+
+    /**
+     * Returns the size, hit, miss and eviction counters of the decoded raster image cache.
+     *
+     * @return The image cache statistics of this adapter.
+     */
+    ImageCacheStats getImageCacheStats();
+
+    /**
+     * Draws a region of a raster image at the specified position.
+     * <p>
+     * The image is cached under {@code id} exactly as with
+     * {@link #drawRasterImage(String, byte[], int, int, int, int)}, so many regions of
+     * the same source (e.g. the tiles of a tileset) share a single decoded image.
+     * Like whole images, nothing is drawn until the image is decoded, so callers
+     * caching the result, such as in a layer, should draw it again once
+     * {@link #isRasterImageReady(String)} returns {@code true}.
+     * </p>
+     *
+     * @param id         A unique identifier for the raster image.
+     * @param data       The raw image data in a supported raster format (e.g., PNG, BMP).
+     * @param sourceX    The x-coordinate of the region within the source image.
+     * @param sourceY    The y-coordinate of the region within the source image.
+     * @param sourceW    The width of the region within the source image.
+     * @param sourceH    The height of the region within the source image.
+     * @param x          The x-coordinate where the region should be drawn.
+     * @param y          The y-coordinate where the region should be drawn.
+     * @param width      The width to scale the region to.
+     * @param height     The height to scale the region to.
+     */
+    void drawRasterImageRegion(String id, byte[] data, int sourceX, int sourceY, int sourceW, int sourceH,
+            int x, int y, int width, int height);
+
+    /**
+     * Draws an image given as raw pixels at the specified position.
+     * <p>
+     * Unlike {@link #drawRasterImage(String, byte[], int, int, int, int)}, the pixels
+     * need no decoding: they are copied straight into an image cached under
+     * {@code id}. The copy is only made again when a different pixel array is drawn
+     * under the same identifier, or after the identifier has been purged with
+     * {@link #purgeRasterImage(String)}.
+     * </p>
+     *
+     * @param id          A unique identifier for the image.
+     * @param pixels      The pixels as packed ARGB values, row by row.
+     * @param pixelWidth  The number of pixels in a row.
+     * @param pixelHeight The number of rows.
+     * @param x           The x-coordinate where the image should be drawn.
+     * @param y           The y-coordinate where the image should be drawn.
+     * @param width       The width to scale the image to.
+     * @param height      The height to scale the image to.
+     */
+    void drawPixels(String id, int[] pixels, int pixelWidth, int pixelHeight, int x, int y, int width, int height);
+
+    /**
+     * Draws an image given as palette indices at the specified position.
+     * <p>
+     * Like {@link #drawPixels(String, int[], int, int, int, int, int, int)}, the
+     * pixels are copied straight into an image cached under {@code id}, which is
+     * only written again when a different index array is drawn under the same
+     * identifier.
+     * </p>
+     *
+     * @param id          A unique identifier for the image.
+     * @param indices     The palette index of every pixel, row by row, read as unsigned bytes.
+     * @param palette     The colors as packed ARGB values, at most 256 of them.
+     * @param pixelWidth  The number of pixels in a row.
+     * @param pixelHeight The number of rows.
+     * @param x           The x-coordinate where the image should be drawn.
+     * @param y           The y-coordinate where the image should be drawn.
+     * @param width       The width to scale the image to.
+     * @param height      The height to scale the image to.
+     */
+    void drawIndexedPixels(String id, byte[] indices, int[] palette, int pixelWidth, int pixelHeight, int x, int y,
+            int width, int height);
+
+    /**
+     * Copies a changed region of a pixel array into the image cached for it under
+     * {@code id}, so that the image does not need to be written again as a whole.
+     * <p>
+     * Does nothing if no image has been written from this pixel array under
+     * {@code id} yet; the whole array is then written the next time it is drawn
+     * with {@link #drawPixels(String, int[], int, int, int, int, int, int)}.
+     * </p>
+     *
+     * @param id           The unique identifier of the image.
+     * @param pixels       The pixels as packed ARGB values, row by row.
+     * @param pixelWidth   The number of pixels in a row.
+     * @param regionX      The x-coordinate of the changed region, in pixels.
+     * @param regionY      The y-coordinate of the changed region, in pixels.
+     * @param regionWidth  The width of the changed region, in pixels.
+     * @param regionHeight The height of the changed region, in pixels.
+     */
+    void updatePixels(String id, int[] pixels, int pixelWidth, int regionX, int regionY, int regionWidth,
+            int regionHeight);
+
+    /**
+     * Checks if an offscreen layer with the given identifier is cached.
+     *
+     * @param id The unique identifier of the layer.
+     * @return {@code true} if the layer exists and can be drawn with {@link #drawLayer}.
+     */
+    boolean hasLayer(String id);
+
+    /**
+     * Starts rendering into an offscreen layer.
+     * <p>
+     * All drawing calls up to the matching {@link #endLayer()} are redirected into a
+     * transparent offscreen surface of the given size, with its origin at the top-left
+     * corner of the layer. The result is cached under {@code id}, replacing any
+     * previous content, and can then be drawn any number of times with {@link #drawLayer}.
+     * Layers may be nested.
+     * </p>
+     *
+     * @param id     The unique identifier of the layer.
+     * @param width  The width of the layer in pixels.
+     * @param height The height of the layer in pixels.
+     */
+    void beginLayer(String id, int width, int height);
+
+    /**
+     * Finishes rendering into the layer started by the last {@link #beginLayer} call
+     * and redirects drawing back to the previous surface.
+     */
+    void endLayer();
+
+    /**
+     * Finishes rendering into the layer started by the last {@link #beginLayer} call,
+     * applies the given effect to its content and redirects drawing back to the
+     * previous surface.
+     * <p>
+     * The effect is applied once and is part of the cached layer, so drawing the
+     * layer afterwards costs no more than drawing a layer without an effect.
+     * </p>
+     *
+     * @param effect The effect to apply, or {@code null} for none.
+     */
+    void endLayer(LayerEffect effect);
+
+    /**
+     * Draws a cached offscreen layer at the specified position.
+     * <p>
+     * If the layer does not exist this method does nothing.
+     * </p>
+     *
+     * @param id     The unique identifier of the layer.
+     * @param x      The x-coordinate where the layer should be drawn.
+     * @param y      The y-coordinate where the layer should be drawn.
+     * @param width  The width to scale the layer to.
+     * @param height The height to scale the layer to.
+     */
+    void drawLayer(String id, int x, int y, int width, int height);
+
+    /**
+     * Purges an offscreen layer from cache.
+     *
+     * @param id The unique identifier of the layer to purge.
+     */
+    void purgeLayer(String id);
+
+    /**
+     * Returns the width of the drawable canvas area.
+     *
+     * @return The canvas width in pixels.
+     */
+    int getCanvasWidth();
+
+    /**
+     * Returns the height of the drawable canvas area.
+     *
+     * @return The canvas height in pixels.
+     */
+    int getCanvasHeight();
+
     /**
      * Defines the aspect ratio for rendering within a fixed 1000x1000 canvas.
      * <p>
@@ -314,4 +660,15 @@ public interface GraphicsAdapter {
      * @return List of key codes that are currently pressed.
      */
     String[] getPressedKeys();
+
+    /**
+     * Returns the counters of state changes issued and skipped by this adapter.
+     * <p>
+     * Adapters skip state changes that would not alter the state already applied
+     * to the drawing surface, such as setting the fill color that is already in use.
+     * </p>
+     *
+     * @return The state change counters of this adapter.
+     */
+    StateChangeStats getStateChangeStats();
 }
@@ -3,6 +3,7 @@ package com.nooblab.adapter;
 import com.nooblab.text.FontStyle;
 import com.nooblab.text.FontWeight;
 import com.nooblab.text.TextAlign;
+import com.nooblab.util.CSSPaint;
 
 /**
  * Represents the state of a {@link GraphicsAdapter}.
@@ -15,13 +16,24 @@ import com.nooblab.text.TextAlign;
  */
 public class GraphicsState {
     private String fillColor;
+    private int fillARGB;
+    private CSSPaint fillPaint;
     private String strokeColor;
+    private int strokeARGB;
     private int lineWidth;
     private String fontFamily;
     private int fontSize;
     private FontWeight fontWeight;
     private FontStyle fontStyle;
     private TextAlign textAlign;
+    private int translateX;
+    private int translateY;
+    private double opacity;
+    private boolean clipped;
+    private int clipX;
+    private int clipY;
+    private int clipWidth;
+    private int clipHeight;
 
     /**
      * Creates a new {@code GraphicsState} with default values.
@@ -35,18 +47,24 @@ public class GraphicsState {
      *   <li>Font size: 12.0</li>
      *   <li>Font weight: NORMAL</li>
      *   <li>Font style: NORMAL</li>
+     *   <li>Translation: none</li>
+     *   <li>Opacity: 1.0</li>
+     *   <li>Clip: none</li>
      * </ul>
      * </p>
      */
     public GraphicsState() {
         this.fillColor = "black";
+        this.fillARGB = 0xFF000000;
         this.strokeColor = "black";
+        this.strokeARGB = 0xFF000000;
         this.lineWidth = 0;
         this.fontFamily = "Arial";
         this.fontSize = 12;
         this.fontWeight = FontWeight.NORMAL;
         this.fontStyle = FontStyle.NORMAL;
         this.textAlign = TextAlign.LEFT;
+        this.opacity = 1;
     }
 
     /**
@@ -85,6 +103,77 @@ public class GraphicsState {
         this.strokeColor = strokeColor;
     }
 
+    /**
+     * Gets the current fill color as a packed ARGB value.
+     *
+     * @return the fill color.
+     */
+    public int getFillARGB() {
+        return fillARGB;
+    }
+
+    /**
+     * Sets the fill color as a packed ARGB value.
+     * <p>
+     * The string form of the fill color is cleared, since it no longer describes
+     * the current color.
+     * </p>
+     *
+     * @param fillARGB The new fill color.
+     */
+    public void setFillARGB(int fillARGB) {
+        this.fillARGB = fillARGB;
+        this.fillColor = null;
+        this.fillPaint = null;
+    }
+
+    /**
+     * Gets the current fill paint.
+     *
+     * @return the fill paint, or {@code null} if shapes are filled with the fill color.
+     */
+    public CSSPaint getFillPaint() {
+        return fillPaint;
+    }
+
+    /**
+     * Sets the fill paint, which replaces the fill color until the next call to
+     * {@link #setFillARGB(int)}.
+     * <p>
+     * The string form of the fill color is cleared, since it no longer describes
+     * the current fill.
+     * </p>
+     *
+     * @param fillPaint The new fill paint.
+     */
+    public void setFillPaint(CSSPaint fillPaint) {
+        this.fillPaint = fillPaint;
+        this.fillColor = null;
+    }
+
+    /**
+     * Gets the current stroke color as a packed ARGB value.
+     *
+     * @return the stroke color.
+     */
+    public int getStrokeARGB() {
+        return strokeARGB;
+    }
+
+    /**
+     * Sets the stroke color as a packed ARGB value.
+     * <p>
+     * The string form of the stroke color is cleared, since it no longer describes
+     * the current color.
+     * </p>
+     *
+     * @param strokeARGB The new stroke color.
+     */
+    public void setStrokeARGB(int strokeARGB) {
+        this.strokeARGB = strokeARGB;
+        this.strokeColor = null;
+    }
+
     /**
      * Gets the current line width.
      *
@@ -193,6 +282,137 @@ public class GraphicsState {
         this.textAlign = textAlign;
     }
 
+    /**
+     * Gets the horizontal translation of the coordinate system.
+     *
+     * @return the horizontal translation in pixels.
+     */
+    public int getTranslateX() {
+        return translateX;
+    }
+
+    /**
+     * Gets the vertical translation of the coordinate system.
+     *
+     * @return the vertical translation in pixels.
+     */
+    public int getTranslateY() {
+        return translateY;
+    }
+
+    /**
+     * Sets the translation of the coordinate system.
+     *
+     * @param translateX The new horizontal translation in pixels.
+     * @param translateY The new vertical translation in pixels.
+     */
+    public void setTranslate(int translateX, int translateY) {
+        this.translateX = translateX;
+        this.translateY = translateY;
+    }
+
+    /**
+     * Gets the opacity of the drawing surface.
+     *
+     * @return the opacity, from {@code 0} to {@code 1}.
+     */
+    public double getOpacity() {
+        return opacity;
+    }
+
+    /**
+     * Sets the opacity of the drawing surface.
+     *
+     * @param opacity The new opacity, from {@code 0} to {@code 1}.
+     */
+    public void setOpacity(double opacity) {
+        this.opacity = opacity;
+    }
+
+    /**
+     * Checks if drawing is restricted to a clip region.
+     *
+     * @return {@code true} if a clip region is set.
+     */
+    public boolean isClipped() {
+        return clipped;
+    }
+
+    /**
+     * Gets the x-coordinate of the bounding box of the clip region, in canvas coordinates.
+     *
+     * @return the left edge of the clip region.
+     */
+    public int getClipX() {
+        return clipX;
+    }
+
+    /**
+     * Gets the y-coordinate of the bounding box of the clip region, in canvas coordinates.
+     *
+     * @return the top edge of the clip region.
+     */
+    public int getClipY() {
+        return clipY;
+    }
+
+    /**
+     * Gets the width of the bounding box of the clip region.
+     *
+     * @return the width of the clip region.
+     */
+    public int getClipWidth() {
+        return clipWidth;
+    }
+
+    /**
+     * Gets the height of the bounding box of the clip region.
+     *
+     * @return the height of the clip region.
+     */
+    public int getClipHeight() {
+        return clipHeight;
+    }
+
+    /**
+     * Restricts the clip region to the given rectangle.
+     * <p>
+     * The new clip region is the intersection of the current clip region, if any,
+     * and the rectangle, which is given in canvas coordinates.
+     * </p>
+     *
+     * @param x      The x-coordinate of the rectangle.
+     * @param y      The y-coordinate of the rectangle.
+     * @param width  The width of the rectangle.
+     * @param height The height of the rectangle.
+     */
+    public void intersectClip(int x, int y, int width, int height) {
+        if (clipped) {
+            int right = Math.min(clipX + clipWidth, x + width);
+            int bottom = Math.min(clipY + clipHeight, y + height);
+            x = Math.max(clipX, x);
+            y = Math.max(clipY, y);
+            width = right - x;
+            height = bottom - y;
+        }
+        this.clipped = true;
+        this.clipX = x;
+        this.clipY = y;
+        this.clipWidth = Math.max(0, width);
+        this.clipHeight = Math.max(0, height);
+    }
+
+    /**
+     * Removes the clip region.
+     */
+    public void clearClip() {
+        this.clipped = false;
+        this.clipX = 0;
+        this.clipY = 0;
+        this.clipWidth = 0;
+        this.clipHeight = 0;
+    }
+
     /**
      * Clone this {@code GraphicsState} object.
      * 
@@ -201,12 +421,24 @@ public class GraphicsState {
     public GraphicsState clone() {
         GraphicsState clone = new GraphicsState();
         clone.fillColor = this.fillColor;
+        clone.fillARGB = this.fillARGB;
+        clone.fillPaint = this.fillPaint;
         clone.strokeColor = this.strokeColor;
+        clone.strokeARGB = this.strokeARGB;
         clone.lineWidth = this.lineWidth;
         clone.fontFamily = this.fontFamily;
         clone.fontSize = this.fontSize;
         clone.fontWeight = this.fontWeight;
         clone.fontStyle = this.fontStyle;
+        clone.textAlign = this.textAlign;
+        clone.translateX = this.translateX;
+        clone.translateY = this.translateY;
+        clone.opacity = this.opacity;
+        clone.clipped = this.clipped;
+        clone.clipX = this.clipX;
+        clone.clipY = this.clipY;
+        clone.clipWidth = this.clipWidth;
+        clone.clipHeight = this.clipHeight;
         return clone;
     }
 
@@ -218,22 +450,58 @@ public class GraphicsState {
      */
     public void apply(GraphicsState other) {
         this.fillColor = other.fillColor;
+        this.fillARGB = other.fillARGB;
+        this.fillPaint = other.fillPaint;
         this.strokeColor = other.strokeColor;
+        this.strokeARGB = other.strokeARGB;
         this.lineWidth = other.lineWidth;
         this.fontFamily = other.fontFamily;
         this.fontSize = other.fontSize;
         this.fontWeight = other.fontWeight;
         this.fontStyle = other.fontStyle;
+        this.textAlign = other.textAlign;
+        this.translateX = other.translateX;
+        this.translateY = other.translateY;
+        this.opacity = other.opacity;
+        this.clipped = other.clipped;
+        this.clipX = other.clipX;
+        this.clipY = other.clipY;
+        this.clipWidth = other.clipWidth;
+        this.clipHeight = other.clipHeight;
+    }
+
+    /**
+     * Apply only the translation, the opacity and the clip region of another
+     * {@code GraphicsState} object into this object.
+     *
+     * @param other The state to copy the translation, the opacity and the clip region from.
+     */
+    public void applySurface(GraphicsState other) {
+        this.translateX = other.translateX;
+        this.translateY = other.translateY;
+        this.opacity = other.opacity;
+        this.clipped = other.clipped;
+        this.clipX = other.clipX;
+        this.clipY = other.clipY;
+        this.clipWidth = other.clipWidth;
+        this.clipHeight = other.clipHeight;
     }
 
     /**
      * Reset all attributes to their default values.
-     * 
+     * <p>
+     * The translation, the opacity and the clip region are kept, since they are only changed
+     * together with the drawing surface.
+     * </p>
+     *
      * @see #GraphicsState()
      */
     public void reset() {
         this.fillColor = "black";
+        this.fillARGB = 0xFF000000;
+        this.fillPaint = null;
         this.strokeColor = "black";
+        this.strokeARGB = 0xFF000000;
         this.lineWidth = 0;
         this.fontFamily = "Arial";
         this.fontSize = 12;
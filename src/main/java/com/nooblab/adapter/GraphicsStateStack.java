@@ -0,0 +1,105 @@
+package com.nooblab.adapter;
+
+import java.util.Arrays;
+
+/**
+ * A stack of saved {@link GraphicsState} frames.
+ * <p>
+ * Unlike {@link GraphicsAdapter#saveState()}, pushing a state does not create a
+ * new object: the state is copied into a preallocated frame, and frames are
+ * reused once popped. The stack only allocates when it grows deeper than ever
+ * before.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class GraphicsStateStack {
+
+    private GraphicsState[] frames;
+    private int size;
+
+    /**
+     * Creates an empty stack with room for eight states.
+     */
+    public GraphicsStateStack() {
+        this(8);
+    }
+
+    /**
+     * Creates an empty stack.
+     *
+     * @param initialCapacity The number of frames to preallocate.
+     */
+    public GraphicsStateStack(int initialCapacity) {
+        this.frames = new GraphicsState[Math.max(1, initialCapacity)];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = new GraphicsState();
+        }
+    }
+
+    /**
+     * Pushes a copy of the given state onto the stack.
+     *
+     * @param state The state to save.
+     */
+    public void push(GraphicsState state) {
+        if (size == frames.length) {
+            int capacity = frames.length;
+            frames = Arrays.copyOf(frames, capacity * 2);
+            for (int i = capacity; i < frames.length; i++) {
+                frames[i] = new GraphicsState();
+            }
+        }
+        frames[size++].apply(state);
+    }
+
+    /**
+     * Removes the top state from the stack and copies it into the given state.
+     *
+     * @param target The state to restore.
+     * @throws IllegalStateException if the stack is empty.
+     */
+    public void pop(GraphicsState target) {
+        if (size == 0) {
+            throw new IllegalStateException("Graphics state stack is empty.");
+        }
+        target.apply(frames[--size]);
+    }
+
+    /**
+     * Gets the top state of the stack without removing it.
+     * <p>
+     * The returned frame is reused by later pushes and must not be kept.
+     * </p>
+     *
+     * @return The top state, or {@code null} if the stack is empty.
+     */
+    public GraphicsState peek() {
+        return size == 0 ? null : frames[size - 1];
+    }
+
+    /**
+     * Gets the number of saved states.
+     *
+     * @return The depth of the stack.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if no states are saved.
+     *
+     * @return {@code true} if the stack is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all saved states, keeping the frames for reuse.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
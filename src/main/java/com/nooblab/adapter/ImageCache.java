@@ -0,0 +1,388 @@
+package com.nooblab.adapter;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+
+/**
+ * A cache of decoded JavaFX images shared by every image identifier with the same content.
+ * <p>
+ * Images are requested by identifier, usually the ID of the element drawing them,
+ * but decoded only once per distinct content: many sprites or cards showing the
+ * same picture share a single {@link Image}. Each identifier holds a reference to
+ * the shared image, and the image is dropped when its last reference is
+ * {@linkplain #release released}.
+ * </p>
+ * <p>
+ * Images are decoded on background threads. Decoding can be started ahead of time
+ * with {@link #prepare(byte[])}, and images requested before they are decoded are
+ * not available until decoding finishes, unless the caller chooses to wait. A
+ * waiting caller decodes the image itself, without holding up other threads.
+ * Whether an image is fully opaque is worked out once, when it is decoded.
+ * </p>
+ * <p>
+ * The decoded images are kept within a byte budget. When it is exceeded, prepared
+ * images that no identifier refers to are evicted first, then the least recently
+ * drawn images even if they are still referenced. Those are decoded again the
+ * next time they are drawn.
+ * </p>
+ * <p>
+ * Once an identifier has been resolved, looking it up again with the same data
+ * array costs two map lookups. Content is only hashed when an identifier is seen
+ * for the first time or its data array changes. The cache may be used from several
+ * threads.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+class ImageCache {
+
+    private final Map<String, Reference> references;
+    private final LinkedHashMap<ContentKey, SharedImage> images;
+    private final ImageCacheStats stats;
+    private final ExecutorService decoder;
+    private volatile long byteBudget;
+    private long byteSize;
+
+    /**
+     * Creates an empty image cache.
+     *
+     * @param byteBudget The maximum size of the decoded images in bytes.
+     */
+    ImageCache(long byteBudget) {
+        this.references = new HashMap<String, Reference>();
+        this.images = new LinkedHashMap<ContentKey, SharedImage>(16, 0.75f, true);
+        this.stats = new ImageCacheStats();
+        this.byteBudget = byteBudget;
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        this.decoder = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "nooblab-image-decoder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        recordSize();
+    }
+
+    /**
+     * Starts decoding the given image data in the background, unless an image with
+     * the same content is already cached or being decoded.
+     *
+     * @param data The raw image data, ignored if {@code null}.
+     */
+    void prepare(byte[] data) {
+        if (data == null) {
+            return;
+        }
+        ContentKey key = new ContentKey(data);
+        synchronized (this) {
+            if (images.get(key) == null) {
+                decodeLater(key);
+            }
+        }
+    }
+
+    /**
+     * Gets the decoded image for the given identifier, decoding the data only if no
+     * other identifier holds an image with the same content.
+     * <p>
+     * If the identifier already refers to an image decoded from different data, that
+     * reference is released first.
+     * </p>
+     *
+     * @param id   The identifier holding the reference.
+     * @param data The raw image data.
+     * @param wait {@code true} to decode the image on the calling thread if it is not
+     *             decoded yet, {@code false} to leave it to the background threads.
+     * @return The decoded JavaFX image, or {@code null} if it is still being decoded.
+     */
+    Image get(String id, byte[] data, boolean wait) {
+        SharedImage shared;
+        synchronized (this) {
+            shared = lookup(id, data);
+            if (shared.image != null || !wait) {
+                return shared.image;
+            }
+        }
+        // Decode without holding the lock, so that other threads can use the cache meanwhile
+        Image image = new Image(new ByteArrayInputStream(shared.key.data));
+        boolean opaque = isOpaque(image);
+        synchronized (this) {
+            complete(shared, image, opaque);
+            return shared.image != null ? shared.image : image;
+        }
+    }
+
+    /**
+     * Checks if the image the given identifier refers to has been decoded.
+     *
+     * @param id The identifier holding the reference.
+     * @return {@code true} if the image is decoded, {@code false} if it is still being
+     *         decoded or the identifier holds no reference.
+     */
+    synchronized boolean isReady(String id) {
+        Reference reference = references.get(id);
+        return reference != null && !reference.image.dropped && reference.image.image != null;
+    }
+
+    /**
+     * Checks if the image the given identifier refers to has been decoded and has
+     * no transparent or translucent pixels.
+     *
+     * @param id The identifier holding the reference.
+     * @return {@code true} if the image is decoded and fully opaque.
+     */
+    synchronized boolean isOpaque(String id) {
+        Reference reference = references.get(id);
+        return isReady(id) && reference.image.opaque;
+    }
+
+    /**
+     * Releases the reference held by the given identifier, dropping the decoded image
+     * if no other identifier refers to it.
+     *
+     * @param id The identifier holding the reference.
+     */
+    synchronized void release(String id) {
+        Reference reference = references.remove(id);
+        if (reference == null) {
+            return;
+        }
+        SharedImage shared = reference.image;
+        if (--shared.references == 0 && !shared.dropped) {
+            images.remove(shared.key);
+            shared.dropped = true;
+            byteSize -= shared.bytes;
+            recordSize();
+        }
+    }
+
+    /**
+     * Sets the maximum size of the decoded images.
+     * <p>
+     * May be called from any thread. Images that no longer fit are evicted the
+     * next time an image is requested.
+     * </p>
+     *
+     * @param byteBudget The maximum size in bytes.
+     */
+    void setByteBudget(long byteBudget) {
+        this.byteBudget = byteBudget;
+    }
+
+    /**
+     * Gets the statistics of this cache.
+     *
+     * @return The cache statistics.
+     */
+    ImageCacheStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Gets the number of distinct images, decoded or being decoded.
+     *
+     * @return The number of images.
+     */
+    synchronized int size() {
+        return images.size();
+    }
+
+    /**
+     * Gets the number of identifiers holding a reference to an image.
+     *
+     * @return The number of references.
+     */
+    synchronized int getReferenceCount() {
+        return references.size();
+    }
+
+    /**
+     * Stops the background decoding threads.
+     */
+    void shutdown() {
+        decoder.shutdownNow();
+    }
+
+    /**
+     * Adds an image for the given content and starts decoding it in the background.
+     */
+    private SharedImage decodeLater(ContentKey key) {
+        SharedImage shared = new SharedImage(key, System.nanoTime());
+        images.put(key, shared);
+        stats.recordMiss();
+        decoder.execute(() -> {
+            Image image = new Image(new ByteArrayInputStream(key.data));
+            boolean opaque = isOpaque(image);
+            synchronized (this) {
+                complete(shared, image, opaque);
+            }
+        });
+        return shared;
+    }
+
+    /**
+     * Finds the shared image for the given identifier and data, adding a reference
+     * and starting to decode the image if needed.
+     */
+    private SharedImage lookup(String id, byte[] data) {
+        if (byteSize > byteBudget) {
+            evict();
+            recordSize();
+        }
+
+        Reference reference = references.get(id);
+        if (reference != null) {
+            if (reference.data == data && !reference.image.dropped) {
+                // Mark the image as recently used
+                images.get(reference.image.key);
+                stats.recordHit();
+                return reference.image;
+            }
+            release(id);
+        }
+
+        ContentKey key = new ContentKey(data);
+        SharedImage shared = images.get(key);
+        if (shared == null) {
+            shared = decodeLater(key);
+        } else {
+            stats.recordHit();
+        }
+        shared.references++;
+        references.put(id, new Reference(data, shared));
+        recordSize();
+        return shared;
+    }
+
+    /**
+     * Stores a decoded image, unless it was decoded already or dropped meanwhile.
+     */
+    private void complete(SharedImage shared, Image image, boolean opaque) {
+        if (shared.image != null || shared.dropped) {
+            return;
+        }
+        shared.image = image;
+        shared.opaque = opaque;
+        // Decoded images are stored with four bytes per pixel
+        shared.bytes = (long) image.getWidth() * (long) image.getHeight() * 4;
+        byteSize += shared.bytes;
+        stats.recordDecode(System.nanoTime() - shared.requestTime);
+        evict();
+        recordSize();
+    }
+
+    /**
+     * Checks if every pixel of a decoded image is fully opaque. Images that failed
+     * to decode are not opaque.
+     */
+    static boolean isOpaque(Image image) {
+        PixelReader reader = image.getPixelReader();
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        if (image.isError() || reader == null || width <= 0 || height <= 0) {
+            return false;
+        }
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            reader.getPixels(0, y, width, 1, PixelFormat.getIntArgbInstance(), row, 0, width);
+            for (int pixel : row) {
+                if (pixel >>> 24 != 0xFF) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Evicts the least recently used decoded images until the cache fits its budget.
+     * Images that were prepared but are not referenced by any identifier, such as
+     * those of elements removed before they were drawn, are evicted first. The most
+     * recently used image is always kept, so that it can be drawn.
+     */
+    private void evict() {
+        evict(true);
+        evict(false);
+    }
+
+    private void evict(boolean unreferencedOnly) {
+        Iterator<SharedImage> iterator = images.values().iterator();
+        int remaining = images.size();
+        while (byteSize > byteBudget && remaining > 1) {
+            SharedImage eldest = iterator.next();
+            remaining--;
+            if (eldest.image == null || (unreferencedOnly && eldest.references > 0)) {
+                continue;
+            }
+            iterator.remove();
+            eldest.dropped = true;
+            byteSize -= eldest.bytes;
+            stats.recordEviction();
+        }
+    }
+
+    private void recordSize() {
+        stats.recordSize(images.size(), byteSize, byteBudget);
+    }
+
+    private static final class Reference {
+        private final byte[] data;
+        private final SharedImage image;
+
+        private Reference(byte[] data, SharedImage image) {
+            this.data = data;
+            this.image = image;
+        }
+    }
+
+    private static final class SharedImage {
+        private final ContentKey key;
+        private final long requestTime;
+        private Image image;
+        private long bytes;
+        private boolean opaque;
+        private int references;
+        private boolean dropped;
+
+        private SharedImage(ContentKey key, long requestTime) {
+            this.key = key;
+            this.requestTime = requestTime;
+        }
+    }
+
+    /**
+     * Identifies image data by its content rather than by its array.
+     */
+    private static final class ContentKey {
+        private final byte[] data;
+        private final int hash;
+
+        private ContentKey(byte[] data) {
+            this.data = data;
+            this.hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ContentKey)) {
+                return false;
+            }
+            ContentKey other = (ContentKey) obj;
+            return hash == other.hash && (data == other.data || Arrays.equals(data, other.data));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
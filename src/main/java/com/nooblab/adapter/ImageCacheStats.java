@@ -0,0 +1,158 @@
+package com.nooblab.adapter;
+
+/**
+ * Reports the size and effectiveness of the decoded image cache of a {@link GraphicsAdapter}.
+ * <p>
+ * The image and byte counts describe the cache as it is now. The hit, miss and
+ * eviction counters only ever grow; callers compare two readings to get the
+ * counts for a period of time.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class ImageCacheStats {
+
+    private volatile int imageCount;
+    private volatile long byteSize;
+    private volatile long byteBudget;
+    private volatile long hits;
+    private volatile long misses;
+    private volatile long evictions;
+    private volatile long decodes;
+    private volatile long totalDecodeNanos;
+    private volatile long maxDecodeNanos;
+
+    /**
+     * Gets the number of decoded images in the cache.
+     *
+     * @return The number of cached images.
+     */
+    public int getImageCount() {
+        return imageCount;
+    }
+
+    /**
+     * Gets the estimated memory used by the decoded images in the cache.
+     *
+     * @return The size of the cached images in bytes.
+     */
+    public long getByteSize() {
+        return byteSize;
+    }
+
+    /**
+     * Gets the size the cache is kept under by evicting the least recently used images.
+     *
+     * @return The cache budget in bytes.
+     */
+    public long getByteBudget() {
+        return byteBudget;
+    }
+
+    /**
+     * Gets the number of image lookups that were served without decoding.
+     *
+     * @return The total number of cache hits.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of image requests that had to start decoding the image.
+     *
+     * @return The total number of cache misses.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of images dropped to stay within the budget.
+     *
+     * @return The total number of evictions.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the number of images decoded so far.
+     *
+     * @return The total number of decoded images.
+     */
+    public long getDecodes() {
+        return decodes;
+    }
+
+    /**
+     * Gets the average time from requesting an image until it was decoded.
+     *
+     * @return The average decode latency in milliseconds, {@code 0} if nothing was decoded.
+     */
+    public double getAverageDecodeMillis() {
+        long count = decodes;
+        return count == 0 ? 0 : totalDecodeNanos / 1e6 / count;
+    }
+
+    /**
+     * Gets the longest time from requesting an image until it was decoded.
+     *
+     * @return The maximum decode latency in milliseconds.
+     */
+    public double getMaxDecodeMillis() {
+        return maxDecodeNanos / 1e6;
+    }
+
+    /**
+     * Records the current size of the cache.
+     *
+     * @param imageCount The number of cached images.
+     * @param byteSize   The size of the cached images in bytes.
+     * @param byteBudget The cache budget in bytes.
+     */
+    public void recordSize(int imageCount, long byteSize, long byteBudget) {
+        this.imageCount = imageCount;
+        this.byteSize = byteSize;
+        this.byteBudget = byteBudget;
+    }
+
+    /**
+     * Records a lookup that was served without decoding.
+     */
+    public void recordHit() {
+        hits++;
+    }
+
+    /**
+     * Records a request that had to start decoding the image.
+     */
+    public void recordMiss() {
+        misses++;
+    }
+
+    /**
+     * Records an image that was dropped to stay within the budget.
+     */
+    public void recordEviction() {
+        evictions++;
+    }
+
+    /**
+     * Records a decoded image.
+     *
+     * @param latencyNanos The time from requesting the image until it was decoded, in nanoseconds.
+     */
+    public void recordDecode(long latencyNanos) {
+        decodes++;
+        totalDecodeNanos += latencyNanos;
+        maxDecodeNanos = Math.max(maxDecodeNanos, latencyNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "ImageCacheStats[images=" + imageCount + ", bytes=" + byteSize + "/" + byteBudget + ", hits=" + hits
+                + ", misses=" + misses + ", evictions=" + evictions + ", decodes=" + decodes + ", averageDecodeMillis="
+                + getAverageDecodeMillis() + "]";
+    }
+}
@@ -1,23 +1,36 @@
 package com.nooblab.adapter;
 
-import java.io.ByteArrayInputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import com.nooblab.text.FontStyle;
 import com.nooblab.text.FontWeight;
 import com.nooblab.text.TextAlign;
+import com.nooblab.util.CSSColor;
+import com.nooblab.util.CSSPaint;
 
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Platform;
+import javafx.geometry.Rectangle2D;
 import javafx.scene.Group;
 import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.effect.BlurType;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.effect.Effect;
+import javafx.scene.effect.GaussianBlur;
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
 import javafx.scene.input.KeyCode;
 import javafx.stage.Stage;
 import javafx.stage.Window;
@@ -77,10 +90,91 @@ public class JavaFXGraphicsAdapter implements GraphicsAdapter {
     protected List<KeyCode> pressedKeys;
 
     /**
-     * Store processed raster images for performance
+     * Decoded raster images, shared between identifiers with the same image data
      */
-    protected Map<String, Image> cachedImages;
+    protected ImageCache imageCache;
 
+    /**
+     * Images written from raw pixels, by identifier
+     */
+    protected Map<String, PixelTexture> pixelTextures;
+
+    /**
+     * Store rendered offscreen layers
+     */
+    protected Map<String, WritableImage> cachedLayers;
+
+    /**
+     * Layers that are currently being rendered, innermost first
+     */
+    protected Deque<LayerTarget> layerTargets;
+
+    /**
+     * Offscreen canvases reused for layer rendering, one per nesting depth
+     */
+    protected List<Canvas> layerCanvases;
+
+    /**
+     * Snapshot parameters used to capture layers with a transparent background
+     */
+    protected SnapshotParameters layerSnapshotParameters;
+
+    /**
+     * Colors created for packed ARGB values
+     */
+    protected ARGBColorCache colorCache;
+
+    /**
+     * Fonts resolved so far
+     */
+    protected FontCache fontCache;
+
+    /**
+     * Gradients and image patterns built so far
+     */
+    protected PaintCache paintCache;
+
+    /**
+     * State last applied to the current graphics context, used to skip redundant changes
+     */
+    protected GraphicsState appliedState;
+
+    /**
+     * Bit mask of the {@code APPLIED_*} attributes of {@link #appliedState} that are known
+     * to match the current graphics context
+     */
+    protected int appliedMask;
+
+    /**
+     * Counters of issued and skipped state changes
+     */
+    protected StateChangeStats stateChangeStats;
+
+    /**
+     * States saved by {@link #pushState()}.
+     */
+    protected GraphicsStateStack stateStack;
+
+    /**
+     * Values of {@link #appliedState} saved by {@link #pushState()}, restored together with the graphics context.
+     */
+    protected GraphicsStateStack appliedStateStack;
+
+    /**
+     * Values of {@link #appliedMask} saved by {@link #pushState()}.
+     */
+    protected int[] appliedMaskStack;
+
+    /**
+     * Default memory budget of decoded raster images, in bytes
+     */
+    protected static final long DEFAULT_IMAGE_CACHE_BUDGET = 256L * 1024 * 1024;
+
+    protected static final int APPLIED_FILL = 1;
+    protected static final int APPLIED_STROKE = 1 << 1;
+    protected static final int APPLIED_LINE_WIDTH = 1 << 2;
+    protected static final int APPLIED_TEXT_ALIGN = 1 << 3;
+    protected static final int APPLIED_FONT = 1 << 4;
 
     /**
      * Creates a new JavaFX graphics adapter with default settings.
@@ -93,7 +187,19 @@ public class JavaFXGraphicsAdapter implements GraphicsAdapter {
         height = 1000;
         state = new GraphicsState();
         pressedKeys = new ArrayList<KeyCode>();
-        cachedImages = new HashMap<String, Image>();
+        imageCache = new ImageCache(DEFAULT_IMAGE_CACHE_BUDGET);
+        cachedLayers = new HashMap<String, WritableImage>();
+        pixelTextures = new HashMap<String, PixelTexture>();
+        layerTargets = new ArrayDeque<LayerTarget>();
+        layerCanvases = new ArrayList<Canvas>();
+        colorCache = new ARGBColorCache();
+        fontCache = new FontCache();
+        paintCache = new PaintCache(colorCache);
+        appliedState = new GraphicsState();
+        stateChangeStats = new StateChangeStats();
+        stateStack = new GraphicsStateStack();
+        appliedStateStack = new GraphicsStateStack();
+        appliedMaskStack = new int[8];
     }
 
     /**
@@ -105,6 +211,20 @@ public class JavaFXGraphicsAdapter implements GraphicsAdapter {
         this.width = width;
         this.height = height;
         state = new GraphicsState();
+        pressedKeys = new ArrayList<KeyCode>();
+        imageCache = new ImageCache(DEFAULT_IMAGE_CACHE_BUDGET);
+        cachedLayers = new HashMap<String, WritableImage>();
+        pixelTextures = new HashMap<String, PixelTexture>();
+        layerTargets = new ArrayDeque<LayerTarget>();
+        layerCanvases = new ArrayList<Canvas>();
+        colorCache = new ARGBColorCache();
+        fontCache = new FontCache();
+        paintCache = new PaintCache(colorCache);
+        appliedState = new GraphicsState();
+        stateChangeStats = new StateChangeStats();
+        stateStack = new GraphicsStateStack();
+        appliedStateStack = new GraphicsStateStack();
+        appliedMaskStack = new int[8];
     }
 
     @Override
@@ -135,6 +255,8 @@ public class JavaFXGraphicsAdapter implements GraphicsAdapter {
                 
                 graphicsContext = canvas.getGraphicsContext2D();
                 graphicsContext.setImageSmoothing(false);
+                layerSnapshotParameters = new SnapshotParameters();
+                layerSnapshotParameters.setFill(Color.TRANSPARENT);
                 fullyInitialized = true;
             });
         }
@@ -142,6 +264,7 @@ public class JavaFXGraphicsAdapter implements GraphicsAdapter {
 
     @Override
     public void dispose() {
+        imageCache.shutdown();
         Platform.exit();
         initialized = false;
     }
@@ -163,7 +286,77 @@ public class JavaFXGraphicsAdapter implements GraphicsAdapter {
 
     @Override
     public void restoreState(GraphicsState newState) {
+        // The translation and clip belong to the graphics context, only popState() can undo them
+        GraphicsState surface = state.clone();
         state.apply(newState);
+        state.applySurface(surface);
+    }
+
+    @Override
+    public void pushState() {
+        int depth = stateStack.size();
+        if (depth == appliedMaskStack.length) {
+            appliedMaskStack = Arrays.copyOf(appliedMaskStack, depth * 2);
+        }
+        appliedMaskStack[depth] = appliedMask;
+        stateStack.push(state);
+        appliedStateStack.push(appliedState);
+        graphicsContext.save();
+    }
+
+    @Override
+    public void popState() {
+        stateStack.pop(state);
+        appliedStateStack.pop(appliedState);
+        appliedMask = appliedMaskStack[stateStack.size()];
+        graphicsContext.restore();
+    }
+
+    @Override
+    public void translate(int dx, int dy) {
+        state.setTranslate(state.getTranslateX() + dx, state.getTranslateY() + dy);
+        graphicsContext.translate(dx, dy);
+    }
+
+    @Override
+    public void multiplyOpacity(double opacity) {
+        state.setOpacity(state.getOpacity() * Math.max(0, Math.min(1, opacity)));
+        graphicsContext.setGlobalAlpha(state.getOpacity());
+    }
+
+    @Override
+    public void clipRect(int x, int y, int width, int height) {
+        state.intersectClip(x + state.getTranslateX(), y + state.getTranslateY(), width, height);
+        graphicsContext.beginPath();
+        graphicsContext.rect(x, y, width, height);
+        graphicsContext.clip();
+        graphicsContext.beginPath();
+    }
+
+    @Override
+    public void clipPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        if (nPoints <= 0) {
+            clipRect(0, 0, 0, 0);
+            return;
+        }
+
+        int minX = xPoints[0];
+        int minY = yPoints[0];
+        int maxX = minX;
+        int maxY = minY;
+        graphicsContext.beginPath();
+        graphicsContext.moveTo(xPoints[0], yPoints[0]);
+        for (int i = 1; i < nPoints; i++) {
+            graphicsContext.lineTo(xPoints[i], yPoints[i]);
+            minX = Math.min(minX, xPoints[i]);
+            minY = Math.min(minY, yPoints[i]);
+            maxX = Math.max(maxX, xPoints[i]);
+            maxY = Math.max(maxY, yPoints[i]);
+        }
+        graphicsContext.closePath();
+        graphicsContext.clip();
+        graphicsContext.beginPath();
+        state.intersectClip(minX + state.getTranslateX(), minY + state.getTranslateY(), maxX - minX, maxY - minY);
     }
 
     @Override
@@ -188,25 +381,77 @@ public class JavaFXGraphicsAdapter implements GraphicsAdapter {
 
     @Override
     public void setFill(String color) {
+        if (CSSPaint.isPaint(color)) {
+            setFillPaint(CSSPaint.parse(color));
+        } else {
+            setFill(CSSColor.toARGB(color));
+        }
         state.setFillColor(color);
-        graphicsContext.setFill(Color.web(color));
     }
 
     @Override
     public void setStroke(String color) {
+        setStroke(CSSColor.toARGB(color));
         state.setStrokeColor(color);
-        graphicsContext.setStroke(Color.web(color));
+    }
+
+    @Override
+    public void setFill(int argb) {
+        state.setFillARGB(argb);
+        if (isApplied(APPLIED_FILL) && appliedState.getFillPaint() == null && appliedState.getFillARGB() == argb) {
+            stateChangeStats.recordSkipped();
+            return;
+        }
+        appliedState.setFillARGB(argb);
+        markApplied(APPLIED_FILL);
+        graphicsContext.setFill(colorCache.get(argb));
+    }
+
+    @Override
+    public void setFillPaint(CSSPaint paint) {
+        state.setFillPaint(paint);
+        if (isApplied(APPLIED_FILL) && paint.equals(appliedState.getFillPaint())) {
+            stateChangeStats.recordSkipped();
+            return;
+        }
+        appliedState.setFillPaint(paint);
+        markApplied(APPLIED_FILL);
+        graphicsContext.setFill(paintCache.get(paint));
+    }
+
+    @Override
+    public void setStroke(int argb) {
+        state.setStrokeARGB(argb);
+        if (isApplied(APPLIED_STROKE) && appliedState.getStrokeARGB() == argb) {
+            stateChangeStats.recordSkipped();
+            return;
+        }
+        appliedState.setStrokeARGB(argb);
+        markApplied(APPLIED_STROKE);
+        graphicsContext.setStroke(colorCache.get(argb));
     }
 
     @Override
     public void setLineWidth(int width) {
         state.setLineWidth(width);
+        if (isApplied(APPLIED_LINE_WIDTH) && appliedState.getLineWidth() == width) {
+            stateChangeStats.recordSkipped();
+            return;
+        }
+        appliedState.setLineWidth(width);
+        markApplied(APPLIED_LINE_WIDTH);
         graphicsContext.setLineWidth(width);
     }
 
     @Override
     public void setTextAlign(TextAlign textAlign) {
         state.setTextAlign(textAlign);
+        if (isApplied(APPLIED_TEXT_ALIGN) && appliedState.getTextAlign() == textAlign) {
+            stateChangeStats.recordSkipped();
+            return;
+        }
+        appliedState.setTextAlign(textAlign);
+        markApplied(APPLIED_TEXT_ALIGN);
         switch (textAlign) {
             case LEFT:
                 graphicsContext.setTextAlign(javafx.scene.text.TextAlignment.LEFT);
@@ -223,25 +468,21 @@ public class JavaFXGraphicsAdapter implements GraphicsAdapter {
     @Override
     public void setFontFamily(String fontFamily) {
         state.setFontFamily(fontFamily);
-        graphicsContext.setFont(getFont());
     }
 
     @Override
     public void setFontSize(int size) {
         state.setFontSize(size);
-        graphicsContext.setFont(getFont());
     }
 
     @Override
     public void setFontWeight(FontWeight weight) {
         state.setFontWeight(weight);
-        graphicsContext.setFont(getFont());
     }
 
     @Override
     public void setFontStyle(FontStyle style) {
         state.setFontStyle(style);
-        graphicsContext.setFont(getFont());
     }
 
     @Override
@@ -269,6 +510,7 @@ public class JavaFXGraphicsAdapter implements GraphicsAdapter {
 
     @Override
     public void fillText(int x, int y, String text) {
+        applyFont();
         // Adjust text position based on text size
         int adjustY = state.getFontSize() / 2;
         graphicsContext.fillText(text, x, y + adjustY);
@@ -304,17 +546,17 @@ public class JavaFXGraphicsAdapter implements GraphicsAdapter {
 
     @Override
     public void strokeText(int x, int y, String text) {
+        applyFont();
         graphicsContext.strokeText(text, x, y);
     }
 
     @Override
     public void drawRasterImage(String id, byte[] data, int x, int y, int width, int height) {
-        if (!cachedImages.containsKey(id)) {
-            ByteArrayInputStream stream = new ByteArrayInputStream(data);
-            cachedImages.put(id, new Image(stream));
-        }
         try {
-            graphicsContext.drawImage(cachedImages.get(id), x, y, width, height);
+            Image image = getCachedImage(id, data, false);
+            if (image != null) {
+                graphicsContext.drawImage(image, x, y, width, height);
+            }
         } catch (Exception e) {
             System.err.println("Failed to draw raster image: " + e.getMessage());
         }
@@ -322,7 +564,188 @@ public class JavaFXGraphicsAdapter implements GraphicsAdapter {
 
     @Override
     public void purgeRasterImage(String id) {
-        cachedImages.remove(id);
+        imageCache.release(id);
+        pixelTextures.remove(id);
+    }
+
+    @Override
+    public void prepareRasterImage(byte[] data) {
+        imageCache.prepare(data);
+    }
+
+    @Override
+    public boolean isRasterImageReady(String id) {
+        return imageCache.isReady(id);
+    }
+
+    @Override
+    public boolean isRasterImageOpaque(String id) {
+        return imageCache.isOpaque(id);
+    }
+
+    @Override
+    public void setImageCacheBudget(long bytes) {
+        imageCache.setByteBudget(bytes);
+    }
+
+    @Override
+    public ImageCacheStats getImageCacheStats() {
+        return imageCache.getStats();
+    }
+
+    @Override
+    public void drawRasterImageRegion(String id, byte[] data, int sourceX, int sourceY, int sourceW, int sourceH,
+            int x, int y, int width, int height) {
+        try {
+            Image image = getCachedImage(id, data, false);
+            if (image != null) {
+                graphicsContext.drawImage(image, sourceX, sourceY, sourceW, sourceH, x, y, width, height);
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to draw raster image region: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void drawPixels(String id, int[] pixels, int pixelWidth, int pixelHeight, int x, int y, int width,
+            int height) {
+        PixelTexture texture = pixelTextures.get(id);
+        if (texture == null || texture.pixels != pixels || (int) texture.image.getWidth() != pixelWidth
+                || (int) texture.image.getHeight() != pixelHeight) {
+            WritableImage image = new WritableImage(pixelWidth, pixelHeight);
+            image.getPixelWriter().setPixels(0, 0, pixelWidth, pixelHeight, PixelFormat.getIntArgbInstance(),
+                    pixels, 0, pixelWidth);
+            texture = new PixelTexture(pixels, image);
+            pixelTextures.put(id, texture);
+        }
+        graphicsContext.drawImage(texture.image, x, y, width, height);
+    }
+
+    @Override
+    public void drawIndexedPixels(String id, byte[] indices, int[] palette, int pixelWidth, int pixelHeight, int x,
+            int y, int width, int height) {
+        PixelTexture texture = pixelTextures.get(id);
+        if (texture == null || texture.pixels != indices || (int) texture.image.getWidth() != pixelWidth
+                || (int) texture.image.getHeight() != pixelHeight) {
+            WritableImage image = new WritableImage(pixelWidth, pixelHeight);
+            image.getPixelWriter().setPixels(0, 0, pixelWidth, pixelHeight,
+                    PixelFormat.createByteIndexedInstance(palette), indices, 0, pixelWidth);
+            texture = new PixelTexture(indices, image);
+            pixelTextures.put(id, texture);
+        }
+        graphicsContext.drawImage(texture.image, x, y, width, height);
+    }
+
+    @Override
+    public void updatePixels(String id, int[] pixels, int pixelWidth, int regionX, int regionY, int regionWidth,
+            int regionHeight) {
+        PixelTexture texture = pixelTextures.get(id);
+        if (texture == null || texture.pixels != pixels) {
+            return;
+        }
+        texture.image.getPixelWriter().setPixels(regionX, regionY, regionWidth, regionHeight,
+                PixelFormat.getIntArgbInstance(), pixels, regionY * pixelWidth + regionX, pixelWidth);
+    }
+
+    @Override
+    public boolean hasLayer(String id) {
+        return cachedLayers.containsKey(id);
+    }
+
+    @Override
+    public void beginLayer(String id, int width, int height) {
+        int depth = layerTargets.size();
+        if (layerCanvases.size() <= depth) {
+            layerCanvases.add(new Canvas());
+        }
+
+        Canvas canvas = layerCanvases.get(depth);
+        canvas.setWidth(width);
+        canvas.setHeight(height);
+
+        GraphicsContext layerContext = canvas.getGraphicsContext2D();
+        layerContext.clearRect(0, 0, width, height);
+        layerContext.setImageSmoothing(false);
+        layerContext.setGlobalAlpha(1);
+
+        // Layers have their own coordinate system and are never clipped by the surface they are drawn on
+        layerTargets.push(new LayerTarget(id, canvas, graphicsContext, appliedState, appliedMask, state.clone()));
+        graphicsContext = layerContext;
+        appliedState = new GraphicsState();
+        appliedMask = 0;
+        state.setTranslate(0, 0);
+        state.setOpacity(1);
+        state.clearClip();
+    }
+
+    @Override
+    public void endLayer() {
+        endLayer(null);
+    }
+
+    @Override
+    public void endLayer(LayerEffect effect) {
+        LayerTarget target = layerTargets.pop();
+        graphicsContext = target.previousContext;
+        appliedState = target.previousAppliedState;
+        appliedMask = target.previousAppliedMask;
+        state.applySurface(target.previousState);
+
+        // Reuse the previous snapshot image when the layer size did not change
+        WritableImage image = cachedLayers.get(target.id);
+        if (image != null && (image.getWidth() != target.canvas.getWidth()
+                || image.getHeight() != target.canvas.getHeight())) {
+            image = null;
+        }
+        if (effect == null) {
+            cachedLayers.put(target.id, target.canvas.snapshot(layerSnapshotParameters, image));
+            return;
+        }
+
+        // The snapshot renders the effect; the viewport keeps it from growing the image beyond the layer
+        target.canvas.setEffect(createEffect(effect));
+        layerSnapshotParameters.setViewport(new Rectangle2D(0, 0, target.canvas.getWidth(),
+                target.canvas.getHeight()));
+        try {
+            cachedLayers.put(target.id, target.canvas.snapshot(layerSnapshotParameters, image));
+        } finally {
+            target.canvas.setEffect(null);
+            layerSnapshotParameters.setViewport(null);
+        }
+    }
+
+    private Effect createEffect(LayerEffect effect) {
+        switch (effect.getType()) {
+            case BLUR:
+                return new GaussianBlur(Math.min(effect.getRadius(), 63));
+            case DROP_SHADOW:
+            default:
+                return new DropShadow(BlurType.GAUSSIAN, colorCache.get(effect.getColor()),
+                        Math.min(effect.getRadius(), 127), 0, effect.getOffsetX(), effect.getOffsetY());
+        }
+    }
+
+    @Override
+    public void drawLayer(String id, int x, int y, int width, int height) {
+        WritableImage image = cachedLayers.get(id);
+        if (image != null) {
+            graphicsContext.drawImage(image, x, y, width, height);
+        }
+    }
+
+    @Override
+    public void purgeLayer(String id) {
+        cachedLayers.remove(id);
+    }
+
+    @Override
+    public int getCanvasWidth() {
+        return width;
+    }
+
+    @Override
+    public int getCanvasHeight() {
+        return height;
     }
 
     @Override
@@ -348,21 +771,81 @@ public class JavaFXGraphicsAdapter implements GraphicsAdapter {
         }
     }
 
+    @Override
+    public StateChangeStats getStateChangeStats() {
+        return stateChangeStats;
+    }
+
+    /**
+     * Checks if an attribute of {@link #appliedState} is known to match the graphics context.
+     *
+     * @param attribute One of the {@code APPLIED_*} bits
+     * @return {@code true} if the attribute is known
+     */
+    protected boolean isApplied(int attribute) {
+        return (appliedMask & attribute) != 0;
+    }
+
+    /**
+     * Marks an attribute of {@link #appliedState} as matching the graphics context and
+     * counts the state change.
+     *
+     * @param attribute One of the {@code APPLIED_*} bits
+     */
+    protected void markApplied(int attribute) {
+        appliedMask |= attribute;
+        stateChangeStats.recordIssued();
+    }
+
+    /**
+     * Applies the font of the current state unless the graphics context already uses it.
+     * <p>
+     * Font changes are only applied when text is drawn, so that setting several font
+     * attributes in a row resolves the font once.
+     * </p>
+     */
+    protected void applyFont() {
+        if (isApplied(APPLIED_FONT)
+                && appliedState.getFontSize() == state.getFontSize()
+                && appliedState.getFontWeight() == state.getFontWeight()
+                && appliedState.getFontStyle() == state.getFontStyle()
+                && Objects.equals(appliedState.getFontFamily(), state.getFontFamily())) {
+            stateChangeStats.recordSkipped();
+            return;
+        }
+        appliedState.setFontFamily(state.getFontFamily());
+        appliedState.setFontSize(state.getFontSize());
+        appliedState.setFontWeight(state.getFontWeight());
+        appliedState.setFontStyle(state.getFontStyle());
+        markApplied(APPLIED_FONT);
+        graphicsContext.setFont(getFont());
+    }
+
+    /**
+     * Gets the decoded raster image for the given identifier, decoding it only if no
+     * other identifier uses the same image data.
+     *
+     * @param id   Unique identifier of the raster image
+     * @param data Raw image data
+     * @param wait Whether to decode the image on this thread if it is not decoded yet
+     * @return Decoded JavaFX image, or {@code null} if it is still being decoded
+     */
+    protected Image getCachedImage(String id, byte[] data, boolean wait) {
+        return imageCache.get(id, data, wait);
+    }
+
     /**
      * Gets the JavaFX font object based on the current state.
      * 
      * @return JavaFX font object
      */
     protected Font getFont() {
-        int size = state.getFontSize();
-        javafx.scene.text.FontWeight weight = javafx.scene.text.FontWeight.findByName(state.getFontWeight().getValue());
-        javafx.scene.text.FontPosture style = javafx.scene.text.FontPosture.REGULAR;
-
-        if (state.getFontStyle() == FontStyle.ITALIC) {
-            style = javafx.scene.text.FontPosture.ITALIC;
-        }
+        return fontCache.get(state.getFontFamily(), state.getFontSize(), state.getFontWeight(), state.getFontStyle());
+    }
 
-        return Font.font(state.getFontFamily(), weight, style, size);
+    @Override
+    public void preloadFont(String fontFamily, int size, FontWeight weight, FontStyle style) {
+        fontCache.get(fontFamily, size, weight, style);
     }
 
     @Override
@@ -379,4 +862,39 @@ public class JavaFXGraphicsAdapter implements GraphicsAdapter {
         }
         return keys;
     }
+
+    /**
+     * Image written from a pixel or palette index array.
+     */
+    protected static class PixelTexture {
+        final Object pixels;
+        final WritableImage image;
+
+        PixelTexture(Object pixels, WritableImage image) {
+            this.pixels = pixels;
+            this.image = image;
+        }
+    }
+
+    /**
+     * Offscreen layer that is currently being rendered.
+     */
+    protected static class LayerTarget {
+        final String id;
+        final Canvas canvas;
+        final GraphicsContext previousContext;
+        final GraphicsState previousAppliedState;
+        final int previousAppliedMask;
+        final GraphicsState previousState;
+
+        LayerTarget(String id, Canvas canvas, GraphicsContext previousContext, GraphicsState previousAppliedState,
+                int previousAppliedMask, GraphicsState previousState) {
+            this.id = id;
+            this.canvas = canvas;
+            this.previousContext = previousContext;
+            this.previousAppliedState = previousAppliedState;
+            this.previousAppliedMask = previousAppliedMask;
+            this.previousState = previousState;
+        }
+    }
 }
@@ -0,0 +1,135 @@
+package com.nooblab.adapter;
+
+/**
+ * An immutable image effect applied to an offscreen layer when it is finished.
+ * <p>
+ * Effects are expensive to compute, so they are applied once, when the layer is
+ * rendered (see {@link GraphicsAdapter#endLayer(LayerEffect)}), and the result is
+ * drawn from the cached layer afterwards. Effects may paint outside the content
+ * they are applied to, so the content should be drawn at least
+ * {@link #getPadding()} pixels away from the edges of the layer.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public final class LayerEffect {
+
+    /**
+     * The kind of effect.
+     */
+    public enum Type {
+        BLUR,
+        DROP_SHADOW
+    }
+
+    private final Type type;
+    private final int radius;
+    private final int offsetX;
+    private final int offsetY;
+    private final int color;
+
+    private LayerEffect(Type type, int radius, int offsetX, int offsetY, int color) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("Effect radius must not be negative.");
+        }
+        this.type = type;
+        this.radius = radius;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.color = color;
+    }
+
+    /**
+     * Creates a gaussian blur.
+     *
+     * @param radius The blur radius in pixels.
+     * @return The blur effect.
+     * @throws IllegalArgumentException if the radius is negative.
+     */
+    public static LayerEffect blur(int radius) {
+        return new LayerEffect(Type.BLUR, radius, 0, 0, 0);
+    }
+
+    /**
+     * Creates a blurred shadow drawn behind the content.
+     *
+     * @param offsetX The horizontal offset of the shadow in pixels.
+     * @param offsetY The vertical offset of the shadow in pixels.
+     * @param radius  The blur radius of the shadow in pixels.
+     * @param color   The shadow color as a packed ARGB value.
+     * @return The drop shadow effect.
+     * @throws IllegalArgumentException if the radius is negative.
+     */
+    public static LayerEffect dropShadow(int offsetX, int offsetY, int radius, int color) {
+        return new LayerEffect(Type.DROP_SHADOW, radius, offsetX, offsetY, color);
+    }
+
+    /**
+     * Gets the kind of effect.
+     *
+     * @return The effect type.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the blur radius.
+     *
+     * @return The blur radius in pixels.
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Gets the horizontal offset of a drop shadow.
+     *
+     * @return The horizontal offset in pixels, {@code 0} for blurs.
+     */
+    public int getOffsetX() {
+        return offsetX;
+    }
+
+    /**
+     * Gets the vertical offset of a drop shadow.
+     *
+     * @return The vertical offset in pixels, {@code 0} for blurs.
+     */
+    public int getOffsetY() {
+        return offsetY;
+    }
+
+    /**
+     * Gets the color of a drop shadow.
+     *
+     * @return The shadow color as a packed ARGB value, {@code 0} for blurs.
+     */
+    public int getColor() {
+        return color;
+    }
+
+    /**
+     * Gets the distance by which the effect may paint outside the content it is applied to.
+     *
+     * @return The padding in pixels.
+     */
+    public int getPadding() {
+        return radius + Math.max(Math.abs(offsetX), Math.abs(offsetY));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof LayerEffect)) {
+            return false;
+        }
+        LayerEffect other = (LayerEffect) obj;
+        return type == other.type && radius == other.radius && offsetX == other.offsetX
+                && offsetY == other.offsetY && color == other.color;
+    }
+
+    @Override
+    public int hashCode() {
+        return (((type.hashCode() * 31 + radius) * 31 + offsetX) * 31 + offsetY) * 31 + color;
+    }
+}
@@ -0,0 +1,122 @@
+package com.nooblab.adapter;
+
+import java.io.ByteArrayInputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.nooblab.util.CSSPaint;
+
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.ImagePattern;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Paint;
+import javafx.scene.paint.RadialGradient;
+import javafx.scene.paint.Stop;
+
+/**
+ * A cache of JavaFX {@link Paint} objects built from {@link CSSPaint} definitions.
+ * <p>
+ * Gradients are built in proportional coordinates, so a single paint object fits
+ * every shape it fills and can be shared by all elements using the same
+ * definition. Once built, a paint costs one map lookup per use.
+ * </p>
+ * <p>
+ * Pattern images are never downloaded here, on the rendering thread. A pattern
+ * whose image has not been loaded yet (see {@link CSSPaint#getImageData()}) is
+ * drawn transparent, and is built once its image has been loaded.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+class PaintCache {
+
+    /**
+     * Number of cached paints at which the cache is emptied.
+     */
+    private static final int MAX_SIZE = 64;
+
+    private final ARGBColorCache colorCache;
+    private final Map<String, Paint> paints;
+
+    /**
+     * Creates an empty paint cache.
+     *
+     * @param colorCache The cache used to look up the colors of gradient stops.
+     */
+    PaintCache(ARGBColorCache colorCache) {
+        this.colorCache = colorCache;
+        this.paints = new HashMap<String, Paint>();
+    }
+
+    /**
+     * Gets the JavaFX paint for the given definition, building it on first use.
+     *
+     * @param paint The paint definition.
+     * @return The JavaFX paint.
+     */
+    Paint get(CSSPaint paint) {
+        Paint cached = paints.get(paint.getDefinition());
+        if (cached == null) {
+            if (paints.size() == MAX_SIZE) {
+                paints.clear();
+            }
+            cached = build(paint);
+            if (cached == null) {
+                return Color.TRANSPARENT;
+            }
+            paints.put(paint.getDefinition(), cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Gets the number of cached paints.
+     *
+     * @return The number of cached paints.
+     */
+    int size() {
+        return paints.size();
+    }
+
+    private Paint build(CSSPaint paint) {
+        switch (paint.getType()) {
+            case LINEAR_GRADIENT: {
+                // Stretch the gradient line so that it reaches the edges, or corners, of the shape
+                double radians = Math.toRadians(paint.getAngle());
+                double dx = Math.sin(radians);
+                double dy = -Math.cos(radians);
+                double scale = 0.5 / Math.max(Math.abs(dx), Math.abs(dy));
+                return new LinearGradient(0.5 - dx * scale, 0.5 - dy * scale, 0.5 + dx * scale, 0.5 + dy * scale,
+                        true, CycleMethod.NO_CYCLE, buildStops(paint));
+            }
+            case RADIAL_GRADIENT:
+                return new RadialGradient(0, 0, 0.5, 0.5, 0.5, true, CycleMethod.NO_CYCLE, buildStops(paint));
+            case PATTERN:
+            default: {
+                if (!paint.isImageLoaded()) {
+                    // Never download on the rendering thread; the pattern is built once its image is preloaded
+                    return null;
+                }
+                byte[] data = paint.getImageData();
+                if (data == null) {
+                    return Color.TRANSPARENT;
+                }
+                Image image = new Image(new ByteArrayInputStream(data));
+                if (image.isError() || image.getWidth() <= 0) {
+                    return Color.TRANSPARENT;
+                }
+                return new ImagePattern(image, 0, 0, image.getWidth(), image.getHeight(), false);
+            }
+        }
+    }
+
+    private Stop[] buildStops(CSSPaint paint) {
+        Stop[] stops = new Stop[paint.getStopCount()];
+        for (int i = 0; i < stops.length; i++) {
+            stops[i] = new Stop(paint.getStopOffset(i), colorCache.get(paint.getStopColor(i)));
+        }
+        return stops;
+    }
+}
@@ -0,0 +1,57 @@
+package com.nooblab.adapter;
+
+/**
+ * Counts the state changes requested from a {@link GraphicsAdapter}.
+ * <p>
+ * A state change is a call such as {@link GraphicsAdapter#setFill(int)} or
+ * {@link GraphicsAdapter#setFontSize(int)}. Changes that would not alter the
+ * state already applied to the drawing surface are skipped by the adapter and
+ * counted separately, which shows how much redundant work the elements request.
+ * The counters only ever grow; callers compare two readings to get the counts
+ * for a period of time, such as a frame.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class StateChangeStats {
+
+    private volatile long issued;
+    private volatile long skipped;
+
+    /**
+     * Gets the number of state changes passed on to the drawing surface.
+     *
+     * @return The total number of issued state changes.
+     */
+    public long getIssued() {
+        return issued;
+    }
+
+    /**
+     * Gets the number of state changes skipped because they had no effect.
+     *
+     * @return The total number of skipped state changes.
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Records a state change that was passed on to the drawing surface.
+     */
+    public void recordIssued() {
+        issued++;
+    }
+
+    /**
+     * Records a state change that was skipped.
+     */
+    public void recordSkipped() {
+        skipped++;
+    }
+
+    @Override
+    public String toString() {
+        return "StateChangeStats[issued=" + issued + ", skipped=" + skipped + "]";
+    }
+}
@@ -3,6 +3,7 @@ package com.nooblab.element;
 import java.util.UUID;
 
 import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.adapter.LayerEffect;
 
 /**
  * An abstract base class for graphical elements.
@@ -11,6 +12,13 @@ import com.nooblab.adapter.GraphicsAdapter;
  * using a {@link GraphicsAdapter}. Each element has a unique ID and
  * visibility control.
  * </p>
+ * <p>
+ * Elements may be drawn partly transparent and with an effect such as a drop
+ * shadow. Elements with an effect, and groups of overlapping content that are
+ * partly transparent, are rendered once into a cached offscreen layer, which is
+ * drawn every frame until the element changes. This requires the element to
+ * know its {@linkplain Bounded bounds}; other elements ignore the effect.
+ * </p>
  *
  * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
  */
@@ -18,6 +26,12 @@ public abstract class AbstractElement implements Element {
 
     private String id;
     private boolean visible;
+    private volatile int revision;
+    private volatile double opacity;
+    private volatile LayerEffect effect;
+    private String layerId;
+    private boolean layerValid;
+    private int layerRevision;
 
     /**
      * Constructs an {@code AbstractElement} with a unique ID and default visibility set to {@code true}.
@@ -25,6 +39,7 @@ public abstract class AbstractElement implements Element {
     public AbstractElement() {
         this.id = UUID.randomUUID().toString();
         this.visible = true;
+        this.opacity = 1;
     }
 
     @Override
@@ -35,26 +50,262 @@ public abstract class AbstractElement implements Element {
     @Override
     public void show() {
         this.visible = true;
+        invalidate();
     }
 
     @Override
     public void hide() {
         this.visible = false;
+        invalidate();
     }
 
     @Override
     public void toggle() {
         this.visible = !this.visible;
+        invalidate();
+    }
+
+    @Override
+    public boolean isVisible() {
+        return this.visible;
+    }
+
+    /**
+     * Gets the opacity of this element.
+     *
+     * @return The opacity, from {@code 0} (invisible) to {@code 1} (opaque).
+     */
+    public double getOpacity() {
+        return this.opacity;
+    }
+
+    /**
+     * Sets the opacity of this element.
+     * <p>
+     * Changing the opacity does not render the cached layer of the element again,
+     * so elements can be faded in and out cheaply.
+     * </p>
+     *
+     * @param opacity The opacity, from {@code 0} (invisible) to {@code 1} (opaque).
+     */
+    public void setOpacity(double opacity) {
+        // The opacity is applied when the layer is drawn, so a current layer stays current
+        boolean layerCurrent = this.layerValid && this.layerRevision == getRevision();
+        this.opacity = Math.max(0, Math.min(1, opacity));
+        invalidate();
+        if (layerCurrent) {
+            this.layerRevision = getRevision();
+        }
+    }
+
+    /**
+     * Gets the effect applied to this element.
+     *
+     * @return The effect, or {@code null} if none.
+     */
+    public LayerEffect getEffect() {
+        return this.effect;
+    }
+
+    /**
+     * Sets the effect applied to this element.
+     *
+     * @param effect The effect, or {@code null} for none.
+     */
+    public void setEffect(LayerEffect effect) {
+        this.effect = effect;
+        invalidate();
+    }
+
+    /**
+     * Gets the identifier of the cached layer this element is rendered into when it
+     * has an effect, or is a partly transparent group.
+     *
+     * @return The layer identifier.
+     */
+    public String getLayerId() {
+        if (this.layerId == null) {
+            this.layerId = this.id + ":layer";
+        }
+        return this.layerId;
+    }
+
+    /**
+     * Checks if this element draws overlapping content, such as child elements,
+     * that must be made transparent as a whole rather than piece by piece.
+     * <p>
+     * Such elements are rendered into a cached layer when they are partly
+     * transparent. The default implementation returns {@code false}, so simple
+     * shapes are made transparent by drawing them with a lower opacity.
+     * </p>
+     *
+     * @return {@code true} if the element draws overlapping content.
+     */
+    protected boolean hasOverlappingContent() {
+        return false;
+    }
+
+    /**
+     * Releases the cached layer of this element, if any.
+     */
+    @Override
+    public void onRemoved(GraphicsAdapter graphicsAdapter) {
+        if (this.layerValid) {
+            graphicsAdapter.purgeLayer(getLayerId());
+            this.layerValid = false;
+        }
+    }
+
+    /**
+     * Returns the revision of this element.
+     * <p>
+     * The revision changes every time a property that affects how the element is
+     * drawn changes, which lets renderers detect modified elements cheaply.
+     * </p>
+     *
+     * @return The current revision number.
+     */
+    @Override
+    public int getRevision() {
+        return this.revision;
+    }
+
+    /**
+     * Marks this element as modified by advancing its revision.
+     * <p>
+     * Subclasses must call this method from every setter that changes how the
+     * element is drawn.
+     * </p>
+     */
+    protected void invalidate() {
+        this.revision++;
+    }
+
+    /**
+     * Returns a hash of the graphics state this element sets up when drawn.
+     * <p>
+     * Elements of the same type with equal keys are likely to issue identical
+     * fill, stroke and font changes, so renderers may draw them next to each other
+     * when the draw order does not matter. The default implementation returns
+     * {@code 0}, meaning the element does not change any state.
+     * </p>
+     *
+     * @return The state key of this element.
+     */
+    @Override
+    public int getStateKey() {
+        return 0;
     }
 
     @Override
     public final void draw(GraphicsAdapter graphicsAdapter) {
         if (this.visible) {
             graphicsAdapter.resetState();
-            this.drawElement(graphicsAdapter);
+            if (isLayered()) {
+                drawFromLayer(graphicsAdapter);
+            } else if (this.opacity < 1) {
+                graphicsAdapter.pushState();
+                graphicsAdapter.multiplyOpacity(this.opacity);
+                this.drawElement(graphicsAdapter);
+                graphicsAdapter.popState();
+            } else {
+                this.drawElement(graphicsAdapter);
+            }
         }
     }
 
+    /**
+     * Draws this element when only part of its coordinate system can be seen,
+     * such as inside a {@link Container}.
+     *
+     * @param graphicsAdapter The graphics adapter used to render the element.
+     * @param viewX           The x-coordinate of the visible area.
+     * @param viewY           The y-coordinate of the visible area.
+     * @param viewWidth       The width of the visible area.
+     * @param viewHeight      The height of the visible area.
+     */
+    final void draw(GraphicsAdapter graphicsAdapter, int viewX, int viewY, int viewWidth, int viewHeight) {
+        if (this.visible) {
+            graphicsAdapter.resetState();
+            if (isLayered()) {
+                drawFromLayer(graphicsAdapter);
+            } else if (this.opacity < 1) {
+                graphicsAdapter.pushState();
+                graphicsAdapter.multiplyOpacity(this.opacity);
+                this.drawElement(graphicsAdapter, viewX, viewY, viewWidth, viewHeight);
+                graphicsAdapter.popState();
+            } else {
+                this.drawElement(graphicsAdapter, viewX, viewY, viewWidth, viewHeight);
+            }
+        }
+    }
+
+    /**
+     * Checks if this element is drawn from a cached layer.
+     */
+    private boolean isLayered() {
+        return (this.effect != null || (this.opacity < 1 && hasOverlappingContent())) && this instanceof Bounded;
+    }
+
+    /**
+     * Draws this element from its cached layer, rendering the layer first if the
+     * element has changed since it was last rendered.
+     */
+    private void drawFromLayer(GraphicsAdapter graphicsAdapter) {
+        Bounded bounded = (Bounded) this;
+        LayerEffect layerEffect = this.effect;
+        int padding = layerEffect != null ? layerEffect.getPadding() : 0;
+        int x = bounded.getBoundsX() - padding;
+        int y = bounded.getBoundsY() - padding;
+        int width = bounded.getBoundsWidth() + 2 * padding;
+        int height = bounded.getBoundsHeight() + 2 * padding;
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        String id = getLayerId();
+        int currentRevision = getRevision();
+        if (!this.layerValid || this.layerRevision != currentRevision || !graphicsAdapter.hasLayer(id)) {
+            graphicsAdapter.beginLayer(id, width, height);
+            graphicsAdapter.pushState();
+            graphicsAdapter.translate(-x, -y);
+            this.drawElement(graphicsAdapter, bounded.getBoundsX(), bounded.getBoundsY(),
+                    bounded.getBoundsWidth(), bounded.getBoundsHeight());
+            graphicsAdapter.popState();
+            graphicsAdapter.endLayer(layerEffect);
+            this.layerRevision = currentRevision;
+            this.layerValid = true;
+        }
+
+        if (this.opacity < 1) {
+            graphicsAdapter.pushState();
+            graphicsAdapter.multiplyOpacity(this.opacity);
+            graphicsAdapter.drawLayer(id, x, y, width, height);
+            graphicsAdapter.popState();
+        } else {
+            graphicsAdapter.drawLayer(id, x, y, width, height);
+        }
+    }
+
+    /**
+     * Draws the specific element, knowing that only the given area can be seen.
+     * <p>
+     * Elements that are expensive to draw may override this method to skip the
+     * parts outside the visible area. The default implementation draws the whole
+     * element with {@link #drawElement(GraphicsAdapter)}.
+     * </p>
+     *
+     * @param graphicsAdapter The graphics adapter used to render the element.
+     * @param viewX           The x-coordinate of the visible area.
+     * @param viewY           The y-coordinate of the visible area.
+     * @param viewWidth       The width of the visible area.
+     * @param viewHeight      The height of the visible area.
+     */
+    protected void drawElement(GraphicsAdapter graphicsAdapter, int viewX, int viewY, int viewWidth,
+            int viewHeight) {
+        this.drawElement(graphicsAdapter);
+    }
+
     /**
      * Draws the specific element using the given {@link GraphicsAdapter}.
      * <p>
@@ -23,6 +23,7 @@ public abstract class AbstractPositionable extends AbstractElement implements Po
     @Override
     public void setX(int x) {
         this.x = x;
+        invalidate();
     }
 
     @Override
@@ -33,5 +34,6 @@ public abstract class AbstractPositionable extends AbstractElement implements Po
     @Override
     public void setY(int y) {
         this.y = y;
+        invalidate();
     }
 }
@@ -25,6 +25,7 @@ public abstract class AbstractResizable extends AbstractPositionable implements
     @Override
     public void setWidth(int width) {
         this.width = width;
+        invalidate();
     }
 
     @Override
@@ -35,5 +36,6 @@ public abstract class AbstractResizable extends AbstractPositionable implements
     @Override
     public void setHeight(int height) {
         this.height = height;
+        invalidate();
     }
 }
@@ -0,0 +1,27 @@
+package com.nooblab.element;
+
+/**
+ * An element whose painted area is known in advance.
+ * <p>
+ * The bounds must enclose every pixel the element may touch when drawn, including
+ * its outline. Renderers use them to skip elements that cannot be seen.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public interface Bounded {
+    int getBoundsX();
+    int getBoundsY();
+    int getBoundsWidth();
+    int getBoundsHeight();
+
+    /**
+     * Checks if the element paints every pixel inside its bounds with a fully
+     * opaque colour, hiding anything drawn underneath it.
+     *
+     * @return {@code true} if the element is opaque across its entire bounds.
+     */
+    default boolean isOpaque() {
+        return false;
+    }
+}
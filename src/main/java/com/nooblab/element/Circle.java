@@ -1,19 +1,26 @@
 package com.nooblab.element;
 
 import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.util.CSSColor;
+import com.nooblab.util.CSSPaint;
 
-public class Circle extends AbstractPositionable {
+public class Circle extends AbstractPositionable implements Bounded {
 
     private int radius;
     private String color;
+    private int colorARGB;
+    private CSSPaint colorPaint;
     private String strokeColor;
+    private int strokeColorARGB;
     private int strokeWidth;
 
     public Circle(int x, int y, int r) {
         super(x, y);
         this.radius = r;
         this.color = "black";
+        this.colorARGB = CSSColor.BLACK;
         this.strokeColor = "black";
+        this.strokeColorARGB = CSSColor.BLACK;
         this.strokeWidth = 0;
     }
 
@@ -21,7 +28,10 @@ public class Circle extends AbstractPositionable {
         super(x, y);
         this.radius = r;
         this.color = color == null ? "black" : color;
+        this.colorARGB = CSSColor.toARGB(this.color, CSSColor.BLACK);
+        this.colorPaint = CSSPaint.fromColor(this.color);
         this.strokeColor = strokeColor == null ? "black" : strokeColor;
+        this.strokeColorARGB = CSSColor.toARGB(this.strokeColor, CSSColor.BLACK);
         this.strokeWidth = strokeWidth;
     }
 
@@ -31,6 +41,7 @@ public class Circle extends AbstractPositionable {
 
     public void setRadius(int radius) {
         this.radius = radius;
+        invalidate();
     }
 
     public String getColor() {
@@ -39,6 +50,9 @@ public class Circle extends AbstractPositionable {
 
     public void setColor(String color) {
         this.color = color;
+        this.colorARGB = CSSColor.toARGB(color, CSSColor.BLACK);
+        this.colorPaint = CSSPaint.fromColor(color);
+        invalidate();
     }
 
     public String getStrokeColor() {
@@ -47,6 +61,8 @@ public class Circle extends AbstractPositionable {
 
     public void setStrokeColor(String strokeColor) {
         this.strokeColor = strokeColor;
+        this.strokeColorARGB = CSSColor.toARGB(strokeColor, CSSColor.BLACK);
+        invalidate();
     }
 
     public int getStrokeWidth() {
@@ -55,15 +71,53 @@ public class Circle extends AbstractPositionable {
 
     public void setStrokeWidth(int strokeWidth) {
         this.strokeWidth = strokeWidth;
+        invalidate();
+    }
+
+    @Override
+    public int getBoundsX() {
+        return getX() - radius - getStrokeMargin();
+    }
+
+    @Override
+    public int getBoundsY() {
+        return getY() - radius - getStrokeMargin();
+    }
+
+    @Override
+    public int getBoundsWidth() {
+        return (radius + getStrokeMargin()) * 2;
+    }
+
+    @Override
+    public int getBoundsHeight() {
+        return (radius + getStrokeMargin()) * 2;
+    }
+
+    @Override
+    public int getStateKey() {
+        int key = colorPaint != null ? colorPaint.hashCode() : colorARGB;
+        if (strokeWidth > 0) {
+            key = (key * 31 + strokeColorARGB) * 31 + strokeWidth;
+        }
+        return key;
+    }
+
+    private int getStrokeMargin() {
+        return strokeWidth > 0 ? strokeWidth / 2 + 1 : 0;
     }
 
     @Override
     public void drawElement(GraphicsAdapter graphicsAdapter) {
-        graphicsAdapter.setFill(color);
+        if (colorPaint != null) {
+            graphicsAdapter.setFillPaint(colorPaint);
+        } else {
+            graphicsAdapter.setFill(colorARGB);
+        }
         graphicsAdapter.fillOval(this.getX() - radius, this.getY() - radius, radius * 2, radius * 2);
 
         if (strokeWidth > 0) {
-            graphicsAdapter.setStroke(strokeColor);
+            graphicsAdapter.setStroke(strokeColorARGB);
             graphicsAdapter.setLineWidth(strokeWidth);
             graphicsAdapter.strokeOval(this.getX() - radius, this.getY() - radius, radius * 2, radius * 2);
         }
@@ -0,0 +1,262 @@
+package com.nooblab.element;
+
+import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.util.CSSColor;
+import com.nooblab.util.ElementList;
+
+/**
+ * A rectangular panel that draws its child elements clipped to its own area.
+ * <p>
+ * Children are positioned relative to the top-left corner of the container's
+ * content, which can be scrolled to show a different part of it. Nothing a child
+ * draws appears outside the container. Children whose bounds (see {@link Bounded})
+ * lie entirely outside the visible area are not drawn at all, so large scrolling
+ * viewports and nested panels only pay for what can be seen.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class Container extends AbstractResizable implements Bounded {
+
+    private final ElementList<Element> children;
+    private int scrollX;
+    private int scrollY;
+    private String background;
+    private int backgroundARGB;
+
+    public Container(int x, int y, int width, int height) {
+        this(x, y, width, height, null);
+    }
+
+    public Container(int x, int y, int width, int height, String background) {
+        super(x, y, width, height);
+        this.children = new ElementList<Element>();
+        setBackgroundInternal(background);
+    }
+
+    public ElementList<Element> getChildren() {
+        return children;
+    }
+
+    /**
+     * Adds a child on top of the existing children.
+     *
+     * @param child The element to add.
+     * @throws IllegalArgumentException if the child is this container or contains it.
+     */
+    public void add(Element child) {
+        if (child == this || (child instanceof Container && ((Container) child).contains(this))) {
+            throw new IllegalArgumentException("A container cannot contain itself");
+        }
+        children.add(child);
+        invalidate();
+    }
+
+    public boolean remove(Element child) {
+        boolean removed = children.remove(child);
+        if (removed) {
+            invalidate();
+        }
+        return removed;
+    }
+
+    /**
+     * Checks if the given element is a child of this container or of any nested container.
+     *
+     * @param element The element to look for.
+     * @return {@code true} if the element is drawn by this container.
+     */
+    public boolean contains(Element element) {
+        for (Element child : children) {
+            if (child == element || (child instanceof Container && ((Container) child).contains(element))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds a child of this container or of any nested container by its unique
+     * identifier.
+     *
+     * @param id The unique identifier of the element to find.
+     * @return The element with the specified ID, or {@code null} if not found.
+     */
+    public Element findByID(String id) {
+        Element element = children.findByID(id);
+        if (element != null) {
+            return element;
+        }
+        for (Element child : children) {
+            if (child instanceof Container) {
+                element = ((Container) child).findByID(id);
+                if (element != null) {
+                    return element;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes a child of this container or of any nested container by its unique
+     * identifier.
+     *
+     * @param id The unique identifier of the element to remove.
+     * @return The removed element, or {@code null} if not found.
+     */
+    public Element removeByID(String id) {
+        Element element = children.removeByID(id);
+        if (element != null) {
+            invalidate();
+            return element;
+        }
+        for (Element child : children) {
+            if (child instanceof Container) {
+                element = ((Container) child).removeByID(id);
+                if (element != null) {
+                    return element;
+                }
+            }
+        }
+        return null;
+    }
+
+    public int getScrollX() {
+        return scrollX;
+    }
+
+    public int getScrollY() {
+        return scrollY;
+    }
+
+    public void scrollTo(int scrollX, int scrollY) {
+        this.scrollX = scrollX;
+        this.scrollY = scrollY;
+        invalidate();
+    }
+
+    public String getBackground() {
+        return background;
+    }
+
+    public void setBackground(String background) {
+        setBackgroundInternal(background);
+        invalidate();
+    }
+
+    private void setBackgroundInternal(String background) {
+        this.background = background;
+        this.backgroundARGB = CSSColor.toARGB(background, 0);
+    }
+
+    /**
+     * Returns a revision that also changes when any child changes, so that cached
+     * recordings of the container are refreshed.
+     */
+    @Override
+    public int getRevision() {
+        int revision = super.getRevision();
+        for (Element child : children) {
+            revision = revision * 31 + child.getRevision();
+        }
+        return revision;
+    }
+
+    @Override
+    public int getBoundsX() {
+        return getX();
+    }
+
+    @Override
+    public int getBoundsY() {
+        return getY();
+    }
+
+    @Override
+    public int getBoundsWidth() {
+        return getWidth();
+    }
+
+    @Override
+    public int getBoundsHeight() {
+        return getHeight();
+    }
+
+    /**
+     * Releases the resources of the children too, since they are removed together
+     * with the container.
+     */
+    @Override
+    public void onRemoved(GraphicsAdapter graphicsAdapter) {
+        super.onRemoved(graphicsAdapter);
+        for (Element child : children) {
+            child.onRemoved(graphicsAdapter);
+        }
+    }
+
+    @Override
+    protected boolean hasOverlappingContent() {
+        return true;
+    }
+
+    @Override
+    public boolean isOpaque() {
+        return background != null && CSSColor.isOpaque(backgroundARGB);
+    }
+
+    @Override
+    protected void drawElement(GraphicsAdapter graphicsAdapter) {
+        drawElement(graphicsAdapter, 0, 0, graphicsAdapter.getCanvasWidth(), graphicsAdapter.getCanvasHeight());
+    }
+
+    @Override
+    protected void drawElement(GraphicsAdapter graphicsAdapter, int viewX, int viewY, int viewWidth,
+            int viewHeight) {
+        // Only the part of the container inside the visible area can be seen
+        int left = Math.max(getX(), viewX);
+        int top = Math.max(getY(), viewY);
+        int right = Math.min(getX() + getWidth(), viewX + viewWidth);
+        int bottom = Math.min(getY() + getHeight(), viewY + viewHeight);
+        if (right <= left || bottom <= top) {
+            return;
+        }
+
+        graphicsAdapter.pushState();
+        graphicsAdapter.clipRect(getX(), getY(), getWidth(), getHeight());
+        if (background != null) {
+            graphicsAdapter.setFill(backgroundARGB);
+            graphicsAdapter.fillRect(getX(), getY(), getWidth(), getHeight());
+        }
+        int originX = getX() - scrollX;
+        int originY = getY() - scrollY;
+        graphicsAdapter.translate(originX, originY);
+
+        // The visible area in the coordinates of the children
+        int childLeft = left - originX;
+        int childTop = top - originY;
+        int childWidth = right - left;
+        int childHeight = bottom - top;
+        for (int i = 0; i < children.size(); i++) {
+            Element child = children.get(i);
+            if (!child.isVisible() || isOutside(child, childLeft, childTop, childWidth, childHeight)) {
+                continue;
+            }
+            if (child instanceof AbstractElement) {
+                ((AbstractElement) child).draw(graphicsAdapter, childLeft, childTop, childWidth, childHeight);
+            } else {
+                child.draw(graphicsAdapter);
+            }
+        }
+        graphicsAdapter.popState();
+    }
+
+    private static boolean isOutside(Element child, int x, int y, int width, int height) {
+        if (!(child instanceof Bounded)) {
+            return false;
+        }
+        Bounded bounded = (Bounded) child;
+        return bounded.getBoundsX() >= x + width || bounded.getBoundsX() + bounded.getBoundsWidth() <= x
+                || bounded.getBoundsY() >= y + height || bounded.getBoundsY() + bounded.getBoundsHeight() <= y;
+    }
+}
@@ -8,6 +8,28 @@ public interface Element {
     void show();
     void hide();
     void toggle();
+    boolean isVisible();
+    int getStateKey();
+    int getRevision();
 
     void draw(GraphicsAdapter graphicsAdapter);
+
+    /**
+     * Called once after the element has been added to the canvas, before it is
+     * first drawn, from the same thread that draws it.
+     *
+     * @param graphicsAdapter The graphics adapter the element will be drawn with.
+     */
+    default void onAdded(GraphicsAdapter graphicsAdapter) {
+    }
+
+    /**
+     * Called once after the element has been removed from the canvas, from the
+     * same thread that drew it. Elements release the resources they hold in the
+     * graphics adapter, such as cached images and layers.
+     *
+     * @param graphicsAdapter The graphics adapter the element was drawn with.
+     */
+    default void onRemoved(GraphicsAdapter graphicsAdapter) {
+    }
 }
@@ -2,10 +2,18 @@ package com.nooblab.element;
 
 import com.nooblab.adapter.GraphicsAdapter;
 
-public class Image extends AbstractResizable {
+public class Image extends AbstractResizable implements Bounded {
 
-    private byte[] data;
-    private boolean invalidated;
+    private volatile byte[] data;
+    private volatile boolean invalidated;
+    private volatile boolean opaque;
+    private volatile String source;
+    private volatile int sourceWidth;
+    private volatile int sourceHeight;
+    private int regionX;
+    private int regionY;
+    private int regionWidth;
+    private int regionHeight;
 
     public Image(byte[] data, int x, int y, int width, int height) {
         super(x, y, width, height);
@@ -17,8 +25,149 @@ public class Image extends AbstractResizable {
     }
 
     public void setData(byte[] data) {
+        this.regionWidth = 0;
+        this.regionHeight = 0;
         this.data = data;
+        this.opaque = false;
         invalidated = true;
+        invalidate();
+    }
+
+    /**
+     * Limits the image to a region of its data, such as a single card of a card atlas.
+     * <p>
+     * Images drawing regions of the same data share one decoded image. The region
+     * is cleared when the data changes.
+     * </p>
+     *
+     * @param x      The x-coordinate of the region in the image data.
+     * @param y      The y-coordinate of the region in the image data.
+     * @param width  The width of the region.
+     * @param height The height of the region.
+     */
+    public void setRegion(int x, int y, int width, int height) {
+        this.regionX = x;
+        this.regionY = y;
+        this.regionWidth = width;
+        this.regionHeight = height;
+        invalidate();
+    }
+
+    /**
+     * Checks if the image draws only a region of its data.
+     *
+     * @return {@code true} if a region is set.
+     */
+    public boolean hasRegion() {
+        return regionWidth > 0 && regionHeight > 0;
+    }
+
+    /**
+     * Gets the URL the image data is being loaded from.
+     *
+     * @return The URL of the image, or {@code null} if the data was not loaded from a URL.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the width the image data is being loaded at, which matters for images
+     * that are converted from vector graphics.
+     *
+     * @return The requested width of the image data.
+     */
+    public int getSourceWidth() {
+        return sourceWidth;
+    }
+
+    /**
+     * Gets the height the image data is being loaded at.
+     *
+     * @return The requested height of the image data.
+     */
+    public int getSourceHeight() {
+        return sourceHeight;
+    }
+
+    /**
+     * Sets the URL and size the image data is being loaded at.
+     * <p>
+     * Images loaded in the background use this to tell whether the data they
+     * receive is still wanted, as the image may have been pointed at another URL
+     * or size in the meantime.
+     * </p>
+     *
+     * @param source The URL of the image.
+     * @param width  The requested width of the image data.
+     * @param height The requested height of the image data.
+     */
+    public void setSource(String source, int width, int height) {
+        this.sourceWidth = width;
+        this.sourceHeight = height;
+        this.source = source;
+    }
+
+    /**
+     * Checks if the image data is being loaded from the given URL at the given size.
+     *
+     * @param source The URL of the image.
+     * @param width  The requested width of the image data.
+     * @param height The requested height of the image data.
+     * @return {@code true} if the source matches.
+     */
+    public boolean hasSource(String source, int width, int height) {
+        return source.equals(this.source) && width == sourceWidth && height == sourceHeight;
+    }
+
+    /**
+     * Checks if the image hides anything drawn underneath it, which lets the
+     * renderer skip those elements. An image only counts as opaque once its data
+     * has been decoded and drawn, and only if the decoded image has no transparent
+     * or translucent pixels.
+     *
+     * @return {@code true} if the image is drawn and fully opaque.
+     */
+    @Override
+    public boolean isOpaque() {
+        return opaque;
+    }
+
+    @Override
+    public int getBoundsX() {
+        return getX();
+    }
+
+    @Override
+    public int getBoundsY() {
+        return getY();
+    }
+
+    @Override
+    public int getBoundsWidth() {
+        return getWidth();
+    }
+
+    @Override
+    public int getBoundsHeight() {
+        return getHeight();
+    }
+
+    /**
+     * Starts decoding the image data, if it was not started when the image was created.
+     */
+    @Override
+    public void onAdded(GraphicsAdapter graphicsAdapter) {
+        byte[] data = this.data;
+        if (data != null) {
+            graphicsAdapter.prepareRasterImage(data);
+        }
+    }
+
+    @Override
+    public void onRemoved(GraphicsAdapter graphicsAdapter) {
+        super.onRemoved(graphicsAdapter);
+        graphicsAdapter.purgeRasterImage(getId());
     }
 
     @Override
@@ -27,6 +176,22 @@ public class Image extends AbstractResizable {
             graphicsAdapter.purgeRasterImage(getId());
             invalidated = false;
         }
-        graphicsAdapter.drawRasterImage(getId(), data, getX(), getY(), getWidth(), getHeight());
+        byte[] data = this.data;
+        if (data == null) {
+            // Still loading, setting the data draws the image
+            return;
+        }
+        if (hasRegion()) {
+            graphicsAdapter.drawRasterImageRegion(getId(), data, regionX, regionY, regionWidth, regionHeight,
+                    getX(), getY(), getWidth(), getHeight());
+        } else {
+            graphicsAdapter.drawRasterImage(getId(), data, getX(), getY(), getWidth(), getHeight());
+        }
+        boolean drawn = graphicsAdapter.isRasterImageReady(getId());
+        opaque = drawn && graphicsAdapter.isRasterImageOpaque(getId());
+        if (!drawn) {
+            // Cached recordings and layers must draw the image again once it is decoded
+            invalidate();
+        }
     }
 }
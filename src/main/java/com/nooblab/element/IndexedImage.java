@@ -0,0 +1,69 @@
+package com.nooblab.element;
+
+import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.util.IndexedPixels;
+
+/**
+ * An image stored as palette indices, such as a programmatically generated
+ * sprite with a handful of colors.
+ * <p>
+ * The image keeps its compact form, one byte per pixel, and is handed to the
+ * adapter as it is (see
+ * {@link GraphicsAdapter#drawIndexedPixels(String, byte[], int[], int, int, int, int, int, int)}).
+ * Setting image data (see {@link #setData(byte[])}), for example to show a web
+ * image instead, replaces the pixels.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class IndexedImage extends Image {
+
+    private volatile IndexedPixels pixels;
+    private final boolean pixelsOpaque;
+
+    /**
+     * Creates an image from palette-indexed pixels.
+     *
+     * @param pixels The indexed pixels.
+     * @param x      The x-coordinate of the image.
+     * @param y      The y-coordinate of the image.
+     * @param width  The width to draw the image at.
+     * @param height The height to draw the image at.
+     */
+    public IndexedImage(IndexedPixels pixels, int x, int y, int width, int height) {
+        super(null, x, y, width, height);
+        this.pixels = pixels;
+        this.pixelsOpaque = pixels.isOpaque();
+    }
+
+    /**
+     * Gets the pixels of the image.
+     *
+     * @return The indexed pixels, or {@code null} if they have been replaced by image data.
+     */
+    public IndexedPixels getPixels() {
+        return pixels;
+    }
+
+    @Override
+    public void setData(byte[] data) {
+        this.pixels = null;
+        super.setData(data);
+    }
+
+    @Override
+    public boolean isOpaque() {
+        return pixels != null ? pixelsOpaque : super.isOpaque();
+    }
+
+    @Override
+    public void drawElement(GraphicsAdapter graphicsAdapter) {
+        IndexedPixels pixels = this.pixels;
+        if (pixels == null) {
+            super.drawElement(graphicsAdapter);
+            return;
+        }
+        graphicsAdapter.drawIndexedPixels(getId(), pixels.getIndices(), pixels.getPalette(), pixels.getWidth(),
+                pixels.getHeight(), getX(), getY(), getWidth(), getHeight());
+    }
+}
@@ -1,12 +1,14 @@
 package com.nooblab.element;
 
 import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.util.CSSColor;
 
-public class Line extends AbstractPositionable {
+public class Line extends AbstractPositionable implements Bounded {
 
     private int x2;
     private int y2;
     private String strokeColor;
+    private int strokeColorARGB;
     private int strokeWeight;
 
     public Line(int x, int y, int x2, int y2) {
@@ -14,6 +16,7 @@ public class Line extends AbstractPositionable {
         this.x2 = x2;
         this.y2 = y2;
         this.strokeColor = "black";
+        this.strokeColorARGB = CSSColor.BLACK;
         this.strokeWeight = 1;
     }
 
@@ -22,6 +25,7 @@ public class Line extends AbstractPositionable {
         this.x2 = x2;
         this.y2 = y2;
         this.strokeColor = strokeColor == null ? "black" : strokeColor;
+        this.strokeColorARGB = CSSColor.toARGB(this.strokeColor, CSSColor.BLACK);
         this.strokeWeight = strokeWeight;
     }
 
@@ -31,6 +35,7 @@ public class Line extends AbstractPositionable {
 
     public void setX2(int x2) {
         this.x2 = x2;
+        invalidate();
     }
 
     public int getY2() {
@@ -39,6 +44,7 @@ public class Line extends AbstractPositionable {
 
     public void setY2(int y2) {
         this.y2 = y2;
+        invalidate();
     }
 
     public String getstrokeColor() {
@@ -47,6 +53,8 @@ public class Line extends AbstractPositionable {
 
     public void setstrokeColor(String strokeColor) {
         this.strokeColor = strokeColor;
+        this.strokeColorARGB = CSSColor.toARGB(strokeColor, CSSColor.BLACK);
+        invalidate();
     }
 
     public int getStrokeWeight() {
@@ -55,11 +63,41 @@ public class Line extends AbstractPositionable {
 
     public void setStrokeWeight(int strokeWeight) {
         this.strokeWeight = strokeWeight;
+        invalidate();
+    }
+
+    @Override
+    public int getBoundsX() {
+        return Math.min(getX(), x2) - getStrokeMargin();
+    }
+
+    @Override
+    public int getBoundsY() {
+        return Math.min(getY(), y2) - getStrokeMargin();
+    }
+
+    @Override
+    public int getBoundsWidth() {
+        return Math.abs(x2 - getX()) + getStrokeMargin() * 2;
+    }
+
+    @Override
+    public int getBoundsHeight() {
+        return Math.abs(y2 - getY()) + getStrokeMargin() * 2;
+    }
+
+    @Override
+    public int getStateKey() {
+        return strokeColorARGB * 31 + strokeWeight;
+    }
+
+    private int getStrokeMargin() {
+        return strokeWeight / 2 + 1;
     }
 
     @Override
     public void drawElement(GraphicsAdapter graphicsAdapter) {
-        graphicsAdapter.setStroke(this.strokeColor);
+        graphicsAdapter.setStroke(this.strokeColorARGB);
         graphicsAdapter.setLineWidth(this.strokeWeight);
         graphicsAdapter.strokeLine(this.getX(), this.getY(), this.x2, this.y2);
     }
@@ -0,0 +1,212 @@
+package com.nooblab.element;
+
+import java.util.Arrays;
+
+import com.nooblab.adapter.GraphicsAdapter;
+
+/**
+ * A mutable grid of pixels, for programs that draw pixel by pixel such as
+ * fractals, cellular automata and paint programs.
+ * <p>
+ * The pixels are kept in an ARGB buffer that starts out fully transparent.
+ * Changes are collected into a dirty region, and only that region is copied to
+ * the adapter the next time the canvas is drawn (see
+ * {@link GraphicsAdapter#updatePixels(String, int[], int, int, int, int, int)}).
+ * Writes outside the canvas are clipped.
+ * </p>
+ * <p>
+ * The pixels may be changed from any thread.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class PixelCanvas extends AbstractResizable implements Bounded {
+
+    private final int[] pixels;
+    private final int pixelWidth;
+    private final int pixelHeight;
+    private int dirtyMinX;
+    private int dirtyMinY;
+    private int dirtyMaxX;
+    private int dirtyMaxY;
+
+    /**
+     * Creates a transparent pixel canvas.
+     *
+     * @param pixelWidth  The number of pixels in a row.
+     * @param pixelHeight The number of rows.
+     * @param x           The x-coordinate of the canvas.
+     * @param y           The y-coordinate of the canvas.
+     * @param width       The width to draw the canvas at.
+     * @param height      The height to draw the canvas at.
+     * @throws IllegalArgumentException if the pixel width or height is not positive.
+     */
+    public PixelCanvas(int pixelWidth, int pixelHeight, int x, int y, int width, int height) {
+        super(x, y, width, height);
+        if (pixelWidth <= 0 || pixelHeight <= 0) {
+            throw new IllegalArgumentException("Pixel canvas size must be positive.");
+        }
+        this.pixels = new int[pixelWidth * pixelHeight];
+        this.pixelWidth = pixelWidth;
+        this.pixelHeight = pixelHeight;
+        clearDirtyRegion();
+    }
+
+    /**
+     * Gets the number of pixels in a row.
+     *
+     * @return The pixel width of the canvas.
+     */
+    public int getPixelWidth() {
+        return pixelWidth;
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return The pixel height of the canvas.
+     */
+    public int getPixelHeight() {
+        return pixelHeight;
+    }
+
+    /**
+     * Gets the color of a pixel.
+     *
+     * @param px The column of the pixel.
+     * @param py The row of the pixel.
+     * @return The color as a packed ARGB value, {@code 0} outside the canvas.
+     */
+    public synchronized int getPixel(int px, int py) {
+        if (px < 0 || py < 0 || px >= pixelWidth || py >= pixelHeight) {
+            return 0;
+        }
+        return pixels[py * pixelWidth + px];
+    }
+
+    /**
+     * Sets the color of a pixel.
+     *
+     * @param px    The column of the pixel.
+     * @param py    The row of the pixel.
+     * @param color The color as a packed ARGB value.
+     */
+    public synchronized void setPixel(int px, int py, int color) {
+        if (px < 0 || py < 0 || px >= pixelWidth || py >= pixelHeight) {
+            return;
+        }
+        pixels[py * pixelWidth + px] = color;
+        markDirty(px, py, px, py);
+    }
+
+    /**
+     * Sets the color of a horizontal run of pixels.
+     *
+     * @param px     The column of the first pixel.
+     * @param py     The row of the pixels.
+     * @param length The number of pixels.
+     * @param color  The color as a packed ARGB value.
+     */
+    public synchronized void fillSpan(int px, int py, int length, int color) {
+        int start = Math.max(0, px);
+        int end = Math.min(pixelWidth, px + length);
+        if (py < 0 || py >= pixelHeight || start >= end) {
+            return;
+        }
+        int offset = py * pixelWidth;
+        Arrays.fill(pixels, offset + start, offset + end, color);
+        markDirty(start, py, end - 1, py);
+    }
+
+    /**
+     * Copies a block of pixels onto the canvas, replacing the pixels underneath.
+     *
+     * @param source       The pixels to copy as packed ARGB values, row by row.
+     * @param sourceWidth  The number of pixels in a row of the block.
+     * @param sourceHeight The number of rows of the block.
+     * @param px           The column to copy the top-left pixel of the block to.
+     * @param py           The row to copy the top-left pixel of the block to.
+     * @throws IllegalArgumentException if the number of pixels does not match the block size.
+     */
+    public synchronized void blit(int[] source, int sourceWidth, int sourceHeight, int px, int py) {
+        if (sourceWidth < 0 || sourceHeight < 0 || source.length != sourceWidth * sourceHeight) {
+            throw new IllegalArgumentException("Pixel data does not match the block size.");
+        }
+        int startX = Math.max(0, px);
+        int startY = Math.max(0, py);
+        int endX = Math.min(pixelWidth, px + sourceWidth);
+        int endY = Math.min(pixelHeight, py + sourceHeight);
+        if (startX >= endX || startY >= endY) {
+            return;
+        }
+        for (int row = startY; row < endY; row++) {
+            System.arraycopy(source, (row - py) * sourceWidth + (startX - px), pixels, row * pixelWidth + startX,
+                    endX - startX);
+        }
+        markDirty(startX, startY, endX - 1, endY - 1);
+    }
+
+    /**
+     * Checks if any pixels changed since the canvas was last drawn.
+     *
+     * @return {@code true} if the canvas has a dirty region.
+     */
+    public synchronized boolean isDirty() {
+        return dirtyMinX <= dirtyMaxX;
+    }
+
+    @Override
+    public int getBoundsX() {
+        return getX();
+    }
+
+    @Override
+    public int getBoundsY() {
+        return getY();
+    }
+
+    @Override
+    public int getBoundsWidth() {
+        return getWidth();
+    }
+
+    @Override
+    public int getBoundsHeight() {
+        return getHeight();
+    }
+
+    @Override
+    public void onRemoved(GraphicsAdapter graphicsAdapter) {
+        super.onRemoved(graphicsAdapter);
+        graphicsAdapter.purgeRasterImage(getId());
+    }
+
+    @Override
+    public synchronized void drawElement(GraphicsAdapter graphicsAdapter) {
+        if (isDirty()) {
+            graphicsAdapter.updatePixels(getId(), pixels, pixelWidth, dirtyMinX, dirtyMinY,
+                    dirtyMaxX - dirtyMinX + 1, dirtyMaxY - dirtyMinY + 1);
+            clearDirtyRegion();
+        }
+        graphicsAdapter.drawPixels(getId(), pixels, pixelWidth, pixelHeight, getX(), getY(), getWidth(),
+                getHeight());
+    }
+
+    /**
+     * Grows the dirty region to include the given inclusive pixel bounds.
+     */
+    private void markDirty(int minX, int minY, int maxX, int maxY) {
+        dirtyMinX = Math.min(dirtyMinX, minX);
+        dirtyMinY = Math.min(dirtyMinY, minY);
+        dirtyMaxX = Math.max(dirtyMaxX, maxX);
+        dirtyMaxY = Math.max(dirtyMaxY, maxY);
+        invalidate();
+    }
+
+    private void clearDirtyRegion() {
+        dirtyMinX = Integer.MAX_VALUE;
+        dirtyMinY = Integer.MAX_VALUE;
+        dirtyMaxX = Integer.MIN_VALUE;
+        dirtyMaxY = Integer.MIN_VALUE;
+    }
+}
@@ -0,0 +1,126 @@
+package com.nooblab.element;
+
+import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.util.CSSColor;
+
+/**
+ * An image given as raw ARGB pixels, such as a programmatically generated sprite.
+ * <p>
+ * The pixels are handed to the adapter as they are, without being encoded into
+ * and decoded from an image format (see
+ * {@link GraphicsAdapter#drawPixels(String, int[], int, int, int, int, int, int)}).
+ * Setting image data (see {@link #setData(byte[])}), for example to show a web
+ * image instead, replaces the pixels.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class PixelImage extends Image {
+
+    private volatile int[] pixels;
+    private int pixelWidth;
+    private int pixelHeight;
+    private boolean pixelsOpaque;
+    private volatile boolean pixelsChanged;
+
+    /**
+     * Creates an image from raw pixels.
+     *
+     * @param pixels      The pixels as packed ARGB values, row by row.
+     * @param pixelWidth  The number of pixels in a row.
+     * @param pixelHeight The number of rows.
+     * @param x           The x-coordinate of the image.
+     * @param y           The y-coordinate of the image.
+     * @param width       The width to draw the image at.
+     * @param height      The height to draw the image at.
+     * @throws IllegalArgumentException if the number of pixels does not match the dimensions.
+     */
+    public PixelImage(int[] pixels, int pixelWidth, int pixelHeight, int x, int y, int width, int height) {
+        super(null, x, y, width, height);
+        setPixels(pixels, pixelWidth, pixelHeight);
+    }
+
+    /**
+     * Gets the pixels of the image. Changes to the array are drawn once the pixels
+     * are set again with {@link #setPixels(int[], int, int)}, which may be given
+     * the same array.
+     *
+     * @return The pixels as packed ARGB values, row by row, or {@code null} if
+     *         they have been replaced by image data.
+     */
+    public int[] getPixels() {
+        return pixels;
+    }
+
+    /**
+     * Gets the number of pixels in a row.
+     *
+     * @return The pixel width of the image.
+     */
+    public int getPixelWidth() {
+        return pixelWidth;
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return The pixel height of the image.
+     */
+    public int getPixelHeight() {
+        return pixelHeight;
+    }
+
+    /**
+     * Replaces the pixels of the image. The image is uploaded to the adapter again
+     * the next time it is drawn, even if the same array is given.
+     *
+     * @param pixels      The pixels as packed ARGB values, row by row.
+     * @param pixelWidth  The number of pixels in a row.
+     * @param pixelHeight The number of rows.
+     * @throws IllegalArgumentException if the number of pixels does not match the dimensions.
+     */
+    public void setPixels(int[] pixels, int pixelWidth, int pixelHeight) {
+        if (pixelWidth <= 0 || pixelHeight <= 0 || pixels.length != pixelWidth * pixelHeight) {
+            throw new IllegalArgumentException("Pixel data does not match the image size.");
+        }
+        this.pixelWidth = pixelWidth;
+        this.pixelHeight = pixelHeight;
+        this.pixelsOpaque = true;
+        for (int pixel : pixels) {
+            if (!CSSColor.isOpaque(pixel)) {
+                this.pixelsOpaque = false;
+                break;
+            }
+        }
+        this.pixels = pixels;
+        this.pixelsChanged = true;
+        invalidate();
+    }
+
+    @Override
+    public void setData(byte[] data) {
+        this.pixels = null;
+        super.setData(data);
+    }
+
+    @Override
+    public boolean isOpaque() {
+        return pixels != null ? pixelsOpaque : super.isOpaque();
+    }
+
+    @Override
+    public void drawElement(GraphicsAdapter graphicsAdapter) {
+        int[] pixels = this.pixels;
+        if (pixels == null) {
+            super.drawElement(graphicsAdapter);
+            return;
+        }
+        if (pixelsChanged) {
+            // The adapter keeps the uploaded pixels until they are purged
+            graphicsAdapter.purgeRasterImage(getId());
+            pixelsChanged = false;
+        }
+        graphicsAdapter.drawPixels(getId(), pixels, pixelWidth, pixelHeight, getX(), getY(), getWidth(),
+                getHeight());
+    }
+}
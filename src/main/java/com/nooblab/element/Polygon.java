@@ -1,20 +1,27 @@
 package com.nooblab.element;
 
 import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.util.CSSColor;
+import com.nooblab.util.CSSPaint;
 
-public class Polygon extends AbstractElement {
+public class Polygon extends AbstractElement implements Bounded {
     
     private int[] xPoints;
     private int[] yPoints;
     private String color;
+    private int colorARGB;
+    private CSSPaint colorPaint;
     private String strokeColor;
+    private int strokeColorARGB;
     private int strokeWidth;
 
     public Polygon(int[] xPoints, int[] yPoints) {
         this.xPoints = xPoints;
         this.yPoints = yPoints;
         this.color = "black";
+        this.colorARGB = CSSColor.BLACK;
         this.strokeColor = "black";
+        this.strokeColorARGB = CSSColor.BLACK;
         this.strokeWidth = 0;
     }
 
@@ -22,7 +29,10 @@ public class Polygon extends AbstractElement {
         this.xPoints = xPoints;
         this.yPoints = yPoints;
         this.color = color == null ? "black" : color;
+        this.colorARGB = CSSColor.toARGB(this.color, CSSColor.BLACK);
+        this.colorPaint = CSSPaint.fromColor(this.color);
         this.strokeColor = strokeColor == null ? "black" : strokeColor;
+        this.strokeColorARGB = CSSColor.toARGB(this.strokeColor, CSSColor.BLACK);
         this.strokeWidth = strokeWidth;
     }
 
@@ -37,6 +47,7 @@ public class Polygon extends AbstractElement {
     public void setPoints(int[] xPoints, int[] yPoints) {
         this.xPoints = xPoints;
         this.yPoints = yPoints;
+        invalidate();
     }
 
     public String getColor() {
@@ -45,6 +56,9 @@ public class Polygon extends AbstractElement {
 
     public void setColor(String color) {
         this.color = color;
+        this.colorARGB = CSSColor.toARGB(color, CSSColor.BLACK);
+        this.colorPaint = CSSPaint.fromColor(color);
+        invalidate();
     }
 
     public String getStrokeColor() {
@@ -53,6 +67,8 @@ public class Polygon extends AbstractElement {
 
     public void setStrokeColor(String strokeColor) {
         this.strokeColor = strokeColor;
+        this.strokeColorARGB = CSSColor.toARGB(strokeColor, CSSColor.BLACK);
+        invalidate();
     }
 
     public int getStrokeWidth() {
@@ -61,15 +77,70 @@ public class Polygon extends AbstractElement {
 
     public void setStrokeWidth(int strokeWidth) {
         this.strokeWidth = strokeWidth;
+        invalidate();
+    }
+
+    @Override
+    public int getBoundsX() {
+        int min = Integer.MAX_VALUE;
+        for (int x : xPoints) {
+            min = Math.min(min, x);
+        }
+        return min - getStrokeMargin();
+    }
+
+    @Override
+    public int getBoundsY() {
+        int min = Integer.MAX_VALUE;
+        for (int y : yPoints) {
+            min = Math.min(min, y);
+        }
+        return min - getStrokeMargin();
+    }
+
+    @Override
+    public int getBoundsWidth() {
+        int max = Integer.MIN_VALUE;
+        for (int x : xPoints) {
+            max = Math.max(max, x);
+        }
+        return max + getStrokeMargin() - getBoundsX();
+    }
+
+    @Override
+    public int getBoundsHeight() {
+        int max = Integer.MIN_VALUE;
+        for (int y : yPoints) {
+            max = Math.max(max, y);
+        }
+        return max + getStrokeMargin() - getBoundsY();
+    }
+
+    @Override
+    public int getStateKey() {
+        int key = color.hashCode();
+        if (strokeWidth > 0) {
+            key = (key * 31 + strokeColor.hashCode()) * 31 + strokeWidth;
+        }
+        return key;
+    }
+
+    private int getStrokeMargin() {
+        // Sharp corners can extend a stroke well past the vertices
+        return strokeWidth > 0 ? strokeWidth * 5 + 1 : 0;
     }
 
     @Override
     protected void drawElement(GraphicsAdapter graphicsAdapter) {
-        graphicsAdapter.setFill(color);
+        if (colorPaint != null) {
+            graphicsAdapter.setFillPaint(colorPaint);
+        } else {
+            graphicsAdapter.setFill(colorARGB);
+        }
         graphicsAdapter.fillPolygon(xPoints, yPoints, xPoints.length);
 
         if (strokeWidth > 0) {
-            graphicsAdapter.setStroke(strokeColor);
+            graphicsAdapter.setStroke(strokeColorARGB);
             graphicsAdapter.setLineWidth(strokeWidth);
             graphicsAdapter.strokePolygon(xPoints, yPoints, xPoints.length);
         }
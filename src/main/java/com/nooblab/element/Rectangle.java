@@ -1,24 +1,34 @@
 package com.nooblab.element;
 
 import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.util.CSSColor;
+import com.nooblab.util.CSSPaint;
 
-public class Rectangle extends AbstractResizable {
+public class Rectangle extends AbstractResizable implements Bounded {
 
     private String fillColor;
+    private int fillColorARGB;
+    private CSSPaint fillColorPaint;
     private String strokeColor;
+    private int strokeColorARGB;
     private int strokeWidth;
 
     public Rectangle(int x, int y, int width, int height) {
         super(x, y, width, height);
         this.fillColor = "black";
+        this.fillColorARGB = CSSColor.BLACK;
         this.strokeColor = "black";
+        this.strokeColorARGB = CSSColor.BLACK;
         this.strokeWidth = 0;
     }
 
     public Rectangle(int x, int y, int width, int height, String fillColor, String strokeColor, int strokeWidth) {
         super(x, y, width, height);
         this.fillColor = fillColor == null ? "black" : fillColor;
+        this.fillColorARGB = CSSColor.toARGB(this.fillColor, CSSColor.BLACK);
+        this.fillColorPaint = CSSPaint.fromColor(this.fillColor);
         this.strokeColor = strokeColor == null ? "black" : strokeColor;
+        this.strokeColorARGB = CSSColor.toARGB(this.strokeColor, CSSColor.BLACK);
         this.strokeWidth = strokeWidth;
     }
 
@@ -28,6 +38,9 @@ public class Rectangle extends AbstractResizable {
 
     public void setFillColor(String fillColor) {
         this.fillColor = fillColor;
+        this.fillColorARGB = CSSColor.toARGB(fillColor, CSSColor.BLACK);
+        this.fillColorPaint = CSSPaint.fromColor(fillColor);
+        invalidate();
     }
 
     public String getStrokeColor() {
@@ -36,6 +49,8 @@ public class Rectangle extends AbstractResizable {
 
     public void setStrokeColor(String strokeColor) {
         this.strokeColor = strokeColor;
+        this.strokeColorARGB = CSSColor.toARGB(strokeColor, CSSColor.BLACK);
+        invalidate();
     }
 
     public int getStrokeWidth() {
@@ -44,14 +59,58 @@ public class Rectangle extends AbstractResizable {
 
     public void setStrokeWidth(int strokeWidth) {
         this.strokeWidth = strokeWidth;
+        invalidate();
+    }
+
+    @Override
+    public int getBoundsX() {
+        return getX() - getStrokeMargin();
+    }
+
+    @Override
+    public int getBoundsY() {
+        return getY() - getStrokeMargin();
+    }
+
+    @Override
+    public int getBoundsWidth() {
+        return getWidth() + getStrokeMargin() * 2;
+    }
+
+    @Override
+    public int getBoundsHeight() {
+        return getHeight() + getStrokeMargin() * 2;
+    }
+
+    @Override
+    public boolean isOpaque() {
+        boolean opaqueFill = fillColorPaint != null ? fillColorPaint.isOpaque() : CSSColor.isOpaque(fillColorARGB);
+        return opaqueFill && strokeWidth <= 0;
+    }
+
+    @Override
+    public int getStateKey() {
+        int key = fillColorPaint != null ? fillColorPaint.hashCode() : fillColorARGB;
+        if (strokeWidth > 0) {
+            key = (key * 31 + strokeColorARGB) * 31 + strokeWidth;
+        }
+        return key;
+    }
+
+    private int getStrokeMargin() {
+        return strokeWidth > 0 ? strokeWidth / 2 + 1 : 0;
     }
 
     @Override
     public void drawElement(GraphicsAdapter graphicsAdapter) {
-        graphicsAdapter.setFill(fillColor);
+        if (fillColorPaint != null) {
+            graphicsAdapter.setFillPaint(fillColorPaint);
+        } else {
+            graphicsAdapter.setFill(fillColorARGB);
+        }
         graphicsAdapter.fillRect(this.getX(), this.getY(), this.getWidth(), this.getHeight());
         if (this.strokeWidth > 0) {
-            graphicsAdapter.setStroke(strokeColor);
+            graphicsAdapter.setStroke(strokeColorARGB);
             graphicsAdapter.setLineWidth(strokeWidth);
             graphicsAdapter.strokeRect(this.getX(), this.getY(), this.getWidth(), this.getHeight());
         }
@@ -1,25 +1,33 @@
 package com.nooblab.element;
 
+import java.util.Objects;
+
 import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.style.ResolvedStyle;
 import com.nooblab.style.Style;
 import com.nooblab.style.StyleApplier;
+import com.nooblab.style.StyleCache;
 import com.nooblab.style.StyleParser;
 
 public class Text extends AbstractPositionable {
     
     private String text;
-    private Style style;
+    private String style;
+    private ResolvedStyle resolvedStyle;
+    private int styleKey;
 
     public Text(int x, int y, String text) {
         super(x, y);
         this.text = text;
-        this.style = new Style();
+        this.resolvedStyle = ResolvedStyle.EMPTY;
     }
 
     public Text(int x, int y, String text, String style) {
         super(x, y);
         this.text = text;
-        this.style = StyleParser.parse(style);
+        this.style = style;
+        this.resolvedStyle = StyleCache.resolve(style);
+        this.styleKey = style == null ? 0 : style.hashCode();
     }
 
     public String getText() {
@@ -28,19 +36,46 @@ public class Text extends AbstractPositionable {
 
     public void setText(String text) {
         this.text = text;
+        invalidate();
     }
 
+    /**
+     * Parses the style of the text into a new {@link Style}.
+     * <p>
+     * The returned style is a detached copy: changing it does not change how the
+     * text is drawn. To change the style, pass a new style string to
+     * {@link #setStyle(String)}. The style used for drawing is available from
+     * {@link #getResolvedStyle()}.
+     * </p>
+     *
+     * @return A new style parsed from the style string of the text.
+     */
     public Style getStyle() {
-        return style;
+        return StyleParser.parse(style);
+    }
+
+    public ResolvedStyle getResolvedStyle() {
+        return resolvedStyle;
     }
 
     public void setStyle(String style) {
-        this.style = StyleParser.parse(style);
+        if (Objects.equals(this.style, style)) {
+            return;
+        }
+        this.resolvedStyle = StyleCache.resolve(style);
+        this.style = style;
+        this.styleKey = style == null ? 0 : style.hashCode();
+        invalidate();
+    }
+
+    @Override
+    public int getStateKey() {
+        return styleKey;
     }
 
     @Override
     protected void drawElement(GraphicsAdapter graphicsAdapter) {
-        StyleApplier.applyStyle(graphicsAdapter, style);
+        StyleApplier.applyStyle(graphicsAdapter, resolvedStyle);
         graphicsAdapter.fillText(getX(), getY(), text);
     }
 }
@@ -0,0 +1,235 @@
+package com.nooblab.element;
+
+import com.nooblab.adapter.GraphicsAdapter;
+
+/**
+ * A grid of tiles drawn from a single tileset image.
+ * <p>
+ * Tiles are stored as indices into the tileset, counted left to right and top to
+ * bottom, where a negative index leaves the cell empty. The map is rendered in
+ * chunks of {@value #CHUNK_SIZE}x{@value #CHUNK_SIZE} tiles, each cached as an
+ * offscreen layer by the {@link GraphicsAdapter}. Only chunks that intersect the
+ * canvas, or the visible area of the enclosing {@link Container}, are drawn, and
+ * changing a tile re-renders only the chunk containing it.
+ * </p>
+ * <p>
+ * The tileset may be {@code null} while it is still loading, in which case
+ * nothing is drawn until it is set with {@link #setTileset(byte[], int)}.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class TileMap extends AbstractPositionable implements Bounded {
+
+    /**
+     * Number of tiles along each side of a cached chunk.
+     */
+    public static final int CHUNK_SIZE = 16;
+
+    private volatile byte[] tileset;
+    private String tilesetId;
+    private int tilesetColumns;
+    private int tileSize;
+    private int[] tiles;
+    private int columns;
+    private int rows;
+    private int chunkColumns;
+    private int chunkRows;
+    private String[] chunkIds;
+    private boolean[] dirtyChunks;
+    private boolean tilesetInvalidated;
+
+    public TileMap(byte[] tileset, int tilesetColumns, int tileSize, int[] tiles, int columns, int x, int y) {
+        super(x, y);
+        if ((tileset != null && tilesetColumns <= 0) || tileSize <= 0 || columns <= 0
+                || tiles.length % columns != 0) {
+            throw new IllegalArgumentException("Invalid tile map dimensions");
+        }
+        this.tileset = tileset;
+        this.tilesetId = getId() + ":tileset";
+        this.tilesetColumns = tilesetColumns;
+        this.tileSize = tileSize;
+        this.tiles = tiles;
+        this.columns = columns;
+        this.rows = tiles.length / columns;
+        this.chunkColumns = (columns + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunkRows = (rows + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunkIds = new String[chunkColumns * chunkRows];
+        this.dirtyChunks = new boolean[chunkIds.length];
+        for (int i = 0; i < chunkIds.length; i++) {
+            chunkIds[i] = getId() + ":chunk:" + i;
+            dirtyChunks[i] = true;
+        }
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public int getWidth() {
+        return columns * tileSize;
+    }
+
+    public int getHeight() {
+        return rows * tileSize;
+    }
+
+    @Override
+    public int getBoundsX() {
+        return getX();
+    }
+
+    @Override
+    public int getBoundsY() {
+        return getY();
+    }
+
+    @Override
+    public int getBoundsWidth() {
+        return getWidth();
+    }
+
+    @Override
+    public int getBoundsHeight() {
+        return getHeight();
+    }
+
+    public int getTile(int column, int row) {
+        return tiles[row * columns + column];
+    }
+
+    /**
+     * Changes a single tile, invalidating only the chunk that contains it.
+     *
+     * @param column The column of the tile.
+     * @param row    The row of the tile.
+     * @param tile   The new tileset index, or a negative value to clear the cell.
+     */
+    public void setTile(int column, int row, int tile) {
+        if (column < 0 || column >= columns || row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Tile " + column + "," + row + " is outside of the tile map");
+        }
+        int index = row * columns + column;
+        if (tiles[index] != tile) {
+            tiles[index] = tile;
+            dirtyChunks[(row / CHUNK_SIZE) * chunkColumns + column / CHUNK_SIZE] = true;
+            invalidate();
+        }
+    }
+
+    public byte[] getTileset() {
+        return tileset;
+    }
+
+    public void setTileset(byte[] tileset, int tilesetColumns) {
+        this.tilesetColumns = tilesetColumns;
+        this.tileset = tileset;
+        this.tilesetInvalidated = true;
+        invalidateAllChunks();
+        invalidate();
+    }
+
+    private void invalidateAllChunks() {
+        for (int i = 0; i < dirtyChunks.length; i++) {
+            dirtyChunks[i] = true;
+        }
+    }
+
+    @Override
+    public void onAdded(GraphicsAdapter graphicsAdapter) {
+        graphicsAdapter.prepareRasterImage(tileset);
+    }
+
+    @Override
+    public void onRemoved(GraphicsAdapter graphicsAdapter) {
+        super.onRemoved(graphicsAdapter);
+        graphicsAdapter.purgeRasterImage(tilesetId);
+        for (int i = 0; i < chunkIds.length; i++) {
+            graphicsAdapter.purgeLayer(chunkIds[i]);
+            dirtyChunks[i] = true;
+        }
+    }
+
+    @Override
+    protected void drawElement(GraphicsAdapter graphicsAdapter) {
+        drawElement(graphicsAdapter, 0, 0, graphicsAdapter.getCanvasWidth(), graphicsAdapter.getCanvasHeight());
+    }
+
+    @Override
+    protected void drawElement(GraphicsAdapter graphicsAdapter, int viewX, int viewY, int viewWidth,
+            int viewHeight) {
+        if (tilesetInvalidated) {
+            graphicsAdapter.purgeRasterImage(tilesetId);
+            tilesetInvalidated = false;
+        }
+        byte[] tileset = this.tileset;
+        if (tileset == null) {
+            // Still loading, setting the tileset draws the map
+            return;
+        }
+        // Chunks rendered before the tileset is decoded are empty and must be rendered again
+        boolean tilesetReady = graphicsAdapter.isRasterImageReady(tilesetId);
+
+        // Only visit chunks that intersect the visible area
+        int chunkPixels = CHUNK_SIZE * tileSize;
+        int firstColumn = Math.max(0, Math.floorDiv(viewX - getX(), chunkPixels));
+        int lastColumn = Math.min(chunkColumns - 1,
+                Math.floorDiv(viewX + viewWidth - 1 - getX(), chunkPixels));
+        int firstRow = Math.max(0, Math.floorDiv(viewY - getY(), chunkPixels));
+        int lastRow = Math.min(chunkRows - 1,
+                Math.floorDiv(viewY + viewHeight - 1 - getY(), chunkPixels));
+
+        for (int chunkRow = firstRow; chunkRow <= lastRow; chunkRow++) {
+            for (int chunkColumn = firstColumn; chunkColumn <= lastColumn; chunkColumn++) {
+                int chunk = chunkRow * chunkColumns + chunkColumn;
+                int width = Math.min(CHUNK_SIZE, columns - chunkColumn * CHUNK_SIZE) * tileSize;
+                int height = Math.min(CHUNK_SIZE, rows - chunkRow * CHUNK_SIZE) * tileSize;
+
+                if (dirtyChunks[chunk] || !graphicsAdapter.hasLayer(chunkIds[chunk])) {
+                    // Clear the flag first so that concurrent tile changes mark the chunk again
+                    dirtyChunks[chunk] = !tilesetReady;
+                    renderChunk(graphicsAdapter, tileset, chunk, chunkColumn, chunkRow, width, height);
+                }
+                graphicsAdapter.drawLayer(chunkIds[chunk], getX() + chunkColumn * chunkPixels,
+                        getY() + chunkRow * chunkPixels, width, height);
+            }
+        }
+        if (!tilesetReady) {
+            // Cached recordings and layers must draw the map again once the tileset is decoded
+            invalidate();
+        }
+    }
+
+    /**
+     * Renders all tiles of a chunk into its offscreen layer.
+     */
+    private void renderChunk(GraphicsAdapter graphicsAdapter, byte[] tileset, int chunk, int chunkColumn,
+            int chunkRow, int width, int height) {
+        int firstColumn = chunkColumn * CHUNK_SIZE;
+        int firstRow = chunkRow * CHUNK_SIZE;
+        int lastColumn = Math.min(columns, firstColumn + CHUNK_SIZE);
+        int lastRow = Math.min(rows, firstRow + CHUNK_SIZE);
+
+        graphicsAdapter.beginLayer(chunkIds[chunk], width, height);
+        for (int row = firstRow; row < lastRow; row++) {
+            for (int column = firstColumn; column < lastColumn; column++) {
+                int tile = tiles[row * columns + column];
+                if (tile < 0) {
+                    continue;
+                }
+                graphicsAdapter.drawRasterImageRegion(tilesetId, tileset,
+                        (tile % tilesetColumns) * tileSize, (tile / tilesetColumns) * tileSize, tileSize, tileSize,
+                        (column - firstColumn) * tileSize, (row - firstRow) * tileSize, tileSize, tileSize);
+            }
+        }
+        graphicsAdapter.endLayer();
+    }
+}
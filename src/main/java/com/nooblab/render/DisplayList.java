@@ -0,0 +1,493 @@
+package com.nooblab.render;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.text.FontStyle;
+import com.nooblab.text.FontWeight;
+import com.nooblab.text.TextAlign;
+import com.nooblab.util.CSSPaint;
+
+/**
+ * A compact, replayable recording of {@link GraphicsAdapter} calls.
+ * <p>
+ * Every call is stored as an opcode followed by its integer arguments in a single
+ * {@code int[]}, with polygon points, packed ARGB colours and the bits of float
+ * opacities stored inline. Values
+ * that are not integers, such as colour strings, paints, text and image data, are stored
+ * in a constant pool and referenced by index; consecutive uses of the same colour
+ * string share one entry.
+ * Replaying the list issues the same calls again without touching the elements
+ * that produced them. Calls are recorded through a {@link DisplayListRecorder},
+ * whose methods of the same names store them here.
+ * </p>
+ * <p>
+ * A display list can be cleared and recorded again without allocating once its
+ * buffers have grown to the required size, and replaying it never allocates.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class DisplayList {
+
+    private static final int RESET_STATE = 1;
+    private static final int SET_FILL = 2;
+    private static final int SET_STROKE = 3;
+    private static final int SET_LINE_WIDTH = 4;
+    private static final int SET_TEXT_ALIGN = 5;
+    private static final int SET_FONT_FAMILY = 6;
+    private static final int SET_FONT_SIZE = 7;
+    private static final int SET_FONT_WEIGHT = 8;
+    private static final int SET_FONT_STYLE = 9;
+    private static final int FILL_RECT = 10;
+    private static final int FILL_OVAL = 11;
+    private static final int FILL_POLYGON = 12;
+    private static final int FILL_TEXT = 13;
+    private static final int STROKE_RECT = 14;
+    private static final int STROKE_OVAL = 15;
+    private static final int STROKE_POLYGON = 16;
+    private static final int STROKE_LINE = 17;
+    private static final int STROKE_TEXT = 18;
+    private static final int DRAW_RASTER_IMAGE = 19;
+    private static final int DRAW_RASTER_IMAGE_REGION = 20;
+    private static final int DRAW_LAYER = 21;
+    private static final int SET_FILL_ARGB = 23;
+    private static final int SET_STROKE_ARGB = 24;
+    private static final int PUSH_STATE = 25;
+    private static final int POP_STATE = 26;
+    private static final int TRANSLATE = 27;
+    private static final int CLIP_RECT = 28;
+    private static final int CLIP_POLYGON = 29;
+    private static final int SET_FILL_PAINT = 30;
+    private static final int MULTIPLY_OPACITY = 31;
+    private static final int DRAW_PIXELS = 32;
+    private static final int DRAW_INDEXED_PIXELS = 33;
+
+    private static final TextAlign[] TEXT_ALIGNS = TextAlign.values();
+    private static final FontWeight[] FONT_WEIGHTS = FontWeight.values();
+    private static final FontStyle[] FONT_STYLES = FontStyle.values();
+
+    private int[] code;
+    private int size;
+    private Object[] constants;
+    private int constantCount;
+    private int lastColor;
+    private int[] xPointsBuffer;
+    private int[] yPointsBuffer;
+    private int pointCount;
+
+    /**
+     * Creates an empty display list.
+     */
+    public DisplayList() {
+        this.code = new int[256];
+        this.constants = new Object[16];
+        this.lastColor = -1;
+        this.xPointsBuffer = new int[16];
+        this.yPointsBuffer = new int[16];
+    }
+
+    /**
+     * Removes all recorded calls, keeping the allocated buffers for reuse.
+     */
+    public void clear() {
+        Arrays.fill(constants, 0, constantCount, null);
+        size = 0;
+        constantCount = 0;
+        lastColor = -1;
+    }
+
+    /**
+     * Checks if no calls have been recorded.
+     *
+     * @return {@code true} if the display list is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the number of {@code int} slots used by the recorded calls.
+     *
+     * @return The size of the recorded code.
+     */
+    public int getCodeSize() {
+        return size;
+    }
+
+    /**
+     * Issues all recorded calls on the given adapter, in recording order.
+     *
+     * @param adapter The graphics adapter to draw with.
+     */
+    public void replay(GraphicsAdapter adapter) {
+        int pc = 0;
+        while (pc < size) {
+            switch (code[pc++]) {
+                case RESET_STATE:
+                    adapter.resetState();
+                    break;
+                case SET_FILL:
+                    adapter.setFill((String) constants[code[pc++]]);
+                    break;
+                case SET_STROKE:
+                    adapter.setStroke((String) constants[code[pc++]]);
+                    break;
+                case SET_LINE_WIDTH:
+                    adapter.setLineWidth(code[pc++]);
+                    break;
+                case SET_TEXT_ALIGN:
+                    adapter.setTextAlign(TEXT_ALIGNS[code[pc++]]);
+                    break;
+                case SET_FONT_FAMILY:
+                    adapter.setFontFamily((String) constants[code[pc++]]);
+                    break;
+                case SET_FONT_SIZE:
+                    adapter.setFontSize(code[pc++]);
+                    break;
+                case SET_FONT_WEIGHT:
+                    adapter.setFontWeight(FONT_WEIGHTS[code[pc++]]);
+                    break;
+                case SET_FONT_STYLE:
+                    adapter.setFontStyle(FONT_STYLES[code[pc++]]);
+                    break;
+                case FILL_RECT:
+                    adapter.fillRect(code[pc], code[pc + 1], code[pc + 2], code[pc + 3]);
+                    pc += 4;
+                    break;
+                case FILL_OVAL:
+                    adapter.fillOval(code[pc], code[pc + 1], code[pc + 2], code[pc + 3]);
+                    pc += 4;
+                    break;
+                case FILL_POLYGON:
+                    pc = readPoints(pc);
+                    adapter.fillPolygon(xPointsBuffer, yPointsBuffer, pointCount);
+                    break;
+                case FILL_TEXT:
+                    adapter.fillText(code[pc], code[pc + 1], (String) constants[code[pc + 2]]);
+                    pc += 3;
+                    break;
+                case STROKE_RECT:
+                    adapter.strokeRect(code[pc], code[pc + 1], code[pc + 2], code[pc + 3]);
+                    pc += 4;
+                    break;
+                case STROKE_OVAL:
+                    adapter.strokeOval(code[pc], code[pc + 1], code[pc + 2], code[pc + 3]);
+                    pc += 4;
+                    break;
+                case STROKE_POLYGON:
+                    pc = readPoints(pc);
+                    adapter.strokePolygon(xPointsBuffer, yPointsBuffer, pointCount);
+                    break;
+                case STROKE_LINE:
+                    adapter.strokeLine(code[pc], code[pc + 1], code[pc + 2], code[pc + 3]);
+                    pc += 4;
+                    break;
+                case STROKE_TEXT:
+                    adapter.strokeText(code[pc], code[pc + 1], (String) constants[code[pc + 2]]);
+                    pc += 3;
+                    break;
+                case DRAW_RASTER_IMAGE:
+                    adapter.drawRasterImage((String) constants[code[pc]], (byte[]) constants[code[pc + 1]],
+                            code[pc + 2], code[pc + 3], code[pc + 4], code[pc + 5]);
+                    pc += 6;
+                    break;
+                case DRAW_RASTER_IMAGE_REGION:
+                    adapter.drawRasterImageRegion((String) constants[code[pc]], (byte[]) constants[code[pc + 1]],
+                            code[pc + 2], code[pc + 3], code[pc + 4], code[pc + 5],
+                            code[pc + 6], code[pc + 7], code[pc + 8], code[pc + 9]);
+                    pc += 10;
+                    break;
+                case DRAW_PIXELS:
+                    adapter.drawPixels((String) constants[code[pc]], (int[]) constants[code[pc + 1]],
+                            code[pc + 2], code[pc + 3], code[pc + 4], code[pc + 5], code[pc + 6], code[pc + 7]);
+                    pc += 8;
+                    break;
+                case DRAW_INDEXED_PIXELS:
+                    adapter.drawIndexedPixels((String) constants[code[pc]], (byte[]) constants[code[pc + 1]],
+                            (int[]) constants[code[pc + 2]], code[pc + 3], code[pc + 4], code[pc + 5], code[pc + 6],
+                            code[pc + 7], code[pc + 8]);
+                    pc += 9;
+                    break;
+                case DRAW_LAYER:
+                    adapter.drawLayer((String) constants[code[pc]], code[pc + 1], code[pc + 2], code[pc + 3],
+                            code[pc + 4]);
+                    pc += 5;
+                    break;
+                case SET_FILL_ARGB:
+                    adapter.setFill(code[pc++]);
+                    break;
+                case SET_STROKE_ARGB:
+                    adapter.setStroke(code[pc++]);
+                    break;
+                case SET_FILL_PAINT:
+                    adapter.setFillPaint((CSSPaint) constants[code[pc++]]);
+                    break;
+                case PUSH_STATE:
+                    adapter.pushState();
+                    break;
+                case POP_STATE:
+                    adapter.popState();
+                    break;
+                case TRANSLATE:
+                    adapter.translate(code[pc], code[pc + 1]);
+                    pc += 2;
+                    break;
+                case CLIP_RECT:
+                    adapter.clipRect(code[pc], code[pc + 1], code[pc + 2], code[pc + 3]);
+                    pc += 4;
+                    break;
+                case CLIP_POLYGON:
+                    pc = readPoints(pc);
+                    adapter.clipPolygon(xPointsBuffer, yPointsBuffer, pointCount);
+                    break;
+                case MULTIPLY_OPACITY:
+                    adapter.multiplyOpacity(Float.intBitsToFloat(code[pc++]));
+                    break;
+                default:
+                    throw new IllegalStateException("Corrupted display list at " + (pc - 1));
+            }
+        }
+    }
+
+    void resetState() {
+        emit(RESET_STATE);
+    }
+
+    void pushState() {
+        emit(PUSH_STATE);
+    }
+
+    void popState() {
+        emit(POP_STATE);
+    }
+
+    void translate(int dx, int dy) {
+        emit(TRANSLATE, dx, dy);
+    }
+
+    void clipRect(int x, int y, int width, int height) {
+        emit(CLIP_RECT, x, y, width, height);
+    }
+
+    void clipPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        emit(CLIP_POLYGON);
+        emitPoints(xPoints, yPoints, nPoints);
+    }
+
+    void multiplyOpacity(double opacity) {
+        emit(MULTIPLY_OPACITY, Float.floatToIntBits((float) opacity));
+    }
+
+    void setFill(String color) {
+        emit(SET_FILL, colorConstant(color));
+    }
+
+    void setStroke(String color) {
+        emit(SET_STROKE, colorConstant(color));
+    }
+
+    void setFill(int argb) {
+        emit(SET_FILL_ARGB, argb);
+    }
+
+    void setStroke(int argb) {
+        emit(SET_STROKE_ARGB, argb);
+    }
+
+    void setFillPaint(CSSPaint paint) {
+        emit(SET_FILL_PAINT, constant(paint));
+    }
+
+    void setLineWidth(int width) {
+        emit(SET_LINE_WIDTH, width);
+    }
+
+    void setTextAlign(TextAlign textAlign) {
+        emit(SET_TEXT_ALIGN, textAlign.ordinal());
+    }
+
+    void setFontFamily(String fontFamily) {
+        emit(SET_FONT_FAMILY, constant(fontFamily));
+    }
+
+    void setFontSize(int size) {
+        emit(SET_FONT_SIZE, size);
+    }
+
+    void setFontWeight(FontWeight weight) {
+        emit(SET_FONT_WEIGHT, weight.ordinal());
+    }
+
+    void setFontStyle(FontStyle style) {
+        emit(SET_FONT_STYLE, style.ordinal());
+    }
+
+    void fillRect(int x, int y, int width, int height) {
+        emit(FILL_RECT, x, y, width, height);
+    }
+
+    void fillOval(int x, int y, int width, int height) {
+        emit(FILL_OVAL, x, y, width, height);
+    }
+
+    void fillPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        emit(FILL_POLYGON);
+        emitPoints(xPoints, yPoints, nPoints);
+    }
+
+    void fillText(int x, int y, String text) {
+        emit(FILL_TEXT, x, y, constant(text));
+    }
+
+    void strokeRect(int x, int y, int width, int height) {
+        emit(STROKE_RECT, x, y, width, height);
+    }
+
+    void strokeOval(int x, int y, int width, int height) {
+        emit(STROKE_OVAL, x, y, width, height);
+    }
+
+    void strokePolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        emit(STROKE_POLYGON);
+        emitPoints(xPoints, yPoints, nPoints);
+    }
+
+    void strokeLine(int x1, int y1, int x2, int y2) {
+        emit(STROKE_LINE, x1, y1, x2, y2);
+    }
+
+    void strokeText(int x, int y, String text) {
+        emit(STROKE_TEXT, x, y, constant(text));
+    }
+
+    void drawRasterImage(String id, byte[] data, int x, int y, int width, int height) {
+        emit(DRAW_RASTER_IMAGE, constant(id), constant(data));
+        emit(x, y, width, height);
+    }
+
+    void drawRasterImageRegion(String id, byte[] data, int sourceX, int sourceY, int sourceW, int sourceH,
+            int x, int y, int width, int height) {
+        emit(DRAW_RASTER_IMAGE_REGION, constant(id), constant(data));
+        emit(sourceX, sourceY, sourceW, sourceH);
+        emit(x, y, width, height);
+    }
+
+    void drawPixels(String id, int[] pixels, int pixelWidth, int pixelHeight, int x, int y, int width,
+            int height) {
+        emit(DRAW_PIXELS, constant(id), constant(pixels), pixelWidth, pixelHeight);
+        emit(x, y, width, height);
+    }
+
+    void drawIndexedPixels(String id, byte[] indices, int[] palette, int pixelWidth, int pixelHeight, int x,
+            int y, int width, int height) {
+        emit(DRAW_INDEXED_PIXELS, constant(id), constant(indices), constant(palette), pixelWidth);
+        emit(pixelHeight, x, y, width, height);
+    }
+
+    void drawLayer(String id, int x, int y, int width, int height) {
+        emit(DRAW_LAYER, constant(id), x, y, width, height);
+    }
+
+    /**
+     * Stores a colour in the constant pool, sharing the slot of the previous colour
+     * if it is the same.
+     */
+    private int colorConstant(String color) {
+        if (lastColor < 0 || !Objects.equals(constants[lastColor], color)) {
+            lastColor = constant(color);
+        }
+        return lastColor;
+    }
+
+    /**
+     * Stores a value in the constant pool.
+     */
+    private int constant(Object value) {
+        if (constantCount == constants.length) {
+            constants = Arrays.copyOf(constants, constantCount * 2);
+        }
+        constants[constantCount] = value;
+        return constantCount++;
+    }
+
+    /**
+     * Stores polygon points inline as the point count, x coordinates and y coordinates.
+     */
+    private void emitPoints(int[] xPoints, int[] yPoints, int nPoints) {
+        ensureCapacity(nPoints * 2 + 1);
+        code[size++] = nPoints;
+        System.arraycopy(xPoints, 0, code, size, nPoints);
+        System.arraycopy(yPoints, 0, code, size + nPoints, nPoints);
+        size += nPoints * 2;
+    }
+
+    /**
+     * Copies inline polygon points starting at {@code pc} into the point buffers
+     * and sets {@code pointCount}.
+     *
+     * @return The position just after the points.
+     */
+    private int readPoints(int pc) {
+        pointCount = code[pc++];
+        if (xPointsBuffer.length < pointCount) {
+            xPointsBuffer = new int[pointCount];
+            yPointsBuffer = new int[pointCount];
+        }
+        System.arraycopy(code, pc, xPointsBuffer, 0, pointCount);
+        System.arraycopy(code, pc + pointCount, yPointsBuffer, 0, pointCount);
+        return pc + pointCount * 2;
+    }
+
+    private void ensureCapacity(int count) {
+        if (size + count > code.length) {
+            code = Arrays.copyOf(code, Math.max(code.length * 2, size + count));
+        }
+    }
+
+    private void emit(int a) {
+        ensureCapacity(1);
+        code[size++] = a;
+    }
+
+    private void emit(int a, int b) {
+        ensureCapacity(2);
+        code[size++] = a;
+        code[size++] = b;
+    }
+
+    private void emit(int a, int b, int c) {
+        ensureCapacity(3);
+        code[size++] = a;
+        code[size++] = b;
+        code[size++] = c;
+    }
+
+    private void emit(int a, int b, int c, int d) {
+        ensureCapacity(4);
+        code[size++] = a;
+        code[size++] = b;
+        code[size++] = c;
+        code[size++] = d;
+    }
+
+    private void emit(int a, int b, int c, int d, int e) {
+        ensureCapacity(5);
+        code[size++] = a;
+        code[size++] = b;
+        code[size++] = c;
+        code[size++] = d;
+        code[size++] = e;
+    }
+
+    private void emit(int a, int b, int c, int d, int e, int f) {
+        ensureCapacity(6);
+        code[size++] = a;
+        code[size++] = b;
+        code[size++] = c;
+        code[size++] = d;
+        code[size++] = e;
+        code[size++] = f;
+    }
+}
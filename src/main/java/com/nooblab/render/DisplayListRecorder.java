@@ -0,0 +1,483 @@
+package com.nooblab.render;
+
+import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.adapter.GraphicsState;
+import com.nooblab.adapter.ImageCacheStats;
+import com.nooblab.adapter.LayerEffect;
+import com.nooblab.adapter.StateChangeStats;
+import com.nooblab.text.FontStyle;
+import com.nooblab.text.FontWeight;
+import com.nooblab.text.TextAlign;
+import com.nooblab.util.CSSPaint;
+
+/**
+ * A {@link GraphicsAdapter} that records drawing calls into a {@link DisplayList}.
+ * <p>
+ * Queries and lifecycle calls are forwarded to the real adapter. Offscreen layers
+ * are rendered on the real adapter right away, since they are cached there anyway;
+ * only drawing the finished layer is recorded.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class DisplayListRecorder implements GraphicsAdapter {
+
+    private final GraphicsAdapter delegate;
+    private DisplayList displayList;
+    private int layerDepth;
+
+    /**
+     * Creates a recorder that forwards everything it does not record to the given adapter.
+     *
+     * @param delegate The real graphics adapter.
+     */
+    public DisplayListRecorder(GraphicsAdapter delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Sets the display list that subsequent calls are recorded into.
+     *
+     * @param displayList The target display list.
+     */
+    public void setDisplayList(DisplayList displayList) {
+        this.displayList = displayList;
+    }
+
+    /**
+     * Checks if calls are currently forwarded to an offscreen layer of the real adapter.
+     */
+    private boolean isInLayer() {
+        return layerDepth > 0;
+    }
+
+    @Override
+    public void init() {
+        delegate.init();
+    }
+
+    @Override
+    public void dispose() {
+        delegate.dispose();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return delegate.isFinished();
+    }
+
+    @Override
+    public void clear() {
+        // Display lists are drawn on top of existing content
+    }
+
+    @Override
+    public GraphicsState saveState() {
+        return delegate.saveState();
+    }
+
+    @Override
+    public void restoreState(GraphicsState state) {
+        delegate.restoreState(state);
+    }
+
+    @Override
+    public void resetState() {
+        if (isInLayer()) {
+            delegate.resetState();
+        } else {
+            displayList.resetState();
+        }
+    }
+
+    @Override
+    public void pushState() {
+        if (isInLayer()) {
+            delegate.pushState();
+        } else {
+            displayList.pushState();
+        }
+    }
+
+    @Override
+    public void popState() {
+        if (isInLayer()) {
+            delegate.popState();
+        } else {
+            displayList.popState();
+        }
+    }
+
+    @Override
+    public void translate(int dx, int dy) {
+        if (isInLayer()) {
+            delegate.translate(dx, dy);
+        } else {
+            displayList.translate(dx, dy);
+        }
+    }
+
+    @Override
+    public void multiplyOpacity(double opacity) {
+        if (isInLayer()) {
+            delegate.multiplyOpacity(opacity);
+        } else {
+            displayList.multiplyOpacity(opacity);
+        }
+    }
+
+    @Override
+    public void clipRect(int x, int y, int width, int height) {
+        if (isInLayer()) {
+            delegate.clipRect(x, y, width, height);
+        } else {
+            displayList.clipRect(x, y, width, height);
+        }
+    }
+
+    @Override
+    public void clipPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        if (isInLayer()) {
+            delegate.clipPolygon(xPoints, yPoints, nPoints);
+        } else {
+            displayList.clipPolygon(xPoints, yPoints, nPoints);
+        }
+    }
+
+    @Override
+    public void scheduleFrameUpdates(Runnable callback, int refreshRate) {
+        delegate.scheduleFrameUpdates(callback, refreshRate);
+    }
+
+    @Override
+    public void requestAnimationFrame(Runnable callback) {
+        delegate.requestAnimationFrame(callback);
+    }
+
+    @Override
+    public void setFill(String color) {
+        if (isInLayer()) {
+            delegate.setFill(color);
+        } else {
+            displayList.setFill(color);
+        }
+    }
+
+    @Override
+    public void setStroke(String color) {
+        if (isInLayer()) {
+            delegate.setStroke(color);
+        } else {
+            displayList.setStroke(color);
+        }
+    }
+
+    @Override
+    public void setFill(int argb) {
+        if (isInLayer()) {
+            delegate.setFill(argb);
+        } else {
+            displayList.setFill(argb);
+        }
+    }
+
+    @Override
+    public void setStroke(int argb) {
+        if (isInLayer()) {
+            delegate.setStroke(argb);
+        } else {
+            displayList.setStroke(argb);
+        }
+    }
+
+    @Override
+    public void setFillPaint(CSSPaint paint) {
+        if (isInLayer()) {
+            delegate.setFillPaint(paint);
+        } else {
+            displayList.setFillPaint(paint);
+        }
+    }
+
+    @Override
+    public void setLineWidth(int width) {
+        if (isInLayer()) {
+            delegate.setLineWidth(width);
+        } else {
+            displayList.setLineWidth(width);
+        }
+    }
+
+    @Override
+    public void setTextAlign(TextAlign textAlign) {
+        if (isInLayer()) {
+            delegate.setTextAlign(textAlign);
+        } else {
+            displayList.setTextAlign(textAlign);
+        }
+    }
+
+    @Override
+    public void setFontFamily(String fontFamily) {
+        if (isInLayer()) {
+            delegate.setFontFamily(fontFamily);
+        } else {
+            displayList.setFontFamily(fontFamily);
+        }
+    }
+
+    @Override
+    public void setFontSize(int size) {
+        if (isInLayer()) {
+            delegate.setFontSize(size);
+        } else {
+            displayList.setFontSize(size);
+        }
+    }
+
+    @Override
+    public void setFontWeight(FontWeight weight) {
+        if (isInLayer()) {
+            delegate.setFontWeight(weight);
+        } else {
+            displayList.setFontWeight(weight);
+        }
+    }
+
+    @Override
+    public void setFontStyle(FontStyle style) {
+        if (isInLayer()) {
+            delegate.setFontStyle(style);
+        } else {
+            displayList.setFontStyle(style);
+        }
+    }
+
+    @Override
+    public void preloadFont(String fontFamily, int size, FontWeight weight, FontStyle style) {
+        delegate.preloadFont(fontFamily, size, weight, style);
+    }
+
+    @Override
+    public void fillRect(int x, int y, int width, int height) {
+        if (isInLayer()) {
+            delegate.fillRect(x, y, width, height);
+        } else {
+            displayList.fillRect(x, y, width, height);
+        }
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        if (isInLayer()) {
+            delegate.fillOval(x, y, width, height);
+        } else {
+            displayList.fillOval(x, y, width, height);
+        }
+    }
+
+    @Override
+    public void fillPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        if (isInLayer()) {
+            delegate.fillPolygon(xPoints, yPoints, nPoints);
+        } else {
+            displayList.fillPolygon(xPoints, yPoints, nPoints);
+        }
+    }
+
+    @Override
+    public void fillText(int x, int y, String text) {
+        if (isInLayer()) {
+            delegate.fillText(x, y, text);
+        } else {
+            displayList.fillText(x, y, text);
+        }
+    }
+
+    @Override
+    public void strokeRect(int x, int y, int width, int height) {
+        if (isInLayer()) {
+            delegate.strokeRect(x, y, width, height);
+        } else {
+            displayList.strokeRect(x, y, width, height);
+        }
+    }
+
+    @Override
+    public void strokeOval(int x, int y, int width, int height) {
+        if (isInLayer()) {
+            delegate.strokeOval(x, y, width, height);
+        } else {
+            displayList.strokeOval(x, y, width, height);
+        }
+    }
+
+    @Override
+    public void strokePolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        if (isInLayer()) {
+            delegate.strokePolygon(xPoints, yPoints, nPoints);
+        } else {
+            displayList.strokePolygon(xPoints, yPoints, nPoints);
+        }
+    }
+
+    @Override
+    public void strokeLine(int x1, int y1, int x2, int y2) {
+        if (isInLayer()) {
+            delegate.strokeLine(x1, y1, x2, y2);
+        } else {
+            displayList.strokeLine(x1, y1, x2, y2);
+        }
+    }
+
+    @Override
+    public void strokeText(int x, int y, String text) {
+        if (isInLayer()) {
+            delegate.strokeText(x, y, text);
+        } else {
+            displayList.strokeText(x, y, text);
+        }
+    }
+
+    @Override
+    public void drawRasterImage(String id, byte[] data, int x, int y, int width, int height) {
+        if (isInLayer()) {
+            delegate.drawRasterImage(id, data, x, y, width, height);
+        } else {
+            displayList.drawRasterImage(id, data, x, y, width, height);
+        }
+    }
+
+    @Override
+    public void purgeRasterImage(String id) {
+        delegate.purgeRasterImage(id);
+    }
+
+    @Override
+    public void drawRasterImageRegion(String id, byte[] data, int sourceX, int sourceY, int sourceW, int sourceH,
+            int x, int y, int width, int height) {
+        if (isInLayer()) {
+            delegate.drawRasterImageRegion(id, data, sourceX, sourceY, sourceW, sourceH, x, y, width, height);
+        } else {
+            displayList.drawRasterImageRegion(id, data, sourceX, sourceY, sourceW, sourceH, x, y, width, height);
+        }
+    }
+
+    @Override
+    public void drawPixels(String id, int[] pixels, int pixelWidth, int pixelHeight, int x, int y, int width,
+            int height) {
+        if (isInLayer()) {
+            delegate.drawPixels(id, pixels, pixelWidth, pixelHeight, x, y, width, height);
+        } else {
+            displayList.drawPixels(id, pixels, pixelWidth, pixelHeight, x, y, width, height);
+        }
+    }
+
+    @Override
+    public void drawIndexedPixels(String id, byte[] indices, int[] palette, int pixelWidth, int pixelHeight, int x,
+            int y, int width, int height) {
+        if (isInLayer()) {
+            delegate.drawIndexedPixels(id, indices, palette, pixelWidth, pixelHeight, x, y, width, height);
+        } else {
+            displayList.drawIndexedPixels(id, indices, palette, pixelWidth, pixelHeight, x, y, width, height);
+        }
+    }
+
+    @Override
+    public void updatePixels(String id, int[] pixels, int pixelWidth, int regionX, int regionY, int regionWidth,
+            int regionHeight) {
+        delegate.updatePixels(id, pixels, pixelWidth, regionX, regionY, regionWidth, regionHeight);
+    }
+
+    @Override
+    public boolean hasLayer(String id) {
+        return delegate.hasLayer(id);
+    }
+
+    @Override
+    public void beginLayer(String id, int width, int height) {
+        layerDepth++;
+        delegate.beginLayer(id, width, height);
+    }
+
+    @Override
+    public void endLayer() {
+        delegate.endLayer();
+        layerDepth--;
+    }
+
+    @Override
+    public void endLayer(LayerEffect effect) {
+        delegate.endLayer(effect);
+        layerDepth--;
+    }
+
+    @Override
+    public void drawLayer(String id, int x, int y, int width, int height) {
+        if (isInLayer()) {
+            delegate.drawLayer(id, x, y, width, height);
+        } else {
+            displayList.drawLayer(id, x, y, width, height);
+        }
+    }
+
+    @Override
+    public void purgeLayer(String id) {
+        delegate.purgeLayer(id);
+    }
+
+    @Override
+    public int getCanvasWidth() {
+        return delegate.getCanvasWidth();
+    }
+
+    @Override
+    public int getCanvasHeight() {
+        return delegate.getCanvasHeight();
+    }
+
+    @Override
+    public void setAspectRatio(int width, int height) {
+        delegate.setAspectRatio(width, height);
+    }
+
+    @Override
+    public boolean isKeyPressed(String key) {
+        return delegate.isKeyPressed(key);
+    }
+
+    @Override
+    public String[] getPressedKeys() {
+        return delegate.getPressedKeys();
+    }
+
+    @Override
+    public StateChangeStats getStateChangeStats() {
+        return delegate.getStateChangeStats();
+    }
+
+    @Override
+    public void prepareRasterImage(byte[] data) {
+        delegate.prepareRasterImage(data);
+    }
+
+    @Override
+    public boolean isRasterImageReady(String id) {
+        return delegate.isRasterImageReady(id);
+    }
+
+    @Override
+    public boolean isRasterImageOpaque(String id) {
+        return delegate.isRasterImageOpaque(id);
+    }
+
+    @Override
+    public void setImageCacheBudget(long bytes) {
+        delegate.setImageCacheBudget(bytes);
+    }
+
+    @Override
+    public ImageCacheStats getImageCacheStats() {
+        return delegate.getImageCacheStats();
+    }
+}
@@ -0,0 +1,225 @@
+package com.nooblab.render;
+
+import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.style.ResolvedStyle;
+import com.nooblab.style.StyleApplier;
+import com.nooblab.style.StyleCache;
+import com.nooblab.util.CSSPaint;
+
+/**
+ * Immediate-mode drawing commands for a single frame.
+ * <p>
+ * Shapes drawn through a frame context are not elements: they have no IDs, are
+ * not kept in any element list and cannot be updated. The commands are recorded
+ * into a {@link DisplayList} that is reused for the next frame, and each shape is
+ * drawn exactly like the element of the same kind. Missing colours are drawn
+ * black, as they are for elements.
+ * </p>
+ * <p>
+ * Gradients and image patterns are resolved while the frame is recorded, and the
+ * images of patterns are loaded then too, so that drawing the frame on the
+ * rendering thread never waits for a download.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public final class FrameContext {
+
+    /**
+     * Colour of shapes drawn without a colour, the same as for elements.
+     */
+    private static final String DEFAULT_COLOUR = "black";
+
+    private final DisplayListRecorder recorder;
+    private int[] xPoints;
+    private int[] yPoints;
+
+    /**
+     * Creates a frame context.
+     *
+     * @param adapter The graphics adapter the frame will be drawn on.
+     */
+    FrameContext(GraphicsAdapter adapter) {
+        this.recorder = new DisplayListRecorder(adapter);
+        this.xPoints = new int[16];
+        this.yPoints = new int[16];
+    }
+
+    /**
+     * Starts recording into the given display list.
+     */
+    void begin(DisplayList displayList) {
+        displayList.clear();
+        recorder.setDisplayList(displayList);
+    }
+
+    /**
+     * Draws a rectangle.
+     *
+     * @param x            The x-coordinate of the top-left corner.
+     * @param y            The y-coordinate of the top-left corner.
+     * @param width        The width of the rectangle.
+     * @param height       The height of the rectangle.
+     * @param fillColour   The fill colour.
+     * @param strokeColour The outline colour.
+     * @param strokeWeight The outline thickness, or {@code 0} for no outline.
+     */
+    public void rect(int x, int y, int width, int height, String fillColour, String strokeColour, int strokeWeight) {
+        recorder.resetState();
+        setFill(fillColour);
+        recorder.fillRect(x, y, width, height);
+        if (strokeWeight > 0) {
+            recorder.setStroke(orDefault(strokeColour));
+            recorder.setLineWidth(strokeWeight);
+            recorder.strokeRect(x, y, width, height);
+        }
+    }
+
+    /**
+     * Draws a rectangle without an outline.
+     *
+     * @param x          The x-coordinate of the top-left corner.
+     * @param y          The y-coordinate of the top-left corner.
+     * @param width      The width of the rectangle.
+     * @param height     The height of the rectangle.
+     * @param fillColour The fill colour.
+     */
+    public void rect(int x, int y, int width, int height, String fillColour) {
+        rect(x, y, width, height, fillColour, null, 0);
+    }
+
+    /**
+     * Draws a circle.
+     *
+     * @param x            The x-coordinate of the centre.
+     * @param y            The y-coordinate of the centre.
+     * @param r            The radius.
+     * @param colour       The fill colour.
+     * @param strokeColour The outline colour.
+     * @param strokeWeight The outline thickness, or {@code 0} for no outline.
+     */
+    public void circle(int x, int y, int r, String colour, String strokeColour, int strokeWeight) {
+        recorder.resetState();
+        setFill(colour);
+        recorder.fillOval(x - r, y - r, r * 2, r * 2);
+        if (strokeWeight > 0) {
+            recorder.setStroke(orDefault(strokeColour));
+            recorder.setLineWidth(strokeWeight);
+            recorder.strokeOval(x - r, y - r, r * 2, r * 2);
+        }
+    }
+
+    /**
+     * Draws a circle without an outline.
+     *
+     * @param x      The x-coordinate of the centre.
+     * @param y      The y-coordinate of the centre.
+     * @param r      The radius.
+     * @param colour The fill colour.
+     */
+    public void circle(int x, int y, int r, String colour) {
+        circle(x, y, r, colour, null, 0);
+    }
+
+    /**
+     * Draws a line.
+     *
+     * @param x            The x-coordinate of the start point.
+     * @param y            The y-coordinate of the start point.
+     * @param x2           The x-coordinate of the end point.
+     * @param y2           The y-coordinate of the end point.
+     * @param strokeColour The line colour.
+     * @param strokeWeight The line thickness.
+     */
+    public void line(int x, int y, int x2, int y2, String strokeColour, int strokeWeight) {
+        recorder.resetState();
+        recorder.setStroke(orDefault(strokeColour));
+        recorder.setLineWidth(strokeWeight);
+        recorder.strokeLine(x, y, x2, y2);
+    }
+
+    /**
+     * Draws a polygon.
+     *
+     * @param points       The corners of the polygon, each an array of two elements (X, Y).
+     * @param colour       The fill colour.
+     * @param strokeColour The outline colour.
+     * @param strokeWidth  The outline thickness, or {@code 0} for no outline.
+     */
+    public void polygon(int[][] points, String colour, String strokeColour, int strokeWidth) {
+        int count = points.length;
+        if (xPoints.length < count) {
+            xPoints = new int[count];
+            yPoints = new int[count];
+        }
+        for (int i = 0; i < count; i++) {
+            xPoints[i] = points[i][0];
+            yPoints[i] = points[i][1];
+        }
+
+        recorder.resetState();
+        setFill(colour);
+        recorder.fillPolygon(xPoints, yPoints, count);
+        if (strokeWidth > 0) {
+            recorder.setStroke(orDefault(strokeColour));
+            recorder.setLineWidth(strokeWidth);
+            recorder.strokePolygon(xPoints, yPoints, count);
+        }
+    }
+
+    /**
+     * Draws text.
+     *
+     * @param x     The x-coordinate of the text.
+     * @param y     The y-coordinate of the text.
+     * @param text  The text to draw.
+     * @param style A CSS-style string, or {@code null} for the default style.
+     */
+    public void text(int x, int y, String text, String style) {
+        ResolvedStyle resolvedStyle = StyleCache.resolve(style);
+        preloadPaint(resolvedStyle.getPaint());
+        recorder.resetState();
+        StyleApplier.applyStyle(recorder, resolvedStyle);
+        recorder.fillText(x, y, text);
+    }
+
+    /**
+     * Draws text in the default style.
+     *
+     * @param x    The x-coordinate of the text.
+     * @param y    The y-coordinate of the text.
+     * @param text The text to draw.
+     */
+    public void text(int x, int y, String text) {
+        text(x, y, text, null);
+    }
+
+    /**
+     * Records a fill colour, resolving gradients and image patterns.
+     */
+    private void setFill(String colour) {
+        CSSPaint paint = CSSPaint.fromColor(colour);
+        if (paint != null) {
+            preloadPaint(paint);
+            recorder.setFillPaint(paint);
+        } else if (CSSPaint.isPaint(colour)) {
+            // Malformed paints are drawn black, as they are for elements
+            recorder.setFill(DEFAULT_COLOUR);
+        } else {
+            recorder.setFill(orDefault(colour));
+        }
+    }
+
+    private static void preloadPaint(CSSPaint paint) {
+        if (paint != null) {
+            paint.getImageData();
+        }
+    }
+
+    /**
+     * Replaces a missing colour with black, the default colour of elements.
+     */
+    private static String orDefault(String colour) {
+        return colour == null ? DEFAULT_COLOUR : colour;
+    }
+}
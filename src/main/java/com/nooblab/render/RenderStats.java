@@ -0,0 +1,118 @@
+package com.nooblab.render;
+
+/**
+ * Statistics about the most recently rendered frame.
+ * <p>
+ * The values are updated by the {@link Renderer} at the end of every frame and can
+ * be read from any thread to diagnose rendering performance.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class RenderStats {
+
+    private volatile long frameCount;
+    private volatile int elementsDrawn;
+    private volatile int elementsCulled;
+    private volatile int batches;
+    private volatile boolean clearSkipped;
+    private volatile int stateChangesIssued;
+    private volatile int stateChangesSkipped;
+
+    /**
+     * Gets the number of frames rendered so far.
+     *
+     * @return The total frame count.
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Gets the number of elements drawn in the last frame.
+     *
+     * @return The number of drawn elements.
+     */
+    public int getElementsDrawn() {
+        return elementsDrawn;
+    }
+
+    /**
+     * Gets the number of visible elements skipped in the last frame because
+     * opaque elements drawn later covered them completely.
+     *
+     * @return The number of culled elements.
+     */
+    public int getElementsCulled() {
+        return elementsCulled;
+    }
+
+    /**
+     * Gets the number of batches drawn in the last frame.
+     * <p>
+     * A batch is a run of consecutively drawn elements of the same type that set up
+     * the same graphics state. Fewer batches mean fewer state changes per frame.
+     * </p>
+     *
+     * @return The number of batches.
+     */
+    public int getBatches() {
+        return batches;
+    }
+
+    /**
+     * Checks if clearing the canvas was skipped in the last frame because an
+     * opaque element covered the whole canvas.
+     *
+     * @return {@code true} if the canvas was not cleared.
+     */
+    public boolean isClearSkipped() {
+        return clearSkipped;
+    }
+
+    /**
+     * Gets the number of state changes, such as fill color or font changes, that
+     * the graphics adapter passed on to the drawing surface in the last frame.
+     *
+     * @return The number of issued state changes.
+     */
+    public int getStateChangesIssued() {
+        return stateChangesIssued;
+    }
+
+    /**
+     * Gets the number of state changes that the graphics adapter skipped in the
+     * last frame because they would not have changed anything.
+     *
+     * @return The number of skipped state changes.
+     */
+    public int getStateChangesSkipped() {
+        return stateChangesSkipped;
+    }
+
+    /**
+     * Records the results of a finished frame.
+     */
+    void recordFrame(int elementsDrawn, int elementsCulled, int batches, boolean clearSkipped) {
+        this.elementsDrawn = elementsDrawn;
+        this.elementsCulled = elementsCulled;
+        this.batches = batches;
+        this.clearSkipped = clearSkipped;
+        this.frameCount++;
+    }
+
+    /**
+     * Records the state changes of a finished frame.
+     */
+    void recordStateChanges(int issued, int skipped) {
+        this.stateChangesIssued = issued;
+        this.stateChangesSkipped = skipped;
+    }
+
+    @Override
+    public String toString() {
+        return "RenderStats[frames=" + frameCount + ", drawn=" + elementsDrawn + ", culled=" + elementsCulled
+                + ", batches=" + batches + ", clearSkipped=" + clearSkipped + ", stateChangesIssued="
+                + stateChangesIssued + ", stateChangesSkipped=" + stateChangesSkipped + "]";
+    }
+}
@@ -0,0 +1,566 @@
+package com.nooblab.render;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.adapter.StateChangeStats;
+import com.nooblab.element.AbstractElement;
+import com.nooblab.element.Bounded;
+import com.nooblab.element.Element;
+
+/**
+ * Draws a list of elements onto a {@link GraphicsAdapter} once per frame.
+ * <p>
+ * Before drawing, the renderer walks the elements from the top-most down and
+ * collects the rectangles covered by opaque elements (see {@link Bounded#isOpaque()}).
+ * Elements that lie entirely inside one of those rectangles are skipped, and when
+ * an opaque element covers the whole canvas nothing below it is drawn and the
+ * canvas is not cleared at all.
+ * </p>
+ * <p>
+ * The remaining elements are grouped into batches of the same type and graphics
+ * state (see {@link Element#getStateKey()}) wherever the draw order does not
+ * matter: within runs of consecutive elements whose bounds do not overlap, or
+ * across the whole frame when the renderer is set to {@linkplain #setUnordered unordered}.
+ * </p>
+ * <p>
+ * Elements added to or removed from the element list are reported with
+ * {@link #elementAdded} and {@link #elementRemoved}. The renderer calls their
+ * lifecycle hooks (see {@link Element#onAdded}) from the frame callback, so that
+ * elements only ever touch the graphics adapter from the rendering thread.
+ * </p>
+ * <p>
+ * Elements {@linkplain #markStatic marked as static} are drawn together from a
+ * recorded {@link StaticGroup} and take no part in culling or batching.
+ * </p>
+ * <p>
+ * Shapes drawn in immediate mode through {@link #submitFrame} are drawn on top of
+ * all elements until the next frame is submitted.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class Renderer {
+
+    /**
+     * Maximum number of opaque rectangles tracked per frame.
+     */
+    private static final int MAX_OCCLUDERS = 32;
+
+    /**
+     * Maximum number of elements checked against each other for overlaps.
+     */
+    private static final int MAX_SEGMENT = 64;
+
+    /**
+     * Small per-type numbers used to group elements of the same type.
+     */
+    private static final ClassValue<Integer> TYPE_IDS = new ClassValue<Integer>() {
+        private int nextId;
+
+        @Override
+        protected synchronized Integer computeValue(Class<?> type) {
+            return nextId++;
+        }
+    };
+
+    private final GraphicsAdapter adapter;
+    private final List<? extends Element> elements;
+    private final RenderStats stats;
+    private final DisplayListRecorder recorder;
+    private final Map<Element, StaticGroup> staticMembers;
+    private final List<StaticGroup> staticGroups;
+    private final List<StaticGroup> disposedGroups;
+    private final List<Element> addedElements;
+    private final List<Element> removedElements;
+    private final Object frameLock;
+    private DisplayList frontFrame;
+    private DisplayList backFrame;
+    private FrameContext frameContext;
+    private volatile boolean unordered;
+
+    private Element[] frameElements;
+    private StaticGroup[] frameGroups;
+    private boolean[] culled;
+    private boolean[] bounded;
+    private int[] bounds;
+    private int[] order;
+    private long[] sortKeys;
+    private long[] batchKeys;
+    private long[] distinctBatchKeys;
+    private final int[] occluders;
+    private int occluderCount;
+
+    /**
+     * Creates a renderer for the given elements.
+     *
+     * @param adapter  The graphics adapter used for drawing.
+     * @param elements The elements to draw, in back to front order.
+     */
+    public Renderer(GraphicsAdapter adapter, List<? extends Element> elements) {
+        this.adapter = adapter;
+        this.elements = elements;
+        this.stats = new RenderStats();
+        this.recorder = new DisplayListRecorder(adapter);
+        this.staticMembers = new IdentityHashMap<Element, StaticGroup>();
+        this.staticGroups = new ArrayList<StaticGroup>();
+        this.disposedGroups = new ArrayList<StaticGroup>();
+        this.addedElements = new ArrayList<Element>();
+        this.removedElements = new ArrayList<Element>();
+        this.frameLock = new Object();
+        this.frontFrame = new DisplayList();
+        this.backFrame = new DisplayList();
+        this.occluders = new int[MAX_OCCLUDERS * 4];
+        ensureCapacity(64);
+    }
+
+    /**
+     * Gets the statistics of the most recently rendered frame.
+     *
+     * @return The render statistics.
+     */
+    public RenderStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Sets whether the elements may be drawn in any order.
+     * <p>
+     * When enabled, all elements of a frame are batched by type and state regardless
+     * of overlaps, so overlapping elements may be drawn in a different order than
+     * they were added.
+     * </p>
+     *
+     * @param unordered {@code true} if the draw order does not matter.
+     */
+    public void setUnordered(boolean unordered) {
+        this.unordered = unordered;
+    }
+
+    /**
+     * Checks if the elements may be drawn in any order.
+     *
+     * @return {@code true} if the draw order does not matter.
+     */
+    public boolean isUnordered() {
+        return unordered;
+    }
+
+    /**
+     * Marks the given elements as a static group.
+     * <p>
+     * The group is drawn where its first member appears in the element list, so
+     * elements placed between the members are drawn on top of all of them. Elements
+     * that already belong to another group are moved to the new one.
+     * </p>
+     *
+     * @param id      A unique identifier for the group.
+     * @param members The elements of the group.
+     * @return The new static group.
+     */
+    public StaticGroup markStatic(String id, List<? extends Element> members) {
+        StaticGroup group = new StaticGroup(id);
+        synchronized (staticMembers) {
+            for (Element member : members) {
+                unmarkStaticLocked(member);
+                staticMembers.put(member, group);
+            }
+            staticGroups.add(group);
+        }
+        return group;
+    }
+
+    /**
+     * Removes the given element from its static group, if any.
+     * <p>
+     * The element is drawn like any other element again starting with the next frame.
+     * </p>
+     *
+     * @param element The element to remove.
+     */
+    public void unmarkStatic(Element element) {
+        synchronized (staticMembers) {
+            unmarkStaticLocked(element);
+        }
+    }
+
+    private void unmarkStaticLocked(Element element) {
+        StaticGroup group = staticMembers.remove(element);
+        if (group != null && !staticMembers.containsValue(group)) {
+            // The cached layer can only be released from the frame callback
+            staticGroups.remove(group);
+            disposedGroups.add(group);
+        }
+    }
+
+    /**
+     * Reports an element that was added to the element list.
+     * <p>
+     * {@link Element#onAdded} is called before the next frame is drawn.
+     * </p>
+     *
+     * @param element The added element.
+     */
+    public void elementAdded(Element element) {
+        synchronized (staticMembers) {
+            addedElements.add(element);
+        }
+    }
+
+    /**
+     * Reports an element that was removed from the element list for good.
+     * <p>
+     * The element is removed from its static group, if any, and
+     * {@link Element#onRemoved} is called before the next frame is drawn.
+     * </p>
+     *
+     * @param element The removed element.
+     */
+    public void elementRemoved(Element element) {
+        synchronized (staticMembers) {
+            unmarkStaticLocked(element);
+            removedElements.add(element);
+        }
+    }
+
+    /**
+     * Records the shapes of an immediate-mode frame and shows them from the next
+     * rendered frame on, replacing the previously submitted frame.
+     * <p>
+     * The commands are recorded on the calling thread into a buffer that is not in
+     * use by the renderer, and the buffers are swapped once recording is done.
+     * </p>
+     *
+     * @param drawing The code that draws the frame.
+     */
+    public synchronized void submitFrame(Consumer<FrameContext> drawing) {
+        if (frameContext == null) {
+            frameContext = new FrameContext(adapter);
+        }
+        frameContext.begin(backFrame);
+        drawing.accept(frameContext);
+
+        synchronized (frameLock) {
+            DisplayList submitted = backFrame;
+            backFrame = frontFrame;
+            frontFrame = submitted;
+        }
+    }
+
+    /**
+     * Removes the shapes of the last submitted immediate-mode frame.
+     */
+    public synchronized void clearFrame() {
+        backFrame.clear();
+        synchronized (frameLock) {
+            DisplayList empty = backFrame;
+            backFrame = frontFrame;
+            frontFrame = empty;
+        }
+    }
+
+    /**
+     * Renders a single frame.
+     * <p>
+     * Must be called from within the frame callback of the graphics adapter.
+     * </p>
+     */
+    public void renderFrame() {
+        synchronized (staticMembers) {
+            renderFrameLocked();
+        }
+    }
+
+    private void renderFrameLocked() {
+        StateChangeStats stateChanges = adapter.getStateChangeStats();
+        long issuedBefore = stateChanges == null ? 0 : stateChanges.getIssued();
+        long skippedBefore = stateChanges == null ? 0 : stateChanges.getSkipped();
+
+        for (StaticGroup group : disposedGroups) {
+            group.dispose(adapter);
+        }
+        disposedGroups.clear();
+        for (int i = 0; i < addedElements.size(); i++) {
+            addedElements.get(i).onAdded(adapter);
+        }
+        addedElements.clear();
+        for (int i = 0; i < removedElements.size(); i++) {
+            removedElements.get(i).onRemoved(adapter);
+        }
+        removedElements.clear();
+
+        int count = snapshotElements();
+        int first = findOccludedElements(count);
+        boolean clearSkipped = first >= 0;
+
+        if (!clearSkipped) {
+            adapter.clear();
+            first = 0;
+        }
+
+        // Collect the elements that will actually be drawn
+        int drawCount = 0;
+        int culledCount = 0;
+        for (int i = first; i < count; i++) {
+            if (frameGroups[i] != null) {
+                // Hidden members are recorded too, so that showing them updates the group
+                if (frameGroups[i].addPresent(frameElements[i])) {
+                    order[drawCount++] = i;
+                }
+            } else if (culled[i]) {
+                culledCount++;
+            } else if (frameElements[i].isVisible()) {
+                order[drawCount++] = i;
+            }
+        }
+
+        sortBatches(drawCount);
+
+        int batches = 0;
+        long previousKey = 0;
+        for (int i = 0; i < drawCount; i++) {
+            long key = sortKeys[i] >>> 32;
+            if (i == 0 || key != previousKey) {
+                batches++;
+                previousKey = key;
+            }
+            StaticGroup group = frameGroups[order[i]];
+            if (group != null) {
+                group.draw(adapter, recorder);
+            } else {
+                frameElements[order[i]].draw(adapter);
+            }
+        }
+
+        synchronized (frameLock) {
+            frontFrame.replay(adapter);
+        }
+
+        Arrays.fill(frameElements, 0, count, null);
+        Arrays.fill(frameGroups, 0, count, null);
+        if (stateChanges != null) {
+            stats.recordStateChanges((int) (stateChanges.getIssued() - issuedBefore),
+                    (int) (stateChanges.getSkipped() - skippedBefore));
+        }
+        stats.recordFrame(drawCount, culledCount, batches, clearSkipped);
+    }
+
+    /**
+     * Copies the element list so that it can be processed in several passes.
+     *
+     * @return The number of elements in this frame.
+     */
+    private int snapshotElements() {
+        int count = elements.size();
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            frameElements[i] = elements.get(i);
+        }
+
+        if (!staticMembers.isEmpty()) {
+            for (StaticGroup group : staticGroups) {
+                group.beginFrame();
+            }
+            for (int i = 0; i < count; i++) {
+                frameGroups[i] = staticMembers.get(frameElements[i]);
+            }
+        }
+        return count;
+    }
+
+    private void ensureCapacity(int count) {
+        if (frameElements == null || frameElements.length < count) {
+            int capacity = frameElements == null ? count : Math.max(count, frameElements.length * 2);
+            frameElements = new Element[capacity];
+            frameGroups = new StaticGroup[capacity];
+            culled = new boolean[capacity];
+            bounded = new boolean[capacity];
+            bounds = new int[capacity * 4];
+            order = new int[capacity];
+            sortKeys = new long[capacity];
+            batchKeys = new long[capacity];
+            distinctBatchKeys = new long[capacity];
+        }
+    }
+
+    /**
+     * Marks elements that are completely hidden behind opaque elements drawn later
+     * and caches the bounds of every visible element.
+     *
+     * @param count The number of elements in this frame.
+     * @return The index of an opaque element that covers the whole canvas, or
+     *         {@code -1} if the canvas is not fully covered.
+     */
+    private int findOccludedElements(int count) {
+        int canvasWidth = adapter.getCanvasWidth();
+        int canvasHeight = adapter.getCanvasHeight();
+        occluderCount = 0;
+
+        for (int i = count - 1; i >= 0; i--) {
+            culled[i] = false;
+            bounded[i] = false;
+            Element element = frameElements[i];
+            if (frameGroups[i] != null || !element.isVisible() || !(element instanceof Bounded)) {
+                continue;
+            }
+
+            Bounded boundedElement = (Bounded) element;
+            int x = boundedElement.getBoundsX();
+            int y = boundedElement.getBoundsY();
+            int width = boundedElement.getBoundsWidth();
+            int height = boundedElement.getBoundsHeight();
+            bounded[i] = true;
+            bounds[i * 4] = x;
+            bounds[i * 4 + 1] = y;
+            bounds[i * 4 + 2] = width;
+            bounds[i * 4 + 3] = height;
+
+            if (isOccluded(x, y, width, height)) {
+                culled[i] = true;
+            } else if (boundedElement.isOpaque() && !isComposited(element) && width > 0 && height > 0) {
+                if (x <= 0 && y <= 0 && x + width >= canvasWidth && y + height >= canvasHeight) {
+                    return i;
+                }
+                addOccluder(x, y, width, height);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if an element is drawn partly transparent or with an effect, which
+     * keeps it from hiding the elements below it.
+     */
+    private static boolean isComposited(Element element) {
+        if (!(element instanceof AbstractElement)) {
+            return false;
+        }
+        AbstractElement abstractElement = (AbstractElement) element;
+        return abstractElement.getOpacity() < 1 || abstractElement.getEffect() != null;
+    }
+
+    private boolean isOccluded(int x, int y, int width, int height) {
+        for (int i = 0; i < occluderCount * 4; i += 4) {
+            if (x >= occluders[i] && y >= occluders[i + 1]
+                    && x + width <= occluders[i] + occluders[i + 2]
+                    && y + height <= occluders[i + 1] + occluders[i + 3]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addOccluder(int x, int y, int width, int height) {
+        int slot = occluderCount;
+        if (slot == MAX_OCCLUDERS) {
+            // Replace the smallest occluder if the new one is larger
+            slot = 0;
+            for (int i = 1; i < MAX_OCCLUDERS; i++) {
+                if (getOccluderArea(i) < getOccluderArea(slot)) {
+                    slot = i;
+                }
+            }
+            if (getOccluderArea(slot) >= (long) width * height) {
+                return;
+            }
+        } else {
+            occluderCount++;
+        }
+        occluders[slot * 4] = x;
+        occluders[slot * 4 + 1] = y;
+        occluders[slot * 4 + 2] = width;
+        occluders[slot * 4 + 3] = height;
+    }
+
+    private long getOccluderArea(int slot) {
+        return (long) occluders[slot * 4 + 2] * occluders[slot * 4 + 3];
+    }
+
+    /**
+     * Reorders the draw list so that elements with the same type and state are
+     * drawn next to each other wherever that cannot change the result.
+     * <p>
+     * The batch key of an element is its type ID in the upper half of a long and
+     * its full state key in the lower half. Those keys are ranked, and each entry of
+     * {@code sortKeys} holds the rank of the batch key in its upper half and the
+     * element index in its lower half, which keeps the sort stable.
+     * </p>
+     *
+     * @param drawCount The number of entries in the draw list.
+     */
+    private void sortBatches(int drawCount) {
+        for (int i = 0; i < drawCount; i++) {
+            Element element = frameElements[order[i]];
+            batchKeys[i] = (long) TYPE_IDS.get(element.getClass()) << 32 | (element.getStateKey() & 0xFFFFFFFFL);
+        }
+        int distinctCount = rankBatchKeys(drawCount);
+        for (int i = 0; i < drawCount; i++) {
+            long rank = Arrays.binarySearch(distinctBatchKeys, 0, distinctCount, batchKeys[i]);
+            sortKeys[i] = rank << 32 | order[i];
+        }
+
+        int start = 0;
+        while (start < drawCount) {
+            int end = start + 1;
+            if (frameGroups[order[start]] != null) {
+                // Static groups are always drawn on their own
+            } else if (unordered) {
+                while (end < drawCount && frameGroups[order[end]] == null) {
+                    end++;
+                }
+            } else if (bounded[order[start]]) {
+                while (end < drawCount && end - start < MAX_SEGMENT && bounded[order[end]]
+                        && !overlapsSegment(start, end)) {
+                    end++;
+                }
+            }
+            Arrays.sort(sortKeys, start, end);
+            start = end;
+        }
+
+        for (int i = 0; i < drawCount; i++) {
+            order[i] = (int) sortKeys[i];
+        }
+    }
+
+    /**
+     * Collects the distinct batch keys of this frame in ascending order.
+     *
+     * @param drawCount The number of entries in the draw list.
+     * @return The number of distinct batch keys.
+     */
+    private int rankBatchKeys(int drawCount) {
+        System.arraycopy(batchKeys, 0, distinctBatchKeys, 0, drawCount);
+        Arrays.sort(distinctBatchKeys, 0, drawCount);
+        int distinctCount = 0;
+        for (int i = 0; i < drawCount; i++) {
+            if (distinctCount == 0 || distinctBatchKeys[distinctCount - 1] != distinctBatchKeys[i]) {
+                distinctBatchKeys[distinctCount++] = distinctBatchKeys[i];
+            }
+        }
+        return distinctCount;
+    }
+
+    /**
+     * Checks if the element at position {@code end} of the draw list overlaps any
+     * element in positions {@code start} to {@code end - 1}.
+     */
+    private boolean overlapsSegment(int start, int end) {
+        int candidate = order[end] * 4;
+        for (int i = start; i < end; i++) {
+            int other = order[i] * 4;
+            if (bounds[candidate] < bounds[other] + bounds[other + 2]
+                    && bounds[other] < bounds[candidate] + bounds[candidate + 2]
+                    && bounds[candidate + 1] < bounds[other + 1] + bounds[other + 3]
+                    && bounds[other + 1] < bounds[candidate + 1] + bounds[candidate + 3]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
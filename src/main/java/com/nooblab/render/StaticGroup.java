@@ -0,0 +1,185 @@
+package com.nooblab.render;
+
+import java.util.Arrays;
+
+import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.element.Element;
+
+/**
+ * A set of elements that rarely change and are drawn from a recorded {@link DisplayList}.
+ * <p>
+ * The members are drawn together at the position of the first member in the element
+ * list. Their drawing calls are recorded once and replayed every frame, or, when
+ * {@linkplain #setRasterized rasterized}, drawn once into a cached offscreen layer of
+ * the canvas size. The recording is redone only when a member is modified, added to
+ * or removed from the element list.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class StaticGroup {
+
+    private final String layerId;
+    private final DisplayList displayList;
+    private volatile boolean rasterized;
+
+    private Element[] present;
+    private int presentCount;
+    private Element[] recorded;
+    private int[] recordedRevisions;
+    private int recordedCount;
+    private boolean recordingValid;
+    private boolean layerValid;
+    private int layerWidth;
+    private int layerHeight;
+
+    /**
+     * Creates an empty static group.
+     *
+     * @param id A unique identifier used for the cached layer of this group.
+     */
+    public StaticGroup(String id) {
+        this.layerId = id + ":static";
+        this.displayList = new DisplayList();
+        this.rasterized = true;
+        this.present = new Element[8];
+        this.recorded = new Element[8];
+        this.recordedRevisions = new int[8];
+    }
+
+    /**
+     * Sets whether the recording is drawn into a cached offscreen layer.
+     * <p>
+     * A rasterized group costs a single image draw per frame, but keeps an image of
+     * the canvas size in memory.
+     * </p>
+     *
+     * @param rasterized {@code true} to draw the group from a cached layer.
+     */
+    public void setRasterized(boolean rasterized) {
+        this.rasterized = rasterized;
+    }
+
+    /**
+     * Checks if the recording is drawn into a cached offscreen layer.
+     *
+     * @return {@code true} if the group is drawn from a cached layer.
+     */
+    public boolean isRasterized() {
+        return rasterized;
+    }
+
+    /**
+     * Gets the identifier of the cached layer of this group.
+     *
+     * @return The layer identifier.
+     */
+    public String getLayerId() {
+        return layerId;
+    }
+
+    /**
+     * Forgets the members found in the previous frame.
+     */
+    void beginFrame() {
+        Arrays.fill(present, 0, presentCount, null);
+        presentCount = 0;
+    }
+
+    /**
+     * Adds a member found in the element list of the current frame.
+     *
+     * @param element The member element.
+     * @return {@code true} if this is the first member found in this frame.
+     */
+    boolean addPresent(Element element) {
+        if (presentCount == present.length) {
+            present = Arrays.copyOf(present, presentCount * 2);
+        }
+        present[presentCount++] = element;
+        return presentCount == 1;
+    }
+
+    /**
+     * Draws the group, recording it again first if any member has changed.
+     *
+     * @param adapter  The graphics adapter to draw on.
+     * @param recorder A recorder that forwards to the same adapter.
+     * @return {@code true} if the group had to be recorded again.
+     */
+    boolean draw(GraphicsAdapter adapter, DisplayListRecorder recorder) {
+        boolean changed = !recordingValid || !isUpToDate();
+        if (changed) {
+            record(recorder);
+        }
+
+        if (!rasterized) {
+            displayList.replay(adapter);
+            return changed;
+        }
+
+        int width = adapter.getCanvasWidth();
+        int height = adapter.getCanvasHeight();
+        if (changed || !layerValid || width != layerWidth || height != layerHeight || !adapter.hasLayer(layerId)) {
+            adapter.beginLayer(layerId, width, height);
+            displayList.replay(adapter);
+            adapter.endLayer();
+            layerWidth = width;
+            layerHeight = height;
+            layerValid = true;
+        }
+        adapter.drawLayer(layerId, 0, 0, width, height);
+        return changed;
+    }
+
+    /**
+     * Drops the recording and the cached layer of this group.
+     *
+     * @param adapter The graphics adapter holding the cached layer.
+     */
+    void dispose(GraphicsAdapter adapter) {
+        if (layerValid) {
+            adapter.purgeLayer(layerId);
+        }
+        displayList.clear();
+        Arrays.fill(recorded, 0, recordedCount, null);
+        recordedCount = 0;
+        recordingValid = false;
+        layerValid = false;
+    }
+
+    /**
+     * Checks if the recording still matches the members found in this frame.
+     */
+    private boolean isUpToDate() {
+        if (presentCount != recordedCount) {
+            return false;
+        }
+        for (int i = 0; i < presentCount; i++) {
+            if (present[i] != recorded[i] || present[i].getRevision() != recordedRevisions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void record(DisplayListRecorder recorder) {
+        if (recorded.length < presentCount) {
+            recorded = new Element[present.length];
+            recordedRevisions = new int[present.length];
+        }
+
+        Arrays.fill(recorded, 0, recordedCount, null);
+        displayList.clear();
+        recorder.setDisplayList(displayList);
+        for (int i = 0; i < presentCount; i++) {
+            Element element = present[i];
+            // Read the revision first so that a concurrent change triggers another recording
+            recordedRevisions[i] = element.getRevision();
+            recorded[i] = element;
+            element.draw(recorder);
+        }
+        recordedCount = presentCount;
+        recordingValid = true;
+    }
+}
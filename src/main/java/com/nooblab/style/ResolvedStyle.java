@@ -0,0 +1,159 @@
+package com.nooblab.style;
+
+import com.nooblab.text.FontStyle;
+import com.nooblab.text.FontWeight;
+import com.nooblab.text.TextAlign;
+import com.nooblab.util.CSSColor;
+import com.nooblab.util.CSSPaint;
+
+/**
+ * An immutable, pre-resolved form of a {@link Style}.
+ * <p>
+ * All values are converted once, when the style is resolved: the color to a
+ * packed ARGB value or a {@link CSSPaint}, the font size to pixels and keywords
+ * to their enums. Applying a resolved style does no string processing at all, which makes it suitable for
+ * styles that are applied on every frame.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public final class ResolvedStyle {
+
+    /**
+     * A resolved style with no properties set.
+     */
+    public static final ResolvedStyle EMPTY = new ResolvedStyle(false, 0, null, null, null, -1, null, null);
+
+    private final boolean hasColor;
+    private final int color;
+    private final CSSPaint paint;
+    private final TextAlign textAlign;
+    private final String fontFamily;
+    private final int fontSize;
+    private final FontWeight fontWeight;
+    private final FontStyle fontStyle;
+
+    private ResolvedStyle(boolean hasColor, int color, CSSPaint paint, TextAlign textAlign, String fontFamily,
+            int fontSize, FontWeight fontWeight, FontStyle fontStyle) {
+        this.hasColor = hasColor;
+        this.color = color;
+        this.paint = paint;
+        this.textAlign = textAlign;
+        this.fontFamily = fontFamily;
+        this.fontSize = fontSize;
+        this.fontWeight = fontWeight;
+        this.fontStyle = fontStyle;
+    }
+
+    /**
+     * Resolves the given style.
+     * <p>
+     * Unknown text alignment, font weight and font style keywords are ignored, as
+     * if the property was not set.
+     * </p>
+     *
+     * @param style The style to resolve.
+     * @return The resolved style.
+     * @throws NullPointerException     if {@code style} is {@code null}.
+     * @throws NumberFormatException    if the font size is not a valid number.
+     * @throws IllegalArgumentException if the color or paint is malformed.
+     */
+    public static ResolvedStyle of(Style style) {
+        if (style == null) {
+            throw new NullPointerException("Style must not be null.");
+        }
+
+        CSSPaint paint = CSSPaint.isPaint(style.getColor()) ? CSSPaint.parse(style.getColor()) : null;
+        boolean hasColor = style.getColor() != null && paint == null;
+        return new ResolvedStyle(
+                hasColor,
+                hasColor ? CSSColor.toARGB(style.getColor()) : 0,
+                paint,
+                TextAlign.fromValue(style.getTextAlign()),
+                style.getFontFamily(),
+                style.getFontSize() != null ? StyleApplier.parseFontSize(style.getFontSize()) : -1,
+                style.getFontWeight() != null ? FontWeight.fromValue(style.getFontWeight()) : null,
+                style.getFontStyle() != null ? FontStyle.fromValue(style.getFontStyle()) : null);
+    }
+
+    /**
+     * Checks if the color is set.
+     *
+     * @return {@code true} if the style sets a color.
+     */
+    public boolean hasColor() {
+        return hasColor;
+    }
+
+    /**
+     * Gets the text color.
+     *
+     * @return The color as a packed ARGB value, only meaningful if {@link #hasColor()} is {@code true}.
+     */
+    public int getColor() {
+        return color;
+    }
+
+    /**
+     * Gets the gradient or image pattern the text is filled with.
+     *
+     * @return The paint, or {@code null} if the style sets a plain color or no color at all.
+     */
+    public CSSPaint getPaint() {
+        return paint;
+    }
+
+    /**
+     * Gets the text alignment.
+     *
+     * @return The text alignment, or {@code null} if not set.
+     */
+    public TextAlign getTextAlign() {
+        return textAlign;
+    }
+
+    /**
+     * Gets the font family.
+     *
+     * @return The font family, or {@code null} if not set.
+     */
+    public String getFontFamily() {
+        return fontFamily;
+    }
+
+    /**
+     * Checks if the font size is set.
+     *
+     * @return {@code true} if the style sets a font size.
+     */
+    public boolean hasFontSize() {
+        return fontSize >= 0;
+    }
+
+    /**
+     * Gets the font size in pixels.
+     *
+     * @return The font size, only meaningful if {@link #hasFontSize()} is {@code true}.
+     */
+    public int getFontSize() {
+        return fontSize;
+    }
+
+    /**
+     * Gets the font weight.
+     *
+     * @return The font weight, or {@code null} if not set.
+     */
+    public FontWeight getFontWeight() {
+        return fontWeight;
+    }
+
+    /**
+     * Gets the font style.
+     *
+     * @return The font style, or {@code null} if not set.
+     */
+    public FontStyle getFontStyle() {
+        return fontStyle;
+    }
+}
@@ -1,6 +1,7 @@
 package com.nooblab.style;
 
 import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.adapter.GraphicsState;
 import com.nooblab.text.FontStyle;
 import com.nooblab.text.FontWeight;
 import com.nooblab.text.TextAlign;
@@ -16,6 +17,11 @@ import com.nooblab.text.TextAlign;
  */
 public final class StyleApplier {
 
+    /**
+     * Graphics state holding the default font attributes, never modified.
+     */
+    private static final GraphicsState DEFAULTS = new GraphicsState();
+
     /**
      * Private constructor to prevent instantiation.
      */
@@ -49,7 +55,7 @@ public final class StyleApplier {
             adapter.setFontFamily(style.getFontFamily());
         }
         if (style.getFontSize() != null) {
-            adapter.setFontSize(getFontSize(style.getFontSize()));
+            adapter.setFontSize(parseFontSize(style.getFontSize()));
         }
         if (style.getFontWeight() != null) {
             adapter.setFontWeight(FontWeight.fromValue(style.getFontWeight()));
@@ -59,6 +65,62 @@ public final class StyleApplier {
         }
     }
 
+    /**
+     * Applies the given {@link ResolvedStyle} to the specified {@link GraphicsAdapter}.
+     * <p>
+     * Unlike {@link #applyStyle(GraphicsAdapter, Style)}, this method does not parse
+     * anything, so it is cheap enough to be called on every frame.
+     * </p>
+     *
+     * @param adapter The graphics adapter to which the style will be applied.
+     * @param style   The resolved style containing the settings to be applied.
+     * @throws NullPointerException if either {@code adapter} or {@code style} is {@code null}.
+     */
+    public static void applyStyle(GraphicsAdapter adapter, ResolvedStyle style) {
+        if (adapter == null || style == null) {
+            throw new NullPointerException("GraphicsAdapter and Style must not be null.");
+        }
+
+        if (style.hasColor()) {
+            adapter.setFill(style.getColor());
+        } else if (style.getPaint() != null) {
+            adapter.setFillPaint(style.getPaint());
+        }
+        if (style.getTextAlign() != null) {
+            adapter.setTextAlign(style.getTextAlign());
+        }
+        if (style.getFontFamily() != null) {
+            adapter.setFontFamily(style.getFontFamily());
+        }
+        if (style.hasFontSize()) {
+            adapter.setFontSize(style.getFontSize());
+        }
+        if (style.getFontWeight() != null) {
+            adapter.setFontWeight(style.getFontWeight());
+        }
+        if (style.getFontStyle() != null) {
+            adapter.setFontStyle(style.getFontStyle());
+        }
+    }
+
+    /**
+     * Resolves the font described by the given {@link ResolvedStyle} ahead of time.
+     * <p>
+     * Font attributes missing from the style take their default values from
+     * {@link GraphicsState}.
+     * </p>
+     *
+     * @param adapter The graphics adapter that will draw text with the style.
+     * @param style   The style whose font should be resolved.
+     */
+    public static void preloadFont(GraphicsAdapter adapter, ResolvedStyle style) {
+        adapter.preloadFont(
+                style.getFontFamily() != null ? style.getFontFamily() : DEFAULTS.getFontFamily(),
+                style.hasFontSize() ? style.getFontSize() : DEFAULTS.getFontSize(),
+                style.getFontWeight() != null ? style.getFontWeight() : DEFAULTS.getFontWeight(),
+                style.getFontStyle() != null ? style.getFontStyle() : DEFAULTS.getFontStyle());
+    }
+
     /**
      * Parses a font size value from a CSS-like string format.
      * <p>
@@ -71,7 +133,7 @@ public final class StyleApplier {
      * @return The parsed font size as an integer.
      * @throws NumberFormatException if the font size is not a valid number.
      */
-    private static int getFontSize(String fontSize) {
+    static int parseFontSize(String fontSize) {
         String trimmedSize = fontSize.trim().toLowerCase();
 
         if (trimmedSize.endsWith("px")) {
@@ -0,0 +1,85 @@
+package com.nooblab.style;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of resolved styles keyed by their style definition.
+ * <p>
+ * Programs often use the same handful of style definitions for many texts, or
+ * restyle a text with the same definition on every frame. Resolving such a
+ * definition through this cache parses it only once, and every text using it
+ * shares the same {@link ResolvedStyle}. Lookups of cached definitions do not
+ * allocate. The least recently used definitions are evicted once the cache is
+ * full.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public final class StyleCache {
+
+    /**
+     * Maximum number of cached style definitions.
+     */
+    static final int MAX_SIZE = 256;
+
+    private static final Map<String, ResolvedStyle> STYLES = new LinkedHashMap<String, ResolvedStyle>(MAX_SIZE, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ResolvedStyle> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private StyleCache() {
+        // Utility class; should not be instantiated.
+    }
+
+    /**
+     * Gets the resolved form of the given style definition, parsing it on first use.
+     *
+     * @param styleDefinition The string representation of the style, may be {@code null}.
+     * @return The resolved style, {@link ResolvedStyle#EMPTY} for a {@code null} definition.
+     * @throws NumberFormatException    if the font size is not a valid number.
+     * @throws IllegalArgumentException if the color is malformed.
+     */
+    public static ResolvedStyle resolve(String styleDefinition) {
+        if (styleDefinition == null) {
+            return ResolvedStyle.EMPTY;
+        }
+
+        synchronized (STYLES) {
+            ResolvedStyle style = STYLES.get(styleDefinition);
+            if (style == null) {
+                style = ResolvedStyle.of(StyleParser.parse(styleDefinition));
+                STYLES.put(styleDefinition, style);
+            }
+            return style;
+        }
+    }
+
+    /**
+     * Gets the number of cached style definitions.
+     *
+     * @return The number of cached style definitions.
+     */
+    static int size() {
+        synchronized (STYLES) {
+            return STYLES.size();
+        }
+    }
+
+    /**
+     * Removes all cached style definitions.
+     */
+    public static void clear() {
+        synchronized (STYLES) {
+            STYLES.clear();
+        }
+    }
+}
@@ -1,8 +1,5 @@
 package com.nooblab.style;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Utility class for parsing style definitions into {@link Style} objects.
  * <p>
@@ -14,8 +11,6 @@ import java.util.regex.Pattern;
  */
 public final class StyleParser {
 
-    private static final Pattern STYLE_PATTERN = Pattern.compile("([a-zA-Z0-9-]+)\\s*[:=]\\s*(\\\"[^\\\"]*\\\"|'[^']*'|[^;\n]*)");
-
     /**
      * Private constructor to prevent instantiation.
      */
@@ -28,66 +23,132 @@ public final class StyleParser {
      * <p>
      * The input format is expected to follow a CSS-like structure, where key-value
      * pairs define style attributes (e.g., "color: red; font-size: 14px;").
+     * The definition is read in a single pass; values may be quoted with single
+     * or double quotes, in which case they may contain semicolons.
+     * </p>
+     * <p>
+     * Every call returns a new {@link Style}. Use {@link StyleCache#resolve(String)}
+     * for definitions that are parsed repeatedly.
      * </p>
      *
      * @param styleDefinition The string representation of the style.
      * @return A {@link Style} object with parsed values.
      */
     public static Style parse(String styleDefinition) {
-        if (styleDefinition == null || styleDefinition.trim().isEmpty()) {
-            return new Style();
+        Style style = new Style();
+        if (styleDefinition == null) {
+            return style;
         }
 
-        Matcher matcher = STYLE_PATTERN.matcher(styleDefinition);
-        Style style = new Style();
+        String s = styleDefinition;
+        int n = s.length();
+        int i = 0;
+        while (i < n) {
+            char c = s.charAt(i);
+            if (!isKeyChar(c)) {
+                i++;
+                continue;
+            }
 
-        while (matcher.find()) {
-            String key = matcher.group(1).trim();
-            String value = removeQuotes(matcher.group(2).trim());
-
-            switch (key) {
-                case "color":
-                case "colour":
-                    style.setColor(value);
-                    break;
-                case "font-size":
-                    style.setFontSize(value);
-                    break;
-                case "font-weight":
-                    style.setFontWeight(value);
-                    break;
-                case "font-family":
-                    style.setFontFamily(value);
-                    break;
-                case "font-style":
-                    style.setFontStyle(value);
-                    break;
-                case "text-align":
-                    style.setTextAlign(value);
-                    break;
-                default:
-                    break;
+            int keyStart = i;
+            while (i < n && isKeyChar(s.charAt(i))) {
+                i++;
             }
+            int keyEnd = i;
+
+            i = skipWhitespace(s, i);
+            if (i == n || (s.charAt(i) != ':' && s.charAt(i) != '=')) {
+                // Not a declaration, look for the next key from here.
+                continue;
+            }
+            i = skipWhitespace(s, i + 1);
+
+            String value;
+            int close = i < n && isQuote(s.charAt(i)) ? s.indexOf(s.charAt(i), i + 1) : -1;
+            if (close >= 0) {
+                value = s.substring(i + 1, close);
+                i = close + 1;
+            } else {
+                int valueStart = i;
+                i = endOfDeclaration(s, i);
+                value = removeQuotes(s, valueStart, i);
+            }
+            i = endOfDeclaration(s, i);
+
+            setProperty(style, s, keyStart, keyEnd, value);
         }
 
         return style;
     }
 
     /**
-     * Helper to remove surrounding quotes from a string.
-     * 
-     * @param value The string to remove quotes from.
-     * @return The string without surrounding quotes.
+     * Sets the property named by the given part of the style definition.
+     * Unknown properties are ignored.
+     *
+     * @param style    The style to update.
+     * @param s        The style definition.
+     * @param keyStart The index of the first character of the property name.
+     * @param keyEnd   The index after the last character of the property name.
+     * @param value    The property value.
      */
-    private static String removeQuotes(String value) {
-        if (value == null || value.isEmpty()) {
-            return value;
+    private static void setProperty(Style style, String s, int keyStart, int keyEnd, String value) {
+        if (keyEquals(s, keyStart, keyEnd, "color") || keyEquals(s, keyStart, keyEnd, "colour")) {
+            style.setColor(value);
+        } else if (keyEquals(s, keyStart, keyEnd, "font-size")) {
+            style.setFontSize(value);
+        } else if (keyEquals(s, keyStart, keyEnd, "font-weight")) {
+            style.setFontWeight(value);
+        } else if (keyEquals(s, keyStart, keyEnd, "font-family")) {
+            style.setFontFamily(value);
+        } else if (keyEquals(s, keyStart, keyEnd, "font-style")) {
+            style.setFontStyle(value);
+        } else if (keyEquals(s, keyStart, keyEnd, "text-align")) {
+            style.setTextAlign(value);
         }
+    }
 
-        if ((value.startsWith("\"") && value.endsWith("\"")) || (value.startsWith("'") && value.endsWith("'"))) {
-            return value.substring(1, value.length() - 1);
+    private static boolean keyEquals(String s, int start, int end, String key) {
+        return end - start == key.length() && s.regionMatches(start, key, 0, key.length());
+    }
+
+    private static boolean isKeyChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-';
+    }
+
+    private static boolean isQuote(char c) {
+        return c == '"' || c == '\'';
+    }
+
+    private static int skipWhitespace(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int endOfDeclaration(String s, int i) {
+        while (i < s.length() && s.charAt(i) != ';' && s.charAt(i) != '\n') {
+            i++;
         }
+        return i;
+    }
 
-        return value;
+    /**
+     * Helper to trim a value and remove its surrounding quotes.
+     *
+     * @param s     The style definition.
+     * @param start The index of the first character of the value.
+     * @param end   The index after the last character of the value.
+     * @return The value without surrounding whitespace and quotes.
+     */
+    private static String removeQuotes(String s, int start, int end) {
+        while (end > start && Character.isWhitespace(s.charAt(end - 1))) {
+            end--;
+        }
+        if (end - start >= 2 && isQuote(s.charAt(start)) && s.charAt(end - 1) == s.charAt(start)) {
+            start++;
+            end--;
+        }
+        return s.substring(start, end);
     }
 }
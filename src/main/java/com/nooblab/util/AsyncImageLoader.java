@@ -0,0 +1,200 @@
+package com.nooblab.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Loads images from the web on a bounded pool of background threads.
+ * <p>
+ * Raster images are returned as downloaded. SVG images, recognised by their
+ * {@code .svg} extension, are converted to PNG images of the requested size (see
+ * {@link SVGImageLoader}).
+ * </p>
+ * <p>
+ * Every URL is downloaded only once while its result is remembered: requesting an
+ * image that is already loaded or still loading returns the same future, and SVG
+ * images requested at several sizes are downloaded and parsed once and converted
+ * once per size. Failed loads complete with {@code null} and are not remembered, so they
+ * are tried again the next time they are requested.
+ * </p>
+ * <p>
+ * Images from the web are also kept in the {@linkplain DiskImageCache#getDefault()
+ * disk cache}, both as downloaded and as converted, so later runs of the program
+ * load them without the network.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public final class AsyncImageLoader {
+
+    /**
+     * Maximum number of downloads and conversions running at the same time.
+     */
+    private static final int MAX_THREADS = 8;
+
+    /**
+     * Maximum number of remembered downloads, and of remembered conversions. The
+     * least recently requested ones are forgotten first.
+     */
+    private static final int MAX_SIZE = 256;
+
+    private static final Map<String, CompletableFuture<byte[]>> downloads = createResultMap();
+    private static final Map<String, CompletableFuture<byte[]>> images = createResultMap();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(MAX_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "nooblab-image-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private AsyncImageLoader() {
+        // Utility class; should not be instantiated.
+    }
+
+    /**
+     * Loads an image in the background.
+     *
+     * @param url    The URL of the image.
+     * @param width  The width to convert SVG images to, ignored for raster images.
+     * @param height The height to convert SVG images to, ignored for raster images.
+     * @return A future completed with the raster image data, or with {@code null}
+     *         if the image could not be loaded.
+     */
+    public static CompletableFuture<byte[]> load(String url, int width, int height) {
+        if (!isSVG(url)) {
+            return download(url);
+        }
+
+        String key = url + "@" + width + "x" + height;
+        synchronized (images) {
+            CompletableFuture<byte[]> image = images.get(key);
+            if (image == null) {
+                CompletableFuture<byte[]> result = new CompletableFuture<byte[]>();
+                images.put(key, result);
+                executor.execute(() -> {
+                    // A converted image cached by an earlier run does not need the SVG at all
+                    byte[] cached = isCacheable(url) ? DiskImageCache.getDefault().read(url, width, height) : null;
+                    if (cached != null) {
+                        complete(images, key, result, cached);
+                    } else {
+                        download(url).thenAcceptAsync(svg -> complete(images, key, result,
+                                quietly(() -> transcode(url, svg, width, height))), executor);
+                    }
+                });
+                image = result;
+            }
+            return image;
+        }
+    }
+
+    /**
+     * Starts downloading the given images in the background, so that loading them
+     * later only waits for the downloads that have not finished yet.
+     *
+     * @param urls The URLs of the images.
+     */
+    public static void preload(String... urls) {
+        for (String url : urls) {
+            download(url);
+        }
+    }
+
+    /**
+     * Checks if the given URL refers to an SVG image.
+     *
+     * @param url The URL of the image.
+     * @return {@code true} if the URL ends with the {@code .svg} extension.
+     */
+    public static boolean isSVG(String url) {
+        return url.endsWith(".svg");
+    }
+
+    /**
+     * Downloads the raw data of the given URL, unless it is already downloaded or
+     * being downloaded.
+     */
+    private static CompletableFuture<byte[]> download(String url) {
+        synchronized (downloads) {
+            CompletableFuture<byte[]> download = downloads.get(url);
+            if (download == null) {
+                CompletableFuture<byte[]> result = new CompletableFuture<byte[]>();
+                downloads.put(url, result);
+                executor.execute(() -> complete(downloads, url, result, quietly(() -> fetch(url))));
+                download = result;
+            }
+            return download;
+        }
+    }
+
+    /**
+     * Downloads an image, or reads it from the disk cache if it was downloaded by an
+     * earlier run.
+     */
+    private static byte[] fetch(String url) {
+        if (!isCacheable(url)) {
+            return ImageLoader.load(url, 0, 0);
+        }
+        DiskImageCache diskCache = DiskImageCache.getDefault();
+        byte[] data = diskCache.read(url);
+        if (data == null) {
+            data = ImageLoader.load(url, 0, 0);
+            diskCache.write(url, data);
+        }
+        return data;
+    }
+
+    /**
+     * Converts an SVG image and keeps the result in the disk cache.
+     */
+    private static byte[] transcode(String url, byte[] svg, int width, int height) {
+        byte[] data = SVGImageLoader.transcode(url, svg, width, height);
+        if (isCacheable(url)) {
+            DiskImageCache.getDefault().write(url, width, height, data);
+        }
+        return data;
+    }
+
+    /**
+     * Checks if images from the given URL are kept in the disk cache. Local files
+     * are read directly.
+     */
+    private static boolean isCacheable(String url) {
+        return url.startsWith("http://") || url.startsWith("https://");
+    }
+
+    /**
+     * Runs a loading step, treating unexpected failures like any other failed load.
+     */
+    private static byte[] quietly(Supplier<byte[]> step) {
+        try {
+            return step.get();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, CompletableFuture<byte[]>> createResultMap() {
+        return new LinkedHashMap<String, CompletableFuture<byte[]>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<byte[]>> eldest) {
+                return size() > MAX_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Completes a pending result, forgetting it first if the load failed.
+     */
+    private static void complete(Map<String, CompletableFuture<byte[]>> results, String key,
+            CompletableFuture<byte[]> result, byte[] data) {
+        if (data == null) {
+            synchronized (results) {
+                results.remove(key, result);
+            }
+        }
+        result.complete(data);
+    }
+}
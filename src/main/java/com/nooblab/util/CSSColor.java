@@ -1,18 +1,19 @@
 package com.nooblab.util;
 
-import java.awt.Color;
-
 /**
  * Utility class for converting CSS color representations into ARGB integer values.
  * <p>
  * This class supports multiple CSS color formats, including named colors, hexadecimal,
  * RGB, RGBA, HSL, and HSLA. The converted ARGB values can be used for rendering or further processing.
  * </p>
+ * <p>
+ * Colors are parsed in a single pass over the characters without allocating, and
+ * the results for recently parsed strings are remembered, so converting the same
+ * color string repeatedly is cheap.
+ * </p>
  *
  * <p><b>Future Improvements:</b>
  * <ul>
- *   <li>Improve error handling for invalid or malformed color strings.</li>
- *   <li>Optimize parsing efficiency, especially for large-scale color processing.</li>
  *   <li>Extend support for additional CSS color formats (e.g., HWB).</li>
  * </ul>
  * </p>
@@ -20,97 +21,390 @@ import java.awt.Color;
  * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
  */
 public class CSSColor {
-    
+
+    /**
+     * Opaque black as a packed ARGB value.
+     */
+    public static final int BLACK = 0xFF000000;
+
+    /**
+     * Number of remembered conversions, must be a power of two.
+     */
+    private static final int MEMO_SIZE = 256;
+
+    /**
+     * Recently converted color strings, indexed by hash code. A new conversion
+     * simply replaces the entry in its slot, which keeps the memory use bounded.
+     */
+    private static final MemoEntry[] MEMO = new MemoEntry[MEMO_SIZE];
+
+    private static final int RGB = 0;
+    private static final int HSL = 1;
+
     /**
      * Converts a CSS color string to an ARGB integer value.
      * <p>
      * Supports multiple CSS color formats, including:
      * <ul>
      *   <li>Named colors (e.g., "red", "blue")</li>
-     *   <li>Hexadecimal (e.g., "#FF0000")</li>
-     *   <li>RGB (e.g., "rgb(255, 0, 0)")</li>
-     *   <li>RGBA (e.g., "rgba(255, 0, 0, 0.5)")</li>
-     *   <li>HSL (e.g., "hsl(0, 100%, 50%)")</li>
+     *   <li>Hexadecimal (e.g., "#F00", "#F008", "#FF0000", "#FF000080")</li>
+     *   <li>RGB (e.g., "rgb(255, 0, 0)", "rgb(100% 0% 0%)")</li>
+     *   <li>RGBA (e.g., "rgba(255, 0, 0, 0.5)", "rgba(255 0 0 / 50%)")</li>
+     *   <li>HSL (e.g., "hsl(0, 100%, 50%)", "hsl(0deg 100% 50%)")</li>
      *   <li>HSLA (e.g., "hsla(0, 100%, 50%, 0.5)")</li>
      * </ul>
+     * Unknown color names are converted to transparent black.
      * </p>
      *
      * @param color The CSS color string.
      * @return The ARGB integer representation of the color.
+     * @throws IllegalArgumentException if the color string is malformed.
      */
     public static int toARGB(String color) {
-        color = color.trim();
-        if (color.startsWith("#")) {
-            return hexToARGB(color);
-        } else if (color.startsWith("rgb(")) {
-            return rgbToARGB(color);
-        } else if (color.startsWith("rgba(")) {
-            return rgbaToARGB(color);
-        } else if (color.startsWith("hsl(")) {
-            return hslToARGB(color);
-        } else if (color.startsWith("hsla(")) {
-            return hslaToARGB(color);
-        } else {
-            return namedToARGB(color);
-        }
-    }
-
-    private static int hexToARGB(String color) {
-        return Integer.parseInt(color.substring(1), 16);
-    }
-
-    private static int rgbToARGB(String color) {
-        String[] values = color.substring(4, color.length() - 1).split(",");
-        int r = Integer.parseInt(values[0].trim());
-        int g = Integer.parseInt(values[1].trim());
-        int b = Integer.parseInt(values[2].trim());
-        return 0xFF000000 | (r << 16) | (g << 8) | b;
-    }
-
-    private static int rgbaToARGB(String color) {
-        String[] values = color.substring(5, color.length() - 1).split(",");
-        int r = Integer.parseInt(values[0].trim());
-        int g = Integer.parseInt(values[1].trim());
-        int b = Integer.parseInt(values[2].trim());
-        int a = (int) (Float.parseFloat(values[3].trim()) * 255);
-        return (a << 24) | (r << 16) | (g << 8) | b;
-    }
-
-    private static int hslToARGB(String color) {
-        String[] values = color.substring(4, color.length() - 1).split(",");
-        float h = Float.parseFloat(values[0].trim());
-        float s = Float.parseFloat(values[1].trim()) / 100.0f;
-        float l = Float.parseFloat(values[2].trim()) / 100.0f;
-        
-        Color awtColor = Color.getHSBColor(h / 360.0f, s, l);
-        int red = awtColor.getRed();
-        int green = awtColor.getGreen();
-        int blue = awtColor.getBlue();
-
-        return 0xFF000000 | (red << 16) | (green << 8) | blue;
-    }
-
-    private static int hslaToARGB(String color) {
-        String[] values = color.substring(5, color.length() - 1).split(",");
-        float h = Float.parseFloat(values[0].trim());
-        float s = Float.parseFloat(values[1].trim()) / 100.0f;
-        float l = Float.parseFloat(values[2].trim()) / 100.0f;
-        float a = Float.parseFloat(values[3].trim());
-
-        Color awtColor = Color.getHSBColor(h / 360.0f, s, l);
-        int red = awtColor.getRed();
-        int green = awtColor.getGreen();
-        int blue = awtColor.getBlue();
-        int alpha = (int) (a * 255);
-
-        return (alpha << 24) | (red << 16) | (green << 8) | blue;
-    }
-
-    private static int namedToARGB(String color) {
-        CSSNamedColor namedColor = CSSNamedColor.fromName(color);
-        if (namedColor == null) {
-            return 0;
-        }
-        return namedColor.getValue();
+        int slot = color.hashCode() & (MEMO_SIZE - 1);
+        MemoEntry entry = MEMO[slot];
+        if (entry != null && entry.color.equals(color)) {
+            return entry.argb;
+        }
+
+        int argb = toARGB(color, 0, color.length());
+        MEMO[slot] = new MemoEntry(color, argb);
+        return argb;
+    }
+
+    /**
+     * Converts a CSS color given as a range of characters to an ARGB integer value.
+     * <p>
+     * This method never allocates unless the color is malformed. See
+     * {@link #toARGB(String)} for the supported formats.
+     * </p>
+     *
+     * @param color The characters containing the color.
+     * @param start The index of the first character of the color.
+     * @param end   The index after the last character of the color.
+     * @return The ARGB integer representation of the color.
+     * @throws IllegalArgumentException if the color is malformed.
+     */
+    public static int toARGB(CharSequence color, int start, int end) {
+        while (start < end && Character.isWhitespace(color.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(color.charAt(end - 1))) {
+            end--;
+        }
+
+        if (start < end && color.charAt(start) == '#') {
+            return parseHex(color, start + 1, end);
+        }
+
+        int open = start;
+        while (open < end && color.charAt(open) != '(') {
+            open++;
+        }
+        if (open == end) {
+            CSSNamedColor namedColor = CSSNamedColor.fromName(color, start, end);
+            return namedColor == null ? 0 : namedColor.getValue();
+        }
+        if (color.charAt(end - 1) != ')') {
+            throw malformed(color, start, end);
+        }
+
+        if (regionMatches(color, start, open, "rgb") || regionMatches(color, start, open, "rgba")) {
+            return parseFunction(color, start, end, open + 1, end - 1, RGB);
+        } else if (regionMatches(color, start, open, "hsl") || regionMatches(color, start, open, "hsla")) {
+            return parseFunction(color, start, end, open + 1, end - 1, HSL);
+        }
+        throw malformed(color, start, end);
+    }
+
+    /**
+     * Converts a CSS color string to an ARGB integer value, falling back to the
+     * given value if the string is {@code null} or malformed.
+     * <p>
+     * Elements resolve their colors once, when the color is set, so that nothing
+     * needs to be parsed while drawing. Unknown color names are not malformed:
+     * as with {@link #toARGB(String)} they convert to transparent black, not to
+     * the fallback.
+     * </p>
+     *
+     * @param color    The CSS color string, may be {@code null}.
+     * @param fallback The ARGB value to use if the color is {@code null} or malformed.
+     * @return The ARGB integer representation of the color.
+     */
+    public static int toARGB(String color, int fallback) {
+        if (color == null) {
+            return fallback;
+        }
+        try {
+            return toARGB(color);
+        } catch (RuntimeException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * Checks if a packed ARGB color is fully opaque.
+     *
+     * @param argb The ARGB color.
+     * @return {@code true} if the alpha channel of the color is at its maximum.
+     */
+    public static boolean isOpaque(int argb) {
+        return (argb >>> 24) == 0xFF;
+    }
+
+    /**
+     * Checks if a CSS color string resolves to a fully opaque color.
+     * <p>
+     * Malformed color strings are reported as not opaque.
+     * </p>
+     *
+     * @param color The CSS color string.
+     * @return {@code true} if the alpha channel of the color is at its maximum.
+     */
+    public static boolean isOpaque(String color) {
+        if (color == null) {
+            return false;
+        }
+        try {
+            return isOpaque(toARGB(color));
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static int parseHex(CharSequence color, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(color.charAt(i), 16);
+            if (digit < 0) {
+                throw malformed(color, start - 1, end);
+            }
+            value = value << 4 | digit;
+        }
+
+        switch (end - start) {
+            case 3:
+                return 0xFF000000 | expandNibbles(value << 4 | 0xF) >>> 8;
+            case 4:
+                value = expandNibbles(value);
+                return value << 24 | value >>> 8;
+            case 6:
+                return 0xFF000000 | value;
+            case 8:
+                return value << 24 | value >>> 8;
+            default:
+                throw malformed(color, start - 1, end);
+        }
+    }
+
+    /**
+     * Expands four 4-bit channels into four 8-bit channels, e.g. {@code 0xF0A8} into {@code 0xFF00AA88}.
+     */
+    private static int expandNibbles(int value) {
+        int result = 0;
+        for (int shift = 12; shift >= 0; shift -= 4) {
+            int nibble = value >> shift & 0xF;
+            result = result << 8 | nibble << 4 | nibble;
+        }
+        return result;
+    }
+
+    /**
+     * Parses the arguments of an {@code rgb()}, {@code rgba()}, {@code hsl()} or
+     * {@code hsla()} function.
+     * <p>
+     * Arguments may be separated by commas or by whitespace, with the alpha value
+     * optionally separated by a slash.
+     * </p>
+     */
+    private static int parseFunction(CharSequence color, int start, int end, int from, int to, int model) {
+        float first = 0;
+        float second = 0;
+        float third = 0;
+        float alpha = 1;
+        int count = 0;
+
+        int pos = skipWhitespace(color, from, to);
+        while (pos < to) {
+            int tokenEnd = pos;
+            while (tokenEnd < to && !isSeparator(color.charAt(tokenEnd))) {
+                tokenEnd++;
+            }
+            int numberEnd = findNumberEnd(color, pos, tokenEnd);
+            if (numberEnd == pos || count == 4) {
+                throw malformed(color, start, end);
+            }
+
+            float value = parseNumber(color, pos, numberEnd);
+            boolean percent = regionMatches(color, numberEnd, tokenEnd, "%");
+            if (numberEnd != tokenEnd && !percent
+                    && !(model == HSL && count == 0 && regionMatches(color, numberEnd, tokenEnd, "deg"))) {
+                throw malformed(color, start, end);
+            }
+
+            switch (count) {
+                case 0:
+                    first = model == RGB && percent ? value * 2.55f : value;
+                    break;
+                case 1:
+                    second = model == RGB && percent ? value * 2.55f : value;
+                    break;
+                case 2:
+                    third = model == RGB && percent ? value * 2.55f : value;
+                    break;
+                default:
+                    alpha = percent ? value / 100.0f : value;
+                    break;
+            }
+            count++;
+
+            pos = skipWhitespace(color, tokenEnd, to);
+            if (pos < to && (color.charAt(pos) == ',' || color.charAt(pos) == '/')) {
+                pos = skipWhitespace(color, pos + 1, to);
+                if (pos == to) {
+                    throw malformed(color, start, end);
+                }
+            }
+        }
+
+        if (count < 3) {
+            throw malformed(color, start, end);
+        }
+
+        int a = Math.round(clamp(alpha, 0.0f, 1.0f) * 255.0f);
+        if (model == HSL) {
+            return a << 24 | hslToRGB(first, clamp(second, 0.0f, 100.0f) / 100.0f,
+                    clamp(third, 0.0f, 100.0f) / 100.0f);
+        }
+        int r = Math.round(clamp(first, 0.0f, 255.0f));
+        int g = Math.round(clamp(second, 0.0f, 255.0f));
+        int b = Math.round(clamp(third, 0.0f, 255.0f));
+        return a << 24 | r << 16 | g << 8 | b;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ',' || c == '/' || Character.isWhitespace(c);
+    }
+
+    private static int skipWhitespace(CharSequence color, int pos, int end) {
+        while (pos < end && Character.isWhitespace(color.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Finds the end of a decimal number such as {@code -12}, {@code .5} or {@code 0.25}.
+     */
+    private static int findNumberEnd(CharSequence color, int pos, int end) {
+        int i = pos;
+        if (i < end && (color.charAt(i) == '-' || color.charAt(i) == '+')) {
+            i++;
+        }
+        int digits = 0;
+        while (i < end && isDigit(color.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < end && color.charAt(i) == '.') {
+            i++;
+            while (i < end && isDigit(color.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        return digits == 0 ? pos : i;
+    }
+
+    /**
+     * Parses a decimal number whose extent was found by {@link #findNumberEnd}.
+     */
+    private static float parseNumber(CharSequence color, int pos, int end) {
+        boolean negative = false;
+        char sign = color.charAt(pos);
+        if (sign == '-' || sign == '+') {
+            negative = sign == '-';
+            pos++;
+        }
+
+        float value = 0;
+        float scale = 0;
+        for (int i = pos; i < end; i++) {
+            char c = color.charAt(i);
+            if (c == '.') {
+                scale = 1;
+            } else {
+                value = value * 10 + (c - '0');
+                scale *= 10;
+            }
+        }
+        if (scale > 1) {
+            value /= scale;
+        }
+        return negative ? -value : value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static float clamp(float value, float min, float max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Checks if the given range equals a lowercase ASCII keyword, ignoring case.
+     */
+    private static boolean regionMatches(CharSequence color, int start, int end, String keyword) {
+        if (end - start != keyword.length()) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = color.charAt(start + i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static IllegalArgumentException malformed(CharSequence color, int start, int end) {
+        return new IllegalArgumentException("Invalid CSS color: " + color.subSequence(start, end));
+    }
+
+    /**
+     * Converts hue, saturation and lightness to a packed RGB value without alpha,
+     * using the algorithm from the CSS Color specification.
+     */
+    private static int hslToRGB(float h, float s, float l) {
+        float hue = (h % 360.0f + 360.0f) % 360.0f / 30.0f;
+        float a = s * Math.min(l, 1.0f - l);
+        int red = hslChannel(0, hue, l, a);
+        int green = hslChannel(8, hue, l, a);
+        int blue = hslChannel(4, hue, l, a);
+        return (red << 16) | (green << 8) | blue;
+    }
+
+    private static int hslChannel(int n, float hue, float l, float a) {
+        float k = (n + hue) % 12.0f;
+        float value = l - a * Math.max(-1.0f, Math.min(Math.min(k - 3.0f, 9.0f - k), 1.0f));
+        return Math.round(clamp(value, 0.0f, 1.0f) * 255.0f);
+    }
+
+    /**
+     * A remembered conversion. Entries are immutable, so they can be shared between
+     * threads without locking.
+     */
+    private static final class MemoEntry {
+        private final String color;
+        private final int argb;
+
+        private MemoEntry(String color, int argb) {
+            this.color = color;
+            this.argb = argb;
+        }
     }
 }
@@ -1,5 +1,7 @@
 package com.nooblab.util;
 
+import java.util.Arrays;
+
 /**
  * Represents standardized color keywords as defined in the
  * <a href="https://www.w3.org/TR/css-color-4/#color-keywords">CSS Color Module Level 4</a>.
@@ -197,6 +199,23 @@ public enum CSSNamedColor {
         return value;
     }
 
+    /**
+     * Number of slots in the lookup table, must be a power of two.
+     */
+    private static final int TABLE_SIZE = 2048;
+
+    /**
+     * Lookup table indexed by the hash of a color name. The hash seed is chosen
+     * when the class is loaded so that no two names share a slot, which makes
+     * every lookup a single probe followed by one name comparison.
+     */
+    private static final CSSNamedColor[] TABLE = new CSSNamedColor[TABLE_SIZE];
+
+    /**
+     * Seed of the collision-free hash function.
+     */
+    private static final int SEED = buildTable();
+
     /**
      * Finds a {@code CSSNamedColor} entry by its name.
      * <p>
@@ -204,15 +223,73 @@ public enum CSSNamedColor {
      * If no match is found, {@code null} is returned.
      * </p>
      *
-     * @param name The name of the color to look up.
+     * @param name The name of the color to look up, may be {@code null}.
      * @return The corresponding {@code CSSNamedColor} entry, or {@code null} if not found.
      */
     public static CSSNamedColor fromName(String name) {
-        for (CSSNamedColor color : values()) {
-            if (color.getName().equalsIgnoreCase(name)) {
-                return color;
+        if (name == null) {
+            return null;
+        }
+        return fromName(name, 0, name.length());
+    }
+
+    /**
+     * Finds a {@code CSSNamedColor} entry by a name given as a range of characters.
+     * <p>
+     * The match is case-insensitive and does not allocate.
+     * </p>
+     *
+     * @param name  The characters containing the name.
+     * @param start The index of the first character of the name.
+     * @param end   The index after the last character of the name.
+     * @return The corresponding {@code CSSNamedColor} entry, or {@code null} if not found.
+     */
+    public static CSSNamedColor fromName(CharSequence name, int start, int end) {
+        CSSNamedColor color = TABLE[hash(name, start, end, SEED) & (TABLE_SIZE - 1)];
+        if (color == null || color.name.length() != end - start) {
+            return null;
+        }
+        for (int i = 0; i < end - start; i++) {
+            if (toLowerCase(name.charAt(start + i)) != color.name.charAt(i)) {
+                return null;
+            }
+        }
+        return color;
+    }
+
+    /**
+     * Searches for a hash seed without collisions and fills the lookup table with it.
+     *
+     * @return The hash seed.
+     */
+    private static int buildTable() {
+        CSSNamedColor[] colors = values();
+        for (int seed = 0x811C9DC5;; seed++) {
+            Arrays.fill(TABLE, null);
+            boolean collision = false;
+            for (CSSNamedColor color : colors) {
+                int slot = hash(color.name, 0, color.name.length(), seed) & (TABLE_SIZE - 1);
+                if (TABLE[slot] != null) {
+                    collision = true;
+                    break;
+                }
+                TABLE[slot] = color;
             }
+            if (!collision) {
+                return seed;
+            }
+        }
+    }
+
+    private static int hash(CharSequence name, int start, int end, int seed) {
+        int hash = seed;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ toLowerCase(name.charAt(i))) * 0x01000193;
         }
-        return null;
+        return hash ^ (hash >>> 15);
+    }
+
+    private static char toLowerCase(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
     }
 }
@@ -0,0 +1,429 @@
+package com.nooblab.util;
+
+import java.util.Arrays;
+
+/**
+ * An immutable gradient or image pattern parsed from a CSS-like definition.
+ * <p>
+ * The following definitions are supported, where each colour stop is a CSS color
+ * (see {@link CSSColor}) optionally followed by a percentage position:
+ * <ul>
+ *   <li>Linear gradients (e.g., "linear-gradient(90deg, red, blue)",
+ *       "linear-gradient(to bottom right, #000 20%, white)")</li>
+ *   <li>Radial gradients (e.g., "radial-gradient(circle, white, rgba(0, 0, 0, 0.5) 80%)")</li>
+ *   <li>Image patterns (e.g., "url(https://example.com/tile.png)")</li>
+ * </ul>
+ * Gradients stretch across the shape they fill. Image patterns are repeated
+ * across the canvas starting at its top-left corner.
+ * </p>
+ * <p>
+ * Paints are compared by their definition, so adapters can cache the objects
+ * they build from them and share them between elements. Recently parsed
+ * definitions are remembered, so parsing the same definition repeatedly is cheap.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public final class CSSPaint {
+
+    /**
+     * The kind of paint.
+     */
+    public enum Type {
+        LINEAR_GRADIENT,
+        RADIAL_GRADIENT,
+        PATTERN
+    }
+
+    /**
+     * Number of remembered paints, must be a power of two.
+     */
+    private static final int MEMO_SIZE = 64;
+
+    /**
+     * Recently parsed paints, indexed by the hash code of their definition.
+     */
+    private static final CSSPaint[] MEMO = new CSSPaint[MEMO_SIZE];
+
+    private final String definition;
+    private final Type type;
+    private final float angle;
+    private final float[] stopOffsets;
+    private final int[] stopColors;
+    private final String url;
+    private volatile byte[] imageData;
+    private volatile boolean imageLoaded;
+
+    private CSSPaint(String definition, Type type, float angle, float[] stopOffsets, int[] stopColors, String url) {
+        this.definition = definition;
+        this.type = type;
+        this.angle = angle;
+        this.stopOffsets = stopOffsets;
+        this.stopColors = stopColors;
+        this.url = url;
+    }
+
+    /**
+     * Checks if the given string is a paint definition rather than a plain color.
+     *
+     * @param value The string to check, may be {@code null}.
+     * @return {@code true} if the string starts like a gradient or an image pattern.
+     */
+    public static boolean isPaint(String value) {
+        if (value == null) {
+            return false;
+        }
+        int start = 0;
+        while (start < value.length() && Character.isWhitespace(value.charAt(start))) {
+            start++;
+        }
+        return value.regionMatches(true, start, "linear-gradient(", 0, 16)
+                || value.regionMatches(true, start, "radial-gradient(", 0, 16)
+                || value.regionMatches(true, start, "url(", 0, 4);
+    }
+
+    /**
+     * Parses the given string as a paint if it is a paint definition.
+     * <p>
+     * Like {@link CSSColor#toARGB(String, int)}, this is meant for elements that
+     * resolve their colors once, when the color is set.
+     * </p>
+     *
+     * @param value A color or paint definition, may be {@code null}.
+     * @return The parsed paint, or {@code null} if the string is not a valid paint definition.
+     */
+    public static CSSPaint fromColor(String value) {
+        if (!isPaint(value)) {
+            return null;
+        }
+        try {
+            return parse(value);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses a paint definition.
+     *
+     * @param definition The paint definition.
+     * @return The parsed paint.
+     * @throws IllegalArgumentException if the paint definition is malformed.
+     */
+    public static CSSPaint parse(String definition) {
+        int slot = definition.hashCode() & (MEMO_SIZE - 1);
+        CSSPaint memo = MEMO[slot];
+        if (memo != null && memo.definition.equals(definition)) {
+            return memo;
+        }
+
+        CSSPaint paint = parseUncached(definition);
+        MEMO[slot] = paint;
+        return paint;
+    }
+
+    private static CSSPaint parseUncached(String definition) {
+        String value = definition.trim();
+        int open = value.indexOf('(');
+        if (open < 0 || !value.endsWith(")")) {
+            throw malformed(definition);
+        }
+        String function = value.substring(0, open).trim().toLowerCase();
+        String body = value.substring(open + 1, value.length() - 1).trim();
+
+        if (function.equals("url")) {
+            if (body.length() >= 2 && (body.charAt(0) == '"' || body.charAt(0) == '\'')
+                    && body.charAt(body.length() - 1) == body.charAt(0)) {
+                body = body.substring(1, body.length() - 1);
+            }
+            if (body.isEmpty()) {
+                throw malformed(definition);
+            }
+            return new CSSPaint(definition, Type.PATTERN, 0, new float[0], new int[0], body);
+        }
+
+        Type type;
+        if (function.equals("linear-gradient")) {
+            type = Type.LINEAR_GRADIENT;
+        } else if (function.equals("radial-gradient")) {
+            type = Type.RADIAL_GRADIENT;
+        } else {
+            throw malformed(definition);
+        }
+
+        String[] arguments = splitArguments(body);
+        int first = 0;
+        float angle = 180;
+        String firstArgument = arguments[0].trim().toLowerCase();
+        if (type == Type.LINEAR_GRADIENT && firstArgument.endsWith("deg")) {
+            angle = parseFloat(firstArgument.substring(0, firstArgument.length() - 3), definition);
+            first = 1;
+        } else if (type == Type.LINEAR_GRADIENT && firstArgument.startsWith("to ")) {
+            angle = parseDirection(firstArgument.substring(3).trim(), definition);
+            first = 1;
+        } else if (type == Type.RADIAL_GRADIENT && (firstArgument.equals("circle") || firstArgument.equals("ellipse"))) {
+            first = 1;
+        }
+
+        int stopCount = arguments.length - first;
+        if (stopCount < 2) {
+            throw malformed(definition);
+        }
+        float[] offsets = new float[stopCount];
+        int[] colors = new int[stopCount];
+        for (int i = 0; i < stopCount; i++) {
+            String stop = arguments[first + i].trim();
+            offsets[i] = Float.NaN;
+            int split = findPositionStart(stop);
+            if (split > 0) {
+                String position = stop.substring(split).trim();
+                offsets[i] = parseFloat(position.substring(0, position.length() - 1), definition) / 100f;
+                stop = stop.substring(0, split).trim();
+            }
+            colors[i] = CSSColor.toARGB(stop);
+        }
+        distributeOffsets(offsets);
+
+        return new CSSPaint(definition, type, angle, offsets, colors, null);
+    }
+
+    /**
+     * Splits the arguments of a function at the commas that are not nested in parentheses.
+     */
+    private static String[] splitArguments(String body) {
+        int count = 1;
+        int depth = 0;
+        for (int i = 0; i < body.length(); i++) {
+            char c = body.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                count++;
+            }
+        }
+
+        String[] arguments = new String[count];
+        int argument = 0;
+        int start = 0;
+        depth = 0;
+        for (int i = 0; i < body.length(); i++) {
+            char c = body.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                arguments[argument++] = body.substring(start, i);
+                start = i + 1;
+            }
+        }
+        arguments[argument] = body.substring(start);
+        return arguments;
+    }
+
+    /**
+     * Finds the start of the percentage position that follows the color of a stop.
+     *
+     * @return The index of the position, or {@code -1} if the stop has no position.
+     */
+    private static int findPositionStart(String stop) {
+        if (!stop.endsWith("%")) {
+            return -1;
+        }
+        int split = stop.lastIndexOf(' ');
+        int close = stop.lastIndexOf(')');
+        return split > close ? split + 1 : -1;
+    }
+
+    /**
+     * Fills in missing stop positions as CSS does: the first and last stop default to
+     * the ends, the others are spread evenly between their neighbours, and positions
+     * never decrease.
+     */
+    private static void distributeOffsets(float[] offsets) {
+        int last = offsets.length - 1;
+        if (Float.isNaN(offsets[0])) {
+            offsets[0] = 0;
+        }
+        if (Float.isNaN(offsets[last])) {
+            offsets[last] = 1;
+        }
+
+        int previous = 0;
+        for (int i = 1; i <= last; i++) {
+            if (Float.isNaN(offsets[i])) {
+                continue;
+            }
+            for (int j = previous + 1; j < i; j++) {
+                offsets[j] = offsets[previous] + (offsets[i] - offsets[previous]) * (j - previous) / (i - previous);
+            }
+            previous = i;
+        }
+
+        for (int i = 0; i <= last; i++) {
+            offsets[i] = Math.max(0, Math.min(1, offsets[i]));
+            if (i > 0 && offsets[i] < offsets[i - 1]) {
+                offsets[i] = offsets[i - 1];
+            }
+        }
+    }
+
+    private static float parseDirection(String direction, String definition) {
+        boolean top = direction.contains("top");
+        boolean bottom = direction.contains("bottom");
+        boolean left = direction.contains("left");
+        boolean right = direction.contains("right");
+        if (top && !bottom) {
+            return left ? 315 : right ? 45 : 0;
+        } else if (bottom && !top) {
+            return left ? 225 : right ? 135 : 180;
+        } else if (left && !right && !top && !bottom) {
+            return 270;
+        } else if (right && !left && !top && !bottom) {
+            return 90;
+        }
+        throw malformed(definition);
+    }
+
+    private static float parseFloat(String value, String definition) {
+        try {
+            return Float.parseFloat(value.trim());
+        } catch (NumberFormatException e) {
+            throw malformed(definition);
+        }
+    }
+
+    private static IllegalArgumentException malformed(String definition) {
+        return new IllegalArgumentException("Malformed paint: " + definition);
+    }
+
+    /**
+     * Gets the definition this paint was parsed from.
+     *
+     * @return The paint definition.
+     */
+    public String getDefinition() {
+        return definition;
+    }
+
+    /**
+     * Gets the kind of paint.
+     *
+     * @return The paint type.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the direction of a linear gradient, as in CSS: {@code 0} points up,
+     * {@code 90} to the right and {@code 180}, the default, down.
+     *
+     * @return The gradient angle in degrees.
+     */
+    public float getAngle() {
+        return angle;
+    }
+
+    /**
+     * Gets the number of color stops of a gradient.
+     *
+     * @return The number of color stops, {@code 0} for image patterns.
+     */
+    public int getStopCount() {
+        return stopColors.length;
+    }
+
+    /**
+     * Gets the position of a color stop.
+     *
+     * @param index The index of the stop.
+     * @return The position, from {@code 0} at the start to {@code 1} at the end of the gradient.
+     */
+    public float getStopOffset(int index) {
+        return stopOffsets[index];
+    }
+
+    /**
+     * Gets the color of a color stop.
+     *
+     * @param index The index of the stop.
+     * @return The color as a packed ARGB value.
+     */
+    public int getStopColor(int index) {
+        return stopColors[index];
+    }
+
+    /**
+     * Gets the image URL of a pattern.
+     *
+     * @return The image URL, or {@code null} for gradients.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Gets the image data of a pattern, loading it on first use.
+     * <p>
+     * Loading may block, so callers should load the image outside the rendering
+     * thread before the paint is drawn.
+     * </p>
+     *
+     * @return The raw image data, or {@code null} for gradients and images that failed to load.
+     */
+    public byte[] getImageData() {
+        if (url != null && !imageLoaded) {
+            synchronized (this) {
+                if (!imageLoaded) {
+                    imageData = ImageLoader.load(url, 0, 0);
+                    imageLoaded = true;
+                }
+            }
+        }
+        return imageData;
+    }
+
+    /**
+     * Checks if the image of a pattern has been loaded, successfully or not.
+     *
+     * @return {@code true} for gradients and for patterns whose image is loaded.
+     */
+    public boolean isImageLoaded() {
+        return url == null || imageLoaded;
+    }
+
+    /**
+     * Checks if the paint covers every pixel of a shape with a fully opaque color.
+     *
+     * @return {@code true} for gradients made of opaque colors only.
+     */
+    public boolean isOpaque() {
+        if (type == Type.PATTERN) {
+            return false;
+        }
+        for (int color : stopColors) {
+            if (!CSSColor.isOpaque(color)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof CSSPaint && ((CSSPaint) obj).definition.equals(definition);
+    }
+
+    @Override
+    public int hashCode() {
+        return definition.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "CSSPaint[" + definition + ", stops=" + Arrays.toString(stopOffsets) + "]";
+    }
+}
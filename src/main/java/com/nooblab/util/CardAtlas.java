@@ -0,0 +1,305 @@
+package com.nooblab.util;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import javax.imageio.ImageIO;
+
+/**
+ * A whole deck of playing cards rasterized at one size and packed into a single image.
+ * <p>
+ * The cards are laid out in a grid with one row per suit, in the order of
+ * {@link #SUITS}, and one column per card, in the order of {@link #CARDS}. Drawing
+ * cards as regions of the atlas means a full deck shares one decoded image, so it
+ * can be drawn within a single frame without loading or converting any card.
+ * </p>
+ * <p>
+ * Card images are downloaded from the NoobLab deck. Programs that run without a
+ * network connection can use the simplified placeholder cards bundled with the
+ * library, in {@code com/nooblab/cards}, instead (see
+ * {@link #setBundledCards(boolean)}).
+ * Built atlases are kept in memory and in the {@linkplain DiskImageCache#getDefault()
+ * disk cache}.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public final class CardAtlas {
+
+    /**
+     * The card names, in the order of the atlas columns.
+     */
+    public static final List<String> CARDS = List.of("ace", "2", "3", "4", "5", "6", "7", "8", "9", "10", "jack",
+            "queen", "king");
+
+    /**
+     * The suit names, in the order of the atlas rows.
+     */
+    public static final List<String> SUITS = List.of("clubs", "diamonds", "hearts", "spades");
+
+    /**
+     * The height of a card relative to its width.
+     */
+    public static final double ASPECT_RATIO = 1.45;
+
+    private static final String REMOTE_URL = "https://www.nooblab.com/NoobLab/images/cards/";
+    private static final String RESOURCE_PATH = "/com/nooblab/cards/";
+
+    /**
+     * Key of built atlases in the disk cache. It names the atlas layout version and,
+     * when the atlas is built, the source of the card images, so that atlases built
+     * from other card images are never reused.
+     */
+    private static final String DISK_CACHE_URL = "nooblab:card-atlas:v1:";
+
+    private static final Map<Integer, CardAtlas> atlases = new HashMap<Integer, CardAtlas>();
+
+    private static volatile boolean bundledCards;
+
+    private final byte[] data;
+    private final int cardWidth;
+    private final int cardHeight;
+
+    private CardAtlas(byte[] data, int cardWidth, int cardHeight) {
+        this.data = data;
+        this.cardWidth = cardWidth;
+        this.cardHeight = cardHeight;
+    }
+
+    /**
+     * Sets whether the placeholder cards bundled with the library are used instead
+     * of the NoobLab deck. Atlases built from the other cards are forgotten.
+     *
+     * @param bundled {@code true} to use the bundled cards, which need no network connection.
+     */
+    public static void setBundledCards(boolean bundled) {
+        synchronized (atlases) {
+            if (bundledCards != bundled) {
+                bundledCards = bundled;
+                atlases.clear();
+            }
+        }
+    }
+
+    /**
+     * Checks if the placeholder cards bundled with the library are used.
+     *
+     * @return {@code true} if the bundled cards are used instead of the NoobLab deck.
+     */
+    public static boolean isBundledCards() {
+        return bundledCards;
+    }
+
+    /**
+     * Gets the URL of a card image. Cards are downloaded from the NoobLab deck,
+     * unless the bundled cards are used and include the card.
+     *
+     * @param card The card name (e.g. "ace", "10", "king").
+     * @param suit The suit name (e.g. "clubs", "spades", "hearts", "diamonds").
+     * @return The URL of the SVG image of the card.
+     */
+    public static String getCardUrl(String card, String suit) {
+        String name = card + "_of_" + suit + ".svg";
+        URL resource = bundledCards ? CardAtlas.class.getResource(RESOURCE_PATH + name) : null;
+        return resource != null ? resource.toString() : REMOTE_URL + name;
+    }
+
+    /**
+     * Gets where the card images come from.
+     *
+     * @return {@code "bundled"} if every card is taken from the bundled cards, or
+     *         the URL the cards are downloaded from otherwise.
+     */
+    static String getCardSource() {
+        for (String suit : SUITS) {
+            for (String card : CARDS) {
+                if (getCardUrl(card, suit).startsWith(REMOTE_URL)) {
+                    return REMOTE_URL;
+                }
+            }
+        }
+        return "bundled";
+    }
+
+    /**
+     * Gets the height of a card drawn at the given width.
+     *
+     * @param width The width of the card in pixels.
+     * @return The height of the card in pixels.
+     */
+    public static int getCardHeight(int width) {
+        return (int) Math.floor(width * ASPECT_RATIO);
+    }
+
+    /**
+     * Gets the atlas for cards of the given width, if it has been built.
+     *
+     * @param width The width of the cards in pixels.
+     * @return The atlas, or {@code null} if no atlas of that width has been built.
+     */
+    public static CardAtlas find(int width) {
+        synchronized (atlases) {
+            return atlases.get(width);
+        }
+    }
+
+    /**
+     * Gets the atlas for cards of the given width, building it if needed.
+     * <p>
+     * Building blocks until every card is loaded, but loads all cards at the same
+     * time (see {@link AsyncImageLoader}). An atlas built by an earlier run is read
+     * from the disk cache instead.
+     * </p>
+     *
+     * @param width The width of the cards in pixels.
+     * @return The atlas.
+     * @throws IllegalArgumentException if the width is not positive.
+     * @throws IllegalStateException    if a card could not be loaded.
+     */
+    public static CardAtlas build(int width) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("Card width must be positive.");
+        }
+        CardAtlas atlas = find(width);
+        if (atlas != null) {
+            return atlas;
+        }
+
+        int height = getCardHeight(width);
+        DiskImageCache diskCache = DiskImageCache.getDefault();
+        String diskCacheUrl = DISK_CACHE_URL + getCardSource();
+        byte[] data = diskCache.read(diskCacheUrl, width, height);
+        if (data != null) {
+            atlas = new CardAtlas(data, width, height);
+        } else {
+            Map<String, CompletableFuture<byte[]>> cards = new HashMap<String, CompletableFuture<byte[]>>();
+            for (String suit : SUITS) {
+                for (String card : CARDS) {
+                    cards.put(card + "_of_" + suit, AsyncImageLoader.load(getCardUrl(card, suit), width, height));
+                }
+            }
+            atlas = pack(width, height, name -> cards.get(name).join());
+            diskCache.write(diskCacheUrl, width, height, atlas.data);
+        }
+
+        synchronized (atlases) {
+            atlases.put(width, atlas);
+        }
+        return atlas;
+    }
+
+    /**
+     * Packs the card images into an atlas.
+     *
+     * @param width  The width of a card in pixels.
+     * @param height The height of a card in pixels.
+     * @param cards  Provides the raster image data of a card by its name, such as "ace_of_spades".
+     * @return The atlas.
+     * @throws IllegalStateException if a card image is missing or cannot be decoded.
+     */
+    static CardAtlas pack(int width, int height, Function<String, byte[]> cards) {
+        BufferedImage atlas = new BufferedImage(width * CARDS.size(), height * SUITS.size(),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = atlas.createGraphics();
+        try {
+            for (int row = 0; row < SUITS.size(); row++) {
+                for (int column = 0; column < CARDS.size(); column++) {
+                    String name = CARDS.get(column) + "_of_" + SUITS.get(row);
+                    graphics.drawImage(decode(name, cards.apply(name)), column * width, row * height, width, height,
+                            null);
+                }
+            }
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(atlas, "png", output);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode the card atlas", e);
+        }
+        return new CardAtlas(output.toByteArray(), width, height);
+    }
+
+    private static BufferedImage decode(String name, byte[] data) {
+        BufferedImage image = null;
+        if (data != null) {
+            try {
+                image = ImageIO.read(new ByteArrayInputStream(data));
+            } catch (IOException e) {
+                // Reported below
+            }
+        }
+        if (image == null) {
+            throw new IllegalStateException("Failed to load card " + name);
+        }
+        return image;
+    }
+
+    /**
+     * Gets the raster image data of the atlas.
+     *
+     * @return The atlas as PNG image data.
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * Gets the width of a card in the atlas.
+     *
+     * @return The card width in pixels.
+     */
+    public int getCardWidth() {
+        return cardWidth;
+    }
+
+    /**
+     * Gets the height of a card in the atlas.
+     *
+     * @return The card height in pixels.
+     */
+    public int getCardHeight() {
+        return cardHeight;
+    }
+
+    /**
+     * Gets the horizontal position of a card in the atlas.
+     *
+     * @param card The card name (e.g. "ace", "10", "king").
+     * @return The x-coordinate of the card's top-left corner in pixels.
+     * @throws IllegalArgumentException if the card name is unknown.
+     */
+    public int getCardX(String card) {
+        int column = CARDS.indexOf(card);
+        if (column < 0) {
+            throw new IllegalArgumentException("Unknown card: " + card);
+        }
+        return column * cardWidth;
+    }
+
+    /**
+     * Gets the vertical position of a suit in the atlas.
+     *
+     * @param suit The suit name (e.g. "clubs", "spades", "hearts", "diamonds").
+     * @return The y-coordinate of the top-left corner of the suit's cards in pixels.
+     * @throws IllegalArgumentException if the suit name is unknown.
+     */
+    public int getCardY(String suit) {
+        int row = SUITS.indexOf(suit);
+        if (row < 0) {
+            throw new IllegalArgumentException("Unknown suit: " + suit);
+        }
+        return row * cardHeight;
+    }
+}
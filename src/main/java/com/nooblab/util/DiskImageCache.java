@@ -0,0 +1,246 @@
+package com.nooblab.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * A cache of downloaded and converted images kept on disk between runs.
+ * <p>
+ * Entries are stored under a key made of the image URL and, for images converted
+ * to a specific size, that size. Each entry is a single file holding a small
+ * header, recording the key, the length of the data and its SHA-256 digest,
+ * followed by the image data. An entry is only used if its data still matches
+ * its header; damaged entries are deleted and loaded again.
+ * </p>
+ * <p>
+ * Entries are written to a temporary file first and then moved into place in a
+ * single step, so several programs may share one cache directory: a reader sees
+ * either a complete old entry or a complete new one, and a damaged entry is only
+ * deleted if no other program has replaced it in the meantime. Entries never
+ * expire: images at a given URL are expected not to change. Deleting the cache
+ * directory clears the cache.
+ * </p>
+ * <p>
+ * All errors are ignored: a cache that cannot be read or written behaves as if it
+ * was empty.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public final class DiskImageCache {
+
+    /**
+     * System property overriding the directory of the default cache.
+     */
+    public static final String DIRECTORY_PROPERTY = "nooblab.cache.dir";
+
+    private static final String ENTRY_SUFFIX = ".img";
+
+    /**
+     * Marks the start of every entry, and changes whenever the entry format does.
+     */
+    private static final int MAGIC = 0x4E4C4943;
+
+    private static volatile DiskImageCache defaultCache;
+
+    private final Path directory;
+
+    /**
+     * Creates a cache stored in the given directory. The directory is created when
+     * the first entry is written.
+     *
+     * @param directory The cache directory.
+     */
+    public DiskImageCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the cache shared by all images loaded from the web.
+     * <p>
+     * It is stored in the directory named by the {@value #DIRECTORY_PROPERTY} system
+     * property, or in {@code .nooblab/image-cache} in the user's home directory.
+     * </p>
+     *
+     * @return The default cache.
+     */
+    public static DiskImageCache getDefault() {
+        if (defaultCache == null) {
+            synchronized (DiskImageCache.class) {
+                if (defaultCache == null) {
+                    String directory = System.getProperty(DIRECTORY_PROPERTY);
+                    defaultCache = new DiskImageCache(directory != null ? Paths.get(directory)
+                            : Paths.get(System.getProperty("user.home"), ".nooblab", "image-cache"));
+                }
+            }
+        }
+        return defaultCache;
+    }
+
+    /**
+     * Gets the directory the cache is stored in.
+     *
+     * @return The cache directory.
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Reads the downloaded data of an image.
+     *
+     * @param url The URL of the image.
+     * @return The image data, or {@code null} if it is not cached.
+     */
+    public byte[] read(String url) {
+        return readEntry(url);
+    }
+
+    /**
+     * Reads an image converted to the given size.
+     *
+     * @param url    The URL of the image.
+     * @param width  The width the image was converted to.
+     * @param height The height the image was converted to.
+     * @return The converted image data, or {@code null} if it is not cached.
+     */
+    public byte[] read(String url, int width, int height) {
+        return readEntry(sizedKey(url, width, height));
+    }
+
+    /**
+     * Stores the downloaded data of an image.
+     *
+     * @param url  The URL of the image.
+     * @param data The image data, ignored if {@code null}.
+     */
+    public void write(String url, byte[] data) {
+        writeEntry(url, data);
+    }
+
+    /**
+     * Stores an image converted to the given size.
+     *
+     * @param url    The URL of the image.
+     * @param width  The width the image was converted to.
+     * @param height The height the image was converted to.
+     * @param data   The converted image data, ignored if {@code null}.
+     */
+    public void write(String url, int width, int height, byte[] data) {
+        writeEntry(sizedKey(url, width, height), data);
+    }
+
+    private static String sizedKey(String url, int width, int height) {
+        return url + "@" + width + "x" + height;
+    }
+
+    private byte[] readEntry(String key) {
+        Path file = directory.resolve(digest(key.getBytes(StandardCharsets.UTF_8)) + ENTRY_SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        byte[] entry;
+        try {
+            entry = Files.readAllBytes(file);
+        } catch (IOException e) {
+            return null;
+        }
+        byte[] data = parseEntry(key, entry);
+        if (data == null) {
+            deleteIfUnchanged(file, entry);
+        }
+        return data;
+    }
+
+    /**
+     * Extracts the image data from an entry.
+     *
+     * @return The image data, or {@code null} if the entry is damaged or belongs to another key.
+     */
+    private static byte[] parseEntry(String key, byte[] entry) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(entry))) {
+            if (input.readInt() != MAGIC || !key.equals(input.readUTF())) {
+                return null;
+            }
+            String sha256 = input.readUTF();
+            byte[] data = new byte[input.readInt()];
+            input.readFully(data);
+            if (input.read() != -1 || !digest(data).equals(sha256)) {
+                return null;
+            }
+            return data;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void writeEntry(String key, byte[] data) {
+        if (data == null) {
+            return;
+        }
+        String name = digest(key.getBytes(StandardCharsets.UTF_8));
+
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, name, ".tmp");
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                output.writeInt(MAGIC);
+                output.writeUTF(key);
+                output.writeUTF(digest(data));
+                output.writeInt(data.length);
+                output.write(data);
+            }
+            Files.move(temp, directory.resolve(name + ENTRY_SUFFIX), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            delete(temp);
+        }
+    }
+
+    /**
+     * Deletes a damaged entry, unless another program has replaced it in the meantime.
+     */
+    private static void deleteIfUnchanged(Path file, byte[] damaged) {
+        try {
+            if (Arrays.equals(Files.readAllBytes(file), damaged)) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            // Left for the next write to replace
+        }
+    }
+
+    private static void delete(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Left for the next write to replace
+        }
+    }
+
+    private static String digest(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
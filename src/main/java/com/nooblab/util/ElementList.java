@@ -1,6 +1,7 @@
 package com.nooblab.util;
 
 import java.util.ArrayList;
+
 import com.nooblab.element.Element;
 
 /**
@@ -22,7 +23,6 @@ public class ElementList<T extends Element> extends ArrayList<T> {
      * Iterates through the list and returns the first element whose ID matches the given value.
      * If no matching element is found, returns {@code null}.
      * </p>
-     * @param <T>
      *
      * @param id The unique identifier of the element to find.
      * @return The {@link Element} with the specified ID, or {@code null} if not found.
@@ -44,13 +44,13 @@ public class ElementList<T extends Element> extends ArrayList<T> {
      * </p>
      *
      * @param id The unique identifier of the element to remove.
+     * @return The removed element, or {@code null} if not found.
      */
-    public void removeByID(String id) {
-        for (T element : this) {
-            if (element.getId().equals(id)) {
-                this.remove(element);
-                return;
-            }
+    public T removeByID(String id) {
+        T element = findByID(id);
+        if (element != null) {
+            remove(element);
         }
+        return element;
     }
 }
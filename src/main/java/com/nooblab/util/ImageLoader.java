@@ -1,9 +1,13 @@
 package com.nooblab.util;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 
+import javax.imageio.ImageIO;
+
 /**
  * Load images from the web.
  */
@@ -28,4 +32,22 @@ public class ImageLoader {
 
         return bytes;
     }
+
+    /**
+     * Reads the pixel width of the given raster image data.
+     *
+     * @param data Raw image data in a format supported by {@link ImageIO}.
+     * @return The width of the image in pixels, or {@code 0} if the data cannot be decoded.
+     */
+    public static int readWidth(byte[] data) {
+        if (data == null) {
+            return 0;
+        }
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(data));
+            return image == null ? 0 : image.getWidth();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
 }
@@ -0,0 +1,108 @@
+package com.nooblab.util;
+
+/**
+ * An immutable image stored as one palette index per pixel.
+ * <p>
+ * Images with few distinct colors, such as programmatically generated sprites,
+ * take a single byte per pixel in this form, plus a palette of at most 256
+ * packed ARGB colors.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public final class IndexedPixels {
+
+    /**
+     * The maximum number of colors in a palette.
+     */
+    public static final int MAX_COLORS = 256;
+
+    private final byte[] indices;
+    private final int[] palette;
+    private final int width;
+    private final int height;
+
+    /**
+     * Creates an indexed image. The arrays are not copied.
+     *
+     * @param indices The palette index of every pixel, row by row, read as unsigned bytes.
+     * @param palette The colors as packed ARGB values.
+     * @param width   The number of pixels in a row.
+     * @param height  The number of rows.
+     * @throws IllegalArgumentException if the number of indices does not match the
+     *                                  dimensions or the palette is too large.
+     */
+    public IndexedPixels(byte[] indices, int[] palette, int width, int height) {
+        if (width <= 0 || height <= 0 || indices.length != width * height) {
+            throw new IllegalArgumentException("Pixel data does not match the image size.");
+        }
+        if (palette.length == 0 || palette.length > MAX_COLORS) {
+            throw new IllegalArgumentException("A palette must have between 1 and " + MAX_COLORS + " colors.");
+        }
+        this.indices = indices;
+        this.palette = palette;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Gets the palette index of every pixel.
+     *
+     * @return The indices, row by row, to be read as unsigned bytes.
+     */
+    public byte[] getIndices() {
+        return indices;
+    }
+
+    /**
+     * Gets the palette.
+     *
+     * @return The colors as packed ARGB values.
+     */
+    public int[] getPalette() {
+        return palette;
+    }
+
+    /**
+     * Gets the number of pixels in a row.
+     *
+     * @return The width in pixels.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return The height in pixels.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the color of a pixel.
+     *
+     * @param x The column of the pixel.
+     * @param y The row of the pixel.
+     * @return The color as a packed ARGB value.
+     */
+    public int getColor(int x, int y) {
+        return palette[indices[y * width + x] & 0xFF];
+    }
+
+    /**
+     * Checks if every color of the palette is fully opaque.
+     *
+     * @return {@code true} if the image has no transparent or translucent pixels.
+     */
+    public boolean isOpaque() {
+        for (int color : palette) {
+            if (!CSSColor.isOpaque(color)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -3,8 +3,15 @@ package com.nooblab.util;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
 
 import io.sf.carte.echosvg.transcoder.TranscoderException;
 import io.sf.carte.echosvg.transcoder.TranscoderInput;
@@ -18,16 +25,29 @@ import io.sf.carte.echosvg.transcoder.image.PNGTranscoder;
  * into a raster image at a specified width and height.
  * </p>
  * <p>
- * <b>Future Improvements:</b>
- * <ul>
- *   <li>Implement asynchronous SVG loading using {@code java.util.concurrent}.</li>
- * </ul>
+ * Loading blocks the calling thread; {@link AsyncImageLoader} loads images on
+ * background threads instead.
  * </p>
  *
  * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
  */
 public class SVGImageLoader {
 
+    /**
+     * Maximum number of remembered SVG documents.
+     */
+    private static final int MAX_DOCUMENTS = 64;
+
+    /**
+     * Recently converted SVG documents by URL, least recently used first.
+     */
+    private static final Map<String, Document> documents = new LinkedHashMap<String, Document>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Document> eldest) {
+            return size() > MAX_DOCUMENTS;
+        }
+    };
+
     /**
      * Loads an SVG image from a specified URL and converts it to a PNG format.
      * <p>
@@ -42,23 +62,59 @@ public class SVGImageLoader {
      * @return A byte array containing the PNG image data, or {@code null} if an error occurs.
      */
     public static byte[] loadAsPNG(String url, int width, int height) {
-        URI svgUri;
-        byte[] bytes;
+        return transcode(ImageLoader.load(url, width, height), width, height);
+    }
 
-        // Validate and parse the provided URL
-        try {
-            svgUri = new URI(url);
-        } catch (URISyntaxException e) {
+    /**
+     * Converts SVG image data to a PNG image of the specified width and height.
+     *
+     * @param svg    The raw SVG image data, may be {@code null}.
+     * @param width  The desired width of the output PNG image.
+     * @param height The desired height of the output PNG image.
+     * @return A byte array containing the PNG image data, or {@code null} if
+     *         {@code svg} is {@code null} or cannot be converted.
+     */
+    public static byte[] transcode(byte[] svg, int width, int height) {
+        if (svg == null) {
             return null;
         }
+        return transcode(new TranscoderInput(new ByteArrayInputStream(svg)), width, height);
+    }
 
-        // Load the SVG image data into a byte array
-        try (java.io.InputStream inputStream = svgUri.toURL().openStream()) {
-            bytes = inputStream.readAllBytes();
-        } catch (IOException e) {
+    /**
+     * Converts the SVG image loaded from the given URL to a PNG image of the
+     * specified width and height.
+     * <p>
+     * The parsed SVG document is remembered per URL, so converting the same image
+     * at another size does not parse it again. The most recently converted
+     * documents are kept.
+     * </p>
+     *
+     * @param url    The URL the SVG image was loaded from.
+     * @param svg    The raw SVG image data, may be {@code null}.
+     * @param width  The desired width of the output PNG image.
+     * @param height The desired height of the output PNG image.
+     * @return A byte array containing the PNG image data, or {@code null} if
+     *         {@code svg} is {@code null} or cannot be converted.
+     */
+    public static byte[] transcode(String url, byte[] svg, int width, int height) {
+        if (svg == null) {
+            return null;
+        }
+        Document document = getDocument(url, svg);
+        if (document == null) {
             return null;
         }
 
+        TranscoderInput input = new TranscoderInput(document);
+        input.setURI(url);
+        // The transcoder copies the document, which must not happen on several threads at once
+        synchronized (document) {
+            return transcode(input, width, height);
+        }
+    }
+
+    private static byte[] transcode(TranscoderInput input, int width, int height) {
         // Configure the PNG transcoder
         PNGTranscoder transcoder = new PNGTranscoder();
         transcoder.addTranscodingHint(PNGTranscoder.KEY_WIDTH, (float) width);
@@ -66,7 +122,6 @@ public class SVGImageLoader {
 
         // Convert the SVG to PNG
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        TranscoderInput input = new TranscoderInput(new ByteArrayInputStream(bytes));
         TranscoderOutput output = new TranscoderOutput(outputStream);
 
         try {
@@ -77,4 +132,42 @@ public class SVGImageLoader {
 
         return outputStream.toByteArray();
     }
+
+    /**
+     * Gets the parsed SVG document of the given URL, parsing the data if the
+     * document is not remembered.
+     *
+     * @return The document, or {@code null} if the data is not well-formed XML.
+     */
+    static Document getDocument(String url, byte[] svg) {
+        synchronized (documents) {
+            Document document = documents.get(url);
+            if (document != null) {
+                return document;
+            }
+        }
+
+        Document document;
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            // SVG files often declare a DTD on the web, which is not needed to render them
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            // Images from the web must not pull local files or other URLs into the document
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+            factory.setXIncludeAware(false);
+            factory.setExpandEntityReferences(false);
+            document = factory.newDocumentBuilder().parse(new ByteArrayInputStream(svg));
+        } catch (ParserConfigurationException | SAXException | IOException e) {
+            return null;
+        }
+        document.setDocumentURI(url);
+
+        synchronized (documents) {
+            documents.put(url, document);
+        }
+        return document;
+    }
 }
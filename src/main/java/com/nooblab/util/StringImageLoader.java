@@ -3,6 +3,12 @@ package com.nooblab.util;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import javax.imageio.ImageIO;
 
@@ -19,6 +25,11 @@ import javax.imageio.ImageIO;
  */
 public class StringImageLoader {
 
+    /**
+     * Number of pixels from which the rows of an image are converted in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 128 * 128;
+
     /**
      * Converts a 2D string-based image representation into a PNG-compatible byte array.
      * <p>
@@ -50,4 +61,96 @@ public class StringImageLoader {
 
         return outputStream.toByteArray();
     }
+
+    /**
+     * Converts a 2D string-based image representation into packed ARGB pixels.
+     * <p>
+     * Unlike {@link #loadAsPNG(String[][])}, the pixels are not encoded into an image
+     * format, so they can be drawn without being decoded again.
+     * </p>
+     *
+     * @param data A 2D array of strings representing color names, indexed by row and then column.
+     * @return The pixels as packed ARGB values, row by row.
+     */
+    public static int[] loadAsARGB(String[][] data) {
+        int height = data.length;
+        int width = data[0].length;
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                pixels[y * width + x] = CSSColor.toARGB(data[y][x]);
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * Converts a 2D string-based image representation into palette-indexed pixels.
+     * <p>
+     * Every distinct color string is converted only once, when it is first added to
+     * the palette. The rows of large images are converted in parallel.
+     * </p>
+     *
+     * @param data A 2D array of strings representing color names, indexed by row and then column.
+     * @return The indexed pixels, or {@code null} if the image has more than
+     *         {@value IndexedPixels#MAX_COLORS} distinct color strings.
+     */
+    public static IndexedPixels loadAsIndexed(String[][] data) {
+        int height = data.length;
+        int width = data[0].length;
+        byte[] indices = new byte[width * height];
+        int[] palette = new int[IndexedPixels.MAX_COLORS];
+        AtomicInteger colorCount = new AtomicInteger();
+
+        if (width * height < PARALLEL_THRESHOLD) {
+            Map<String, Integer> paletteIndices = new HashMap<String, Integer>();
+            for (int y = 0; y < height; y++) {
+                indexRow(data[y], width, indices, y * width, paletteIndices, palette, colorCount);
+            }
+        } else {
+            Map<String, Integer> paletteIndices = new ConcurrentHashMap<String, Integer>();
+            IntStream.range(0, height).parallel()
+                    .forEach(y -> indexRow(data[y], width, indices, y * width, paletteIndices, palette, colorCount));
+        }
+
+        if (colorCount.get() > IndexedPixels.MAX_COLORS) {
+            return null;
+        }
+        return new IndexedPixels(indices, Arrays.copyOf(palette, colorCount.get()), width, height);
+    }
+
+    /**
+     * Stores the palette index of every pixel of a row, adding colors that are not
+     * in the palette yet. Colors beyond the palette size are counted but not stored.
+     */
+    private static void indexRow(String[] row, int width, byte[] indices, int offset,
+            Map<String, Integer> paletteIndices, int[] palette, AtomicInteger colorCount) {
+        for (int x = 0; x < width; x++) {
+            int index = paletteIndices.computeIfAbsent(row[x], color -> {
+                int newIndex = colorCount.getAndIncrement();
+                if (newIndex < palette.length) {
+                    palette[newIndex] = CSSColor.toARGB(color);
+                }
+                return newIndex;
+            });
+            indices[offset + x] = (byte) index;
+        }
+    }
+
+    /**
+     * Checks if every pixel of a 2D string-based image is fully opaque.
+     *
+     * @param data A 2D array of strings representing color names.
+     * @return {@code true} if no pixel is transparent or translucent.
+     */
+    public static boolean isOpaque(String[][] data) {
+        for (String[] row : data) {
+            for (String color : row) {
+                if (!CSSColor.isOpaque(color)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
 }
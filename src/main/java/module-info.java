@@ -1,5 +1,6 @@
 module com.nooblab {
     exports com.nooblab;
+    exports com.nooblab.render;
 
     requires javafx.controls;
     requires javafx.graphics;
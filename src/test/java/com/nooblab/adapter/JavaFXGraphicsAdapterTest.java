@@ -0,0 +1,381 @@
+package com.nooblab.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nooblab.text.FontStyle;
+import com.nooblab.text.FontWeight;
+import com.nooblab.util.CSSPaint;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Paint;
+
+/**
+ * Unit tests for the {@link JavaFXGraphicsAdapter} class.
+ * <p>
+ * This test suite verifies that state changes which would not alter the
+ * graphics context are skipped and counted, that fonts are resolved once and
+ * applied only when text is drawn, that gradients and decoded images are built
+ * once and shared, and that the state stack restores both the adapter state
+ * and the graphics context.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class JavaFXGraphicsAdapterTest {
+
+    private JavaFXGraphicsAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = new JavaFXGraphicsAdapter();
+        adapter.graphicsContext = new Canvas(100, 100).getGraphicsContext2D();
+    }
+
+    /**
+     * Tests that setting the same fill color twice issues only one change.
+     */
+    @Test
+    public void testRepeatedFillIsSkipped() {
+        adapter.setFill(0xFFFF0000);
+        adapter.resetState();
+        adapter.setFill("red");
+        adapter.setFill(0xFF0000FF);
+
+        StateChangeStats stats = adapter.getStateChangeStats();
+        assertEquals(2, stats.getIssued());
+        assertEquals(1, stats.getSkipped());
+        assertEquals(Color.BLUE, adapter.graphicsContext.getFill());
+    }
+
+    /**
+     * Tests that the font is applied once when text is drawn, and only if it changed.
+     */
+    @Test
+    public void testFontAppliedOnceWhenTextIsDrawn() {
+        adapter.setFontSize(20);
+        adapter.setFontWeight(FontWeight.BOLD);
+        adapter.setFontFamily("Arial");
+        assertEquals(0, adapter.getStateChangeStats().getIssued());
+
+        adapter.fillText(0, 0, "first");
+        adapter.resetState();
+        adapter.setFontSize(20);
+        adapter.setFontWeight(FontWeight.BOLD);
+        adapter.fillText(0, 0, "second");
+
+        StateChangeStats stats = adapter.getStateChangeStats();
+        assertEquals(1, stats.getIssued());
+        assertEquals(1, stats.getSkipped());
+        assertEquals(20, adapter.graphicsContext.getFont().getSize());
+    }
+
+    /**
+     * Tests that preloaded fonts are cached and reused when text is drawn.
+     */
+    @Test
+    public void testPreloadedFontIsReused() {
+        adapter.preloadFont("Arial", 31, FontWeight.NORMAL, FontStyle.ITALIC);
+        int cached = adapter.fontCache.size();
+
+        adapter.setFontSize(31);
+        adapter.setFontStyle(FontStyle.ITALIC);
+        adapter.fillText(0, 0, "text");
+
+        assertEquals(cached, adapter.fontCache.size());
+        assertEquals(31, adapter.graphicsContext.getFont().getSize());
+    }
+
+    /**
+     * Tests that a gradient is built once and shared, and that setting it again is skipped.
+     */
+    @Test
+    public void testGradientIsCachedAndShared() {
+        adapter.setFill("linear-gradient(to right, red, blue)");
+        Paint first = adapter.graphicsContext.getFill();
+        adapter.setFillPaint(CSSPaint.parse("linear-gradient(to right, red, blue)"));
+        adapter.setFill(0xFF00FF00);
+        adapter.setFillPaint(CSSPaint.parse("linear-gradient(to right, red, blue)"));
+
+        assertTrue(first instanceof LinearGradient);
+        assertSame(first, adapter.graphicsContext.getFill());
+        assertEquals(1, adapter.paintCache.size());
+        assertEquals(3, adapter.getStateChangeStats().getIssued());
+        assertEquals(1, adapter.getStateChangeStats().getSkipped());
+    }
+
+    /**
+     * Tests that popping a state restores the fill color and translation of the graphics context.
+     */
+    @Test
+    public void testPushAndPopState() {
+        adapter.setFill(0xFFFF0000);
+        adapter.pushState();
+        adapter.setFill(0xFF0000FF);
+        adapter.translate(10, 20);
+        assertEquals(10, adapter.graphicsContext.getTransform().getTx());
+        adapter.popState();
+
+        assertEquals(Color.RED, adapter.graphicsContext.getFill());
+        assertEquals(0, adapter.graphicsContext.getTransform().getTx());
+        assertEquals(0, adapter.state.getTranslateX());
+
+        // The restored fill is known to be applied, so setting it again is skipped
+        long skipped = adapter.getStateChangeStats().getSkipped();
+        adapter.setFill(0xFFFF0000);
+        assertEquals(skipped + 1, adapter.getStateChangeStats().getSkipped());
+        assertThrows(IllegalStateException.class, () -> adapter.popState());
+    }
+
+    /**
+     * Tests that identifiers drawing identical image data share one decoded image,
+     * which is dropped when the last of them is purged.
+     */
+    @Test
+    public void testIdenticalImagesAreShared() {
+        byte[] data = { 1, 2, 3, 4 };
+        Image first = adapter.getCachedImage("first", data, true);
+        Image second = adapter.getCachedImage("second", data.clone(), true);
+
+        assertSame(first, second);
+        assertSame(first, adapter.getCachedImage("first", data, true));
+        assertEquals(1, adapter.imageCache.size());
+
+        adapter.purgeRasterImage("first");
+        assertEquals(1, adapter.imageCache.size());
+        adapter.getCachedImage("second", new byte[] { 5, 6 }, true);
+        assertEquals(1, adapter.imageCache.size());
+        adapter.purgeRasterImage("second");
+        assertEquals(0, adapter.imageCache.size());
+        assertEquals(0, adapter.imageCache.getReferenceCount());
+    }
+
+    /**
+     * Tests that the least recently drawn images are evicted once the budget is
+     * exceeded, and decoded again when they are drawn.
+     */
+    @Test
+    public void testImagesAreEvictedOverBudget() throws IOException {
+        byte[] small = createPng(10, 10);
+        byte[] large = createPng(20, 20);
+        adapter.setImageCacheBudget(1000);
+
+        Image first = adapter.getCachedImage("small", small, true);
+        adapter.getCachedImage("large", large, true);
+        ImageCacheStats stats = adapter.getImageCacheStats();
+        assertEquals(1, stats.getImageCount());
+        assertEquals(1600, stats.getByteSize());
+        assertEquals(1, stats.getEvictions());
+
+        assertNotSame(first, adapter.getCachedImage("small", small, true));
+        adapter.getCachedImage("small", small, true);
+        assertEquals(3, stats.getMisses());
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getEvictions());
+    }
+
+    /**
+     * Tests that prepared images nothing refers to are evicted before images that
+     * are drawn, even if those were drawn less recently.
+     */
+    @Test
+    public void testUnreferencedPreparedImagesAreEvictedFirst() throws Exception {
+        byte[] drawn = createPng(10, 10);
+        byte[] prepared = createPng(10, 11);
+        adapter.setImageCacheBudget(1000);
+
+        Image first = adapter.getCachedImage("drawn", drawn, true);
+        adapter.prepareRasterImage(prepared);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (adapter.getImageCacheStats().getDecodes() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        adapter.getCachedImage("other", createPng(10, 12), true);
+
+        assertEquals(1, adapter.getImageCacheStats().getEvictions());
+        assertSame(first, adapter.getCachedImage("drawn", drawn, false));
+    }
+
+    /**
+     * Tests that images are decoded in the background and not drawn until they are ready.
+     */
+    @Test
+    public void testImagesAreDecodedInBackground() throws Exception {
+        byte[] data = createPng(8, 8);
+
+        assertNull(adapter.getCachedImage("sprite", data, false));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!adapter.isRasterImageReady("sprite") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertTrue(adapter.isRasterImageReady("sprite"));
+        assertEquals(8, adapter.getCachedImage("sprite", data, false).getWidth());
+        assertEquals(1, adapter.getImageCacheStats().getDecodes());
+        assertTrue(adapter.getImageCacheStats().getMaxDecodeMillis() > 0);
+    }
+
+    /**
+     * Tests that images are found to be opaque when decoded only if none of their
+     * pixels are transparent.
+     */
+    @Test
+    public void testOpacityIsFoundWhenDecoded() throws IOException {
+        BufferedImage solid = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(solid, "png", output);
+
+        adapter.getCachedImage("solid", output.toByteArray(), true);
+        adapter.getCachedImage("transparent", createPng(4, 4), true);
+
+        assertTrue(adapter.isRasterImageOpaque("solid"));
+        assertFalse(adapter.isRasterImageOpaque("transparent"));
+        assertFalse(adapter.isRasterImageOpaque("missing"));
+    }
+
+    /**
+     * Tests that pixels are written into an image once and written again only
+     * for a different pixel array or after being purged.
+     */
+    @Test
+    public void testPixelsAreWrittenOnce() {
+        int[] pixels = { 0xFFFF0000, 0x8000FF00, 0xFF0000FF, 0 };
+
+        adapter.drawPixels("sprite", pixels, 2, 2, 0, 0, 20, 20);
+        WritableImage image = adapter.pixelTextures.get("sprite").image;
+        assertEquals(0xFFFF0000, image.getPixelReader().getArgb(0, 0));
+        assertEquals(0x8000FF00, image.getPixelReader().getArgb(1, 0));
+        assertEquals(0, image.getPixelReader().getArgb(1, 1));
+
+        adapter.drawPixels("sprite", pixels, 2, 2, 10, 10, 20, 20);
+        assertSame(image, adapter.pixelTextures.get("sprite").image);
+
+        adapter.drawPixels("sprite", pixels.clone(), 2, 2, 10, 10, 20, 20);
+        assertNotSame(image, adapter.pixelTextures.get("sprite").image);
+
+        adapter.purgeRasterImage("sprite");
+        assertNull(adapter.pixelTextures.get("sprite"));
+    }
+
+    /**
+     * Tests that palette indices are written as unsigned bytes through the palette.
+     */
+    @Test
+    public void testIndexedPixelsAreWritten() {
+        int[] palette = new int[200];
+        palette[0] = 0xFF0000FF;
+        palette[199] = 0x80FF0000;
+        byte[] indices = { 0, (byte) 199, (byte) 199, 0 };
+
+        adapter.drawIndexedPixels("sprite", indices, palette, 2, 2, 0, 0, 20, 20);
+        WritableImage image = adapter.pixelTextures.get("sprite").image;
+        assertEquals(0xFF0000FF, image.getPixelReader().getArgb(0, 0));
+        assertEquals(0x80FF0000, image.getPixelReader().getArgb(1, 0));
+
+        adapter.drawIndexedPixels("sprite", indices, palette, 2, 2, 5, 5, 20, 20);
+        assertSame(image, adapter.pixelTextures.get("sprite").image);
+    }
+
+    /**
+     * Tests that updating a region of a pixel array rewrites only that region of
+     * its image, and nothing before the image was first written.
+     */
+    @Test
+    public void testPixelRegionIsUpdated() {
+        int[] pixels = new int[4 * 3];
+        adapter.updatePixels("canvas", pixels, 4, 0, 0, 4, 3);
+        assertNull(adapter.pixelTextures.get("canvas"));
+
+        adapter.drawPixels("canvas", pixels, 4, 3, 0, 0, 4, 3);
+        pixels[0] = 0xFF00FF00;
+        pixels[1 * 4 + 2] = 0xFFFF0000;
+        adapter.updatePixels("canvas", pixels, 4, 2, 1, 1, 1);
+
+        WritableImage image = adapter.pixelTextures.get("canvas").image;
+        assertEquals(0xFFFF0000, image.getPixelReader().getArgb(2, 1));
+        assertEquals(0, image.getPixelReader().getArgb(0, 0));
+    }
+
+    /**
+     * Tests that opacities multiply and are undone by popping the state.
+     */
+    @Test
+    public void testOpacityIsMultipliedAndRestored() {
+        adapter.pushState();
+        adapter.multiplyOpacity(0.5);
+        adapter.pushState();
+        adapter.multiplyOpacity(0.5);
+        adapter.resetState();
+        assertEquals(0.25, adapter.graphicsContext.getGlobalAlpha(), 1e-9);
+        assertEquals(0.25, adapter.state.getOpacity(), 1e-9);
+
+        adapter.popState();
+        assertEquals(0.5, adapter.graphicsContext.getGlobalAlpha(), 1e-9);
+        adapter.popState();
+        assertEquals(1, adapter.graphicsContext.getGlobalAlpha(), 1e-9);
+        assertEquals(1, adapter.state.getOpacity(), 1e-9);
+    }
+
+    /**
+     * Tests that the state stack reuses its frames instead of allocating new states.
+     */
+    @Test
+    public void testStateStackReusesFrames() {
+        GraphicsStateStack stack = new GraphicsStateStack(1);
+        GraphicsState state = new GraphicsState();
+        state.setLineWidth(3);
+        stack.push(state);
+        GraphicsState frame = stack.peek();
+        state.setLineWidth(4);
+        stack.push(state);
+
+        stack.pop(state);
+        stack.pop(state);
+        assertEquals(3, state.getLineWidth());
+        stack.push(state);
+        assertSame(frame, stack.peek());
+    }
+
+    /**
+     * Tests that clip regions are tracked in canvas coordinates and undone by popping the state.
+     */
+    @Test
+    public void testClipIsIntersectedAndRestored() {
+        adapter.pushState();
+        adapter.translate(10, 10);
+        adapter.clipRect(0, 0, 50, 50);
+        adapter.clipPolygon(new int[] { 20, 80, 20 }, new int[] { 30, 30, 90 }, 3);
+
+        assertEquals(30, adapter.state.getClipX());
+        assertEquals(40, adapter.state.getClipY());
+        assertEquals(30, adapter.state.getClipWidth());
+        assertEquals(20, adapter.state.getClipHeight());
+
+        adapter.popState();
+        assertFalse(adapter.state.isClipped());
+    }
+
+    private static byte[] createPng(int width, int height) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", output);
+        return output.toByteArray();
+    }
+}
@@ -50,6 +50,21 @@ public class CircleTest {
         assertEquals("red", circle.getColor());
     }
 
+    /**
+     * Tests that colors are resolved to ARGB values when set, not when drawn.
+     */
+    @Test
+    public void testDrawUsesResolvedColor() {
+        circle.setColor("#FF000080");
+        circle.setStrokeColor("rgb(0, 0, 255)");
+        circle.setStrokeWidth(2);
+        circle.draw(mockAdapter);
+
+        verify(mockAdapter).setFill(0x80FF0000);
+        verify(mockAdapter).setStroke(0xFF0000FF);
+        verify(mockAdapter, never()).setFill(anyString());
+    }
+
     /**
      * Tests setting and getting the stroke color.
      */
@@ -76,9 +91,10 @@ public class CircleTest {
         circle.draw(mockAdapter);
 
         verify(mockAdapter).resetState();
-        verify(mockAdapter).setFill("black");
+        verify(mockAdapter).setFill(0xFF000000);
         verify(mockAdapter).fillOval(30, 30, 40, 40);
         verify(mockAdapter, never()).setStroke(anyString());
+        verify(mockAdapter, never()).setStroke(anyInt());
         verify(mockAdapter, never()).setLineWidth(anyInt());
         verify(mockAdapter, never()).strokeOval(anyInt(), anyInt(), anyInt(), anyInt()); // Should never be called
     }
@@ -92,8 +108,8 @@ public class CircleTest {
         circle.draw(mockAdapter);
 
         verify(mockAdapter).resetState();
-        verify(mockAdapter).setFill("black");
-        verify(mockAdapter).setStroke("black");
+        verify(mockAdapter).setFill(0xFF000000);
+        verify(mockAdapter).setStroke(0xFF000000);
         verify(mockAdapter).setLineWidth(5);
         verify(mockAdapter).fillOval(30, 30, 40, 40);
         verify(mockAdapter).strokeOval(30, 30, 40, 40); // Should be called
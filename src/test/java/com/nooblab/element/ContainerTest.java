@@ -0,0 +1,222 @@
+package com.nooblab.element;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.adapter.LayerEffect;
+import com.nooblab.util.ElementList;
+
+/**
+ * Unit tests for the {@link Container} class.
+ * <p>
+ * This test suite verifies that children are drawn clipped and translated into
+ * the container, that children outside the visible area are skipped, that
+ * transparent containers and containers with an effect are drawn from a cached
+ * layer, and that element lists find and remove children of containers.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class ContainerTest {
+
+    private GraphicsAdapter mockAdapter;
+    private Container container;
+
+    @BeforeEach
+    void setUp() {
+        mockAdapter = mock(GraphicsAdapter.class);
+        when(mockAdapter.getCanvasWidth()).thenReturn(1000);
+        when(mockAdapter.getCanvasHeight()).thenReturn(1000);
+        container = new Container(100, 200, 50, 40, "white");
+    }
+
+    /**
+     * Tests that children are drawn inside the clip region of the container,
+     * relative to its scrolled content.
+     */
+    @Test
+    public void testChildrenAreClippedAndTranslated() {
+        container.add(new Rectangle(20, 5, 10, 10, "red", null, 0));
+        container.scrollTo(10, 0);
+
+        container.draw(mockAdapter);
+
+        InOrder order = inOrder(mockAdapter);
+        order.verify(mockAdapter).pushState();
+        order.verify(mockAdapter).clipRect(100, 200, 50, 40);
+        order.verify(mockAdapter).fillRect(100, 200, 50, 40);
+        order.verify(mockAdapter).translate(90, 200);
+        order.verify(mockAdapter).fillRect(20, 5, 10, 10);
+        order.verify(mockAdapter).popState();
+    }
+
+    /**
+     * Tests that children scrolled out of the container, and containers outside
+     * the canvas, are not drawn.
+     */
+    @Test
+    public void testChildrenOutsideAreSkipped() {
+        Rectangle visible = new Rectangle(0, 0, 10, 10);
+        Rectangle hidden = new Rectangle(60, 0, 10, 10);
+        container.add(visible);
+        container.add(hidden);
+        container.scrollTo(5, 0);
+
+        container.draw(mockAdapter);
+        verify(mockAdapter).fillRect(0, 0, 10, 10);
+        verify(mockAdapter, never()).fillRect(60, 0, 10, 10);
+
+        Container offscreen = new Container(2000, 0, 50, 50);
+        offscreen.add(visible);
+        offscreen.draw(mockAdapter);
+        verify(mockAdapter).pushState();
+    }
+
+    /**
+     * Tests that a tile map inside a container only draws the chunks that are visible in it.
+     */
+    @Test
+    public void testTileMapUsesVisibleArea() {
+        // 4x4 chunks of 160 pixels, of which the container shows the second column
+        TileMap tileMap = new TileMap(new byte[0], 8, 10, new int[64 * 64], 64, 0, 0);
+        Container viewport = new Container(0, 0, 100, 100);
+        viewport.add(tileMap);
+        viewport.scrollTo(200, 0);
+        when(mockAdapter.hasLayer(anyString())).thenReturn(true);
+
+        viewport.draw(mockAdapter);
+
+        verify(mockAdapter).drawLayer(tileMap.getId() + ":chunk:1", 160, 0, 160, 160);
+        verify(mockAdapter, never()).drawLayer(eq(tileMap.getId() + ":chunk:0"),
+                anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    /**
+     * Tests that changing a child changes the revision of the container.
+     */
+    @Test
+    public void testRevisionFollowsChildren() {
+        Rectangle child = new Rectangle(0, 0, 10, 10);
+        container.add(child);
+        int revision = container.getRevision();
+
+        child.setWidth(20);
+        assertTrue(revision != container.getRevision());
+    }
+
+    /**
+     * Tests that a container cannot be added to itself or to one of its children.
+     */
+    @Test
+    public void testContainerCannotContainItself() {
+        Container inner = new Container(0, 0, 10, 10);
+        container.add(inner);
+
+        assertThrows(IllegalArgumentException.class, () -> container.add(container));
+        assertThrows(IllegalArgumentException.class, () -> inner.add(container));
+    }
+
+    /**
+     * Tests that containers find and remove elements nested in other containers,
+     * while element lists only search their own elements.
+     */
+    @Test
+    public void testContainerSearchesNestedContainers() {
+        Container inner = new Container(0, 0, 10, 10);
+        Rectangle child = new Rectangle(0, 0, 1, 1);
+        inner.add(child);
+        container.add(inner);
+        ElementList<Element> elements = new ElementList<Element>();
+        elements.add(container);
+
+        assertNull(elements.findByID(child.getId()));
+        assertSame(child, container.findByID(child.getId()));
+        assertSame(child, container.removeByID(child.getId()));
+        assertFalse(container.contains(child));
+        assertNull(container.findByID(child.getId()));
+        assertSame(inner, container.findByID(inner.getId()));
+        assertEquals(1, elements.size());
+    }
+
+    /**
+     * Tests that a container with a drop shadow is rendered into a padded layer
+     * once and drawn from it until a child changes.
+     */
+    @Test
+    public void testEffectIsRenderedOnceIntoLayer() {
+        Rectangle child = new Rectangle(0, 0, 10, 10, "red", null, 0);
+        container.add(child);
+        LayerEffect shadow = LayerEffect.dropShadow(2, 3, 5, 0x80000000);
+        container.setEffect(shadow);
+        when(mockAdapter.hasLayer(container.getLayerId())).thenReturn(true);
+
+        container.draw(mockAdapter);
+        container.draw(mockAdapter);
+
+        verify(mockAdapter, times(1)).beginLayer(container.getLayerId(), 66, 56);
+        verify(mockAdapter, times(1)).endLayer(shadow);
+        verify(mockAdapter, times(2)).drawLayer(container.getLayerId(), 92, 192, 66, 56);
+
+        child.setX(1);
+        container.draw(mockAdapter);
+
+        verify(mockAdapter, times(2)).beginLayer(container.getLayerId(), 66, 56);
+    }
+
+    /**
+     * Tests that a transparent container is drawn from a layer as a whole, and
+     * that changing its opacity does not render the layer again.
+     */
+    @Test
+    public void testOpacityIsAppliedToLayer() {
+        container.add(new Rectangle(0, 0, 10, 10, "red", null, 0));
+        container.setOpacity(0.5);
+        when(mockAdapter.hasLayer(container.getLayerId())).thenReturn(true);
+
+        container.draw(mockAdapter);
+        container.setOpacity(0.25);
+        container.draw(mockAdapter);
+
+        verify(mockAdapter, times(1)).beginLayer(container.getLayerId(), 50, 40);
+        verify(mockAdapter, times(1)).endLayer(null);
+        verify(mockAdapter).multiplyOpacity(0.5);
+        verify(mockAdapter).multiplyOpacity(0.25);
+        verify(mockAdapter, times(2)).drawLayer(container.getLayerId(), 100, 200, 50, 40);
+    }
+
+    /**
+     * Tests that a transparent shape without an effect is drawn directly with a lower opacity.
+     */
+    @Test
+    public void testTransparentShapeIsDrawnWithoutLayer() {
+        Rectangle rectangle = new Rectangle(0, 0, 10, 10, "red", null, 0);
+        rectangle.setOpacity(0.5);
+
+        rectangle.draw(mockAdapter);
+
+        InOrder order = inOrder(mockAdapter);
+        order.verify(mockAdapter).pushState();
+        order.verify(mockAdapter).multiplyOpacity(0.5);
+        order.verify(mockAdapter).fillRect(0, 0, 10, 10);
+        order.verify(mockAdapter).popState();
+        verify(mockAdapter, never()).beginLayer(anyString(), anyInt(), anyInt());
+    }
+}
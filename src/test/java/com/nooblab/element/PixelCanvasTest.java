@@ -0,0 +1,102 @@
+package com.nooblab.element;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nooblab.adapter.GraphicsAdapter;
+
+/**
+ * Unit tests for the {@link PixelCanvas} class.
+ * <p>
+ * This test suite verifies that pixel writes are clipped to the canvas, that
+ * they are collected into a single dirty region and that only that region is
+ * passed to the adapter when the canvas is drawn.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class PixelCanvasTest {
+
+    private GraphicsAdapter mockAdapter;
+    private PixelCanvas canvas;
+
+    @BeforeEach
+    void setUp() {
+        mockAdapter = mock(GraphicsAdapter.class);
+        canvas = new PixelCanvas(8, 6, 10, 20, 80, 60);
+    }
+
+    /**
+     * Tests that only the region covering all changes since the last draw is updated.
+     */
+    @Test
+    public void testOnlyDirtyRegionIsUpdated() {
+        canvas.draw(mockAdapter);
+        verify(mockAdapter, never()).updatePixels(anyString(), any(), anyInt(), anyInt(), anyInt(), anyInt(),
+                anyInt());
+        verify(mockAdapter).drawPixels(eq(canvas.getId()), any(), eq(8), eq(6), eq(10), eq(20), eq(80), eq(60));
+
+        canvas.setPixel(2, 3, 0xFFFF0000);
+        canvas.fillSpan(1, 4, 3, 0xFF00FF00);
+        assertTrue(canvas.isDirty());
+        canvas.draw(mockAdapter);
+        verify(mockAdapter).updatePixels(eq(canvas.getId()), any(), eq(8), eq(1), eq(3), eq(3), eq(2));
+        assertFalse(canvas.isDirty());
+
+        clearInvocations(mockAdapter);
+        canvas.draw(mockAdapter);
+        verify(mockAdapter, never()).updatePixels(anyString(), any(), anyInt(), anyInt(), anyInt(), anyInt(),
+                anyInt());
+    }
+
+    /**
+     * Tests that writes outside the canvas are clipped.
+     */
+    @Test
+    public void testWritesAreClipped() {
+        canvas.setPixel(8, 0, 0xFFFFFFFF);
+        canvas.setPixel(-1, 0, 0xFFFFFFFF);
+        canvas.fillSpan(0, 6, 4, 0xFFFFFFFF);
+        assertFalse(canvas.isDirty());
+
+        canvas.fillSpan(-2, 0, 4, 0xFF0000FF);
+        assertEquals(0xFF0000FF, canvas.getPixel(1, 0));
+        assertEquals(0, canvas.getPixel(2, 0));
+
+        canvas.blit(new int[] { 1, 2, 3, 4 }, 2, 2, 7, 5);
+        assertEquals(1, canvas.getPixel(7, 5));
+        assertEquals(0, canvas.getPixel(8, 5));
+        assertEquals(0, canvas.getPixel(-1, 0));
+
+        canvas.draw(mockAdapter);
+        verify(mockAdapter).updatePixels(eq(canvas.getId()), any(), eq(8), eq(0), eq(0), eq(8), eq(6));
+    }
+
+    /**
+     * Tests that a block is copied row by row and that mismatched blocks are rejected.
+     */
+    @Test
+    public void testBlit() {
+        canvas.blit(new int[] { 1, 2, 3, 4, 5, 6 }, 3, 2, 2, 1);
+
+        assertEquals(1, canvas.getPixel(2, 1));
+        assertEquals(3, canvas.getPixel(4, 1));
+        assertEquals(4, canvas.getPixel(2, 2));
+        assertEquals(6, canvas.getPixel(4, 2));
+        assertThrows(IllegalArgumentException.class, () -> canvas.blit(new int[5], 3, 2, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PixelCanvas(0, 1, 0, 0, 1, 1));
+    }
+}
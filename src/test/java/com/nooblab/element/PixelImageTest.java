@@ -0,0 +1,88 @@
+package com.nooblab.element;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import com.nooblab.adapter.GraphicsAdapter;
+
+/**
+ * Unit tests for the {@link PixelImage} class.
+ * <p>
+ * This test suite verifies that pixels changed in place are uploaded again once
+ * they are set, and that image data set on a pixel image, as for a web sprite,
+ * replaces its pixels.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class PixelImageTest {
+
+    private GraphicsAdapter mockAdapter;
+
+    @BeforeEach
+    void setUp() {
+        mockAdapter = mock(GraphicsAdapter.class);
+    }
+
+    /**
+     * Tests that setting the same array after changing it in place drops the
+     * uploaded pixels, and that drawing again without changes does not.
+     */
+    @Test
+    public void testSetPixelsAfterInPlaceChangeRedraws() {
+        int[] pixels = { 0xFFFF0000, 0xFF00FF00 };
+        PixelImage image = new PixelImage(pixels, 2, 1, 0, 0, 20, 10);
+        image.draw(mockAdapter);
+        assertTrue(image.isOpaque());
+
+        pixels[0] = 0x00000000;
+        image.setPixels(pixels, 2, 1);
+        image.draw(mockAdapter);
+        image.draw(mockAdapter);
+
+        InOrder order = inOrder(mockAdapter);
+        order.verify(mockAdapter).purgeRasterImage(image.getId());
+        order.verify(mockAdapter).drawPixels(eq(image.getId()), same(pixels), eq(2), eq(1), eq(0), eq(0), eq(20),
+                eq(10));
+        order.verify(mockAdapter).purgeRasterImage(image.getId());
+        order.verify(mockAdapter, times(2)).drawPixels(eq(image.getId()), same(pixels), eq(2), eq(1), eq(0),
+                eq(0), eq(20), eq(10));
+        verify(mockAdapter, times(2)).purgeRasterImage(image.getId());
+        assertFalse(image.isOpaque());
+    }
+
+    /**
+     * Tests that image data replaces the pixels, so a sprite can be updated like a
+     * web sprite.
+     */
+    @Test
+    public void testSetDataReplacesPixels() {
+        Element sprite = new PixelImage(new int[] { 0xFFFF0000 }, 1, 1, 0, 0, 10, 10);
+        assertTrue(sprite instanceof Image);
+        byte[] data = { 1, 2, 3 };
+
+        ((Image) sprite).setData(data);
+        sprite.draw(mockAdapter);
+
+        assertNull(((PixelImage) sprite).getPixels());
+        assertFalse(((Image) sprite).isOpaque());
+        verify(mockAdapter).drawRasterImage(sprite.getId(), data, 0, 0, 10, 10);
+        verify(mockAdapter, never()).drawPixels(anyString(), any(), anyInt(), anyInt(), anyInt(), anyInt(),
+                anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,153 @@
+package com.nooblab.element;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nooblab.adapter.GraphicsAdapter;
+
+/**
+ * Unit tests for the {@link TileMap} class.
+ * <p>
+ * This test suite verifies that tile maps are rendered in cached chunks, that
+ * chunks outside of the canvas are skipped, that nothing is drawn while the
+ * tileset loads, that chunks are rendered again once the tileset is decoded and
+ * that changing a tile only invalidates its own chunk.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class TileMapTest {
+
+    private GraphicsAdapter mockAdapter;
+    private TileMap tileMap;
+
+    @BeforeEach
+    void setUp() {
+        mockAdapter = mock(GraphicsAdapter.class);
+        when(mockAdapter.getCanvasWidth()).thenReturn(1000);
+        when(mockAdapter.getCanvasHeight()).thenReturn(1000);
+        when(mockAdapter.isRasterImageReady(anyString())).thenReturn(true);
+
+        // 64x64 tiles of 10 pixels, 4x4 chunks of which the canvas shows all
+        tileMap = new TileMap(new byte[0], 8, 10, new int[64 * 64], 64, 0, 0);
+    }
+
+    /**
+     * Tests that the map dimensions are derived from the tile array.
+     */
+    @Test
+    public void testDimensions() {
+        assertEquals(64, tileMap.getColumns());
+        assertEquals(64, tileMap.getRows());
+        assertEquals(640, tileMap.getWidth());
+        assertEquals(640, tileMap.getHeight());
+    }
+
+    /**
+     * Tests that every visible chunk is rendered once and then reused.
+     */
+    @Test
+    public void testChunksAreCached() {
+        tileMap.draw(mockAdapter);
+        verify(mockAdapter, times(16)).beginLayer(anyString(), eq(160), eq(160));
+        verify(mockAdapter, times(16)).drawLayer(anyString(), anyInt(), anyInt(), eq(160), eq(160));
+
+        clearInvocations(mockAdapter);
+        when(mockAdapter.hasLayer(anyString())).thenReturn(true);
+        tileMap.draw(mockAdapter);
+        verify(mockAdapter, never()).beginLayer(anyString(), anyInt(), anyInt());
+        verify(mockAdapter, times(16)).drawLayer(anyString(), anyInt(), anyInt(), eq(160), eq(160));
+    }
+
+    /**
+     * Tests that chunks rendered while the tileset is still decoding are rendered
+     * again once it is decoded, and then reused.
+     */
+    @Test
+    public void testChunksRenderedAgainOnceTilesetDecoded() {
+        when(mockAdapter.isRasterImageReady(anyString())).thenReturn(false);
+        when(mockAdapter.hasLayer(anyString())).thenReturn(true);
+        tileMap.draw(mockAdapter);
+        tileMap.draw(mockAdapter);
+        verify(mockAdapter, times(32)).beginLayer(anyString(), eq(160), eq(160));
+
+        clearInvocations(mockAdapter);
+        when(mockAdapter.isRasterImageReady(anyString())).thenReturn(true);
+        tileMap.draw(mockAdapter);
+        tileMap.draw(mockAdapter);
+        verify(mockAdapter, times(16)).beginLayer(anyString(), eq(160), eq(160));
+    }
+
+    /**
+     * Tests that a map whose tileset is still loading draws nothing until the
+     * tileset is set.
+     */
+    @Test
+    public void testLoadingTilesetDrawsNothing() {
+        TileMap loading = new TileMap(null, 0, 10, new int[4], 2, 0, 0);
+        loading.draw(mockAdapter);
+        verify(mockAdapter, never()).beginLayer(anyString(), anyInt(), anyInt());
+        verify(mockAdapter, never()).drawLayer(anyString(), anyInt(), anyInt(), anyInt(), anyInt());
+
+        loading.setTileset(new byte[0], 8);
+        loading.draw(mockAdapter);
+        verify(mockAdapter).beginLayer(anyString(), eq(20), eq(20));
+        verify(mockAdapter).drawLayer(anyString(), eq(0), eq(0), eq(20), eq(20));
+    }
+
+    /**
+     * Tests that changing a tile only re-renders the chunk that contains it.
+     */
+    @Test
+    public void testSetTileInvalidatesSingleChunk() {
+        tileMap.draw(mockAdapter);
+        clearInvocations(mockAdapter);
+        when(mockAdapter.hasLayer(anyString())).thenReturn(true);
+
+        tileMap.setTile(20, 40, 3);
+        assertEquals(3, tileMap.getTile(20, 40));
+        tileMap.draw(mockAdapter);
+
+        // Tile 20,40 lives in chunk column 1, row 2
+        verify(mockAdapter, times(1)).beginLayer(anyString(), anyInt(), anyInt());
+        verify(mockAdapter).beginLayer(endsWith(":chunk:9"), eq(160), eq(160));
+        verify(mockAdapter).drawRasterImageRegion(anyString(), eq(new byte[0]), eq(30), eq(0), eq(10), eq(10),
+                eq(40), eq(80), eq(10), eq(10));
+    }
+
+    /**
+     * Tests that chunks outside of the canvas are neither rendered nor drawn.
+     */
+    @Test
+    public void testCameraCulling() {
+        tileMap.setX(-200);
+        tileMap.setY(900);
+        tileMap.draw(mockAdapter);
+
+        // Only chunk columns 1-3 of chunk row 0 are on screen
+        verify(mockAdapter, times(3)).beginLayer(anyString(), anyInt(), anyInt());
+        verify(mockAdapter).drawLayer(endsWith(":chunk:1"), eq(-40), eq(900), eq(160), eq(160));
+        verify(mockAdapter, never()).drawLayer(endsWith(":chunk:0"), anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    /**
+     * Tests that tiles outside of the map are rejected.
+     */
+    @Test
+    public void testSetTileOutOfBounds() {
+        assertThrows(IndexOutOfBoundsException.class, () -> tileMap.setTile(64, 0, 1));
+    }
+}
@@ -0,0 +1,219 @@
+package com.nooblab.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.element.Circle;
+import com.nooblab.element.Element;
+import com.nooblab.element.PixelImage;
+import com.nooblab.element.Polygon;
+import com.nooblab.element.Rectangle;
+import com.nooblab.text.FontWeight;
+import com.nooblab.util.ElementList;
+
+/**
+ * Unit tests for the {@link DisplayList} and {@link StaticGroup} classes.
+ * <p>
+ * This test suite verifies that recorded calls are replayed with the same
+ * arguments and in the same order, and that static groups are only recorded
+ * again when one of their members changes.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class DisplayListTest {
+
+    private GraphicsAdapter mockAdapter;
+
+    /**
+     * Matches a point array that starts with the given values, since replayed
+     * polygons use a shared buffer that may be longer than the point count.
+     */
+    private static int[] points(int... expected) {
+        return argThat(actual -> actual != null && actual.length >= expected.length
+                && Arrays.equals(actual, 0, expected.length, expected, 0, expected.length));
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockAdapter = mock(GraphicsAdapter.class);
+        when(mockAdapter.getCanvasWidth()).thenReturn(1000);
+        when(mockAdapter.getCanvasHeight()).thenReturn(1000);
+    }
+
+    /**
+     * Tests that calls are replayed in the order they were recorded.
+     */
+    @Test
+    public void testReplayPreservesCalls() {
+        DisplayList displayList = new DisplayList();
+        displayList.resetState();
+        displayList.setFill("red");
+        displayList.fillRect(1, 2, 3, 4);
+        displayList.setFontWeight(FontWeight.BOLD);
+        displayList.fillText(5, 6, "hello");
+        displayList.strokePolygon(new int[] { 1, 2, 3 }, new int[] { 4, 5, 6 }, 3);
+        displayList.pushState();
+        displayList.translate(-3, 4);
+        displayList.strokeLine(7, 8, 9, 10);
+        displayList.popState();
+
+        displayList.replay(mockAdapter);
+        displayList.replay(mockAdapter);
+
+        InOrder order = inOrder(mockAdapter);
+        for (int i = 0; i < 2; i++) {
+            order.verify(mockAdapter).resetState();
+            order.verify(mockAdapter).setFill("red");
+            order.verify(mockAdapter).fillRect(1, 2, 3, 4);
+            order.verify(mockAdapter).setFontWeight(FontWeight.BOLD);
+            order.verify(mockAdapter).fillText(5, 6, "hello");
+            order.verify(mockAdapter).strokePolygon(points(1, 2, 3), points(4, 5, 6), eq(3));
+            order.verify(mockAdapter).pushState();
+            order.verify(mockAdapter).translate(-3, 4);
+            order.verify(mockAdapter).strokeLine(7, 8, 9, 10);
+            order.verify(mockAdapter).popState();
+        }
+    }
+
+    /**
+     * Tests that a missing colour does not break sharing of the colour constant.
+     */
+    @Test
+    public void testNullColorIsShared() {
+        DisplayList displayList = new DisplayList();
+        displayList.setStroke(null);
+        displayList.setStroke(null);
+        displayList.setStroke("blue");
+
+        displayList.replay(mockAdapter);
+
+        InOrder order = inOrder(mockAdapter);
+        order.verify(mockAdapter, times(2)).setStroke((String) null);
+        order.verify(mockAdapter).setStroke("blue");
+    }
+
+    /**
+     * Tests that clearing a display list removes all recorded calls.
+     */
+    @Test
+    public void testClear() {
+        DisplayList displayList = new DisplayList();
+        displayList.fillOval(1, 2, 3, 4);
+        assertTrue(displayList.getCodeSize() > 0);
+
+        displayList.clear();
+        displayList.replay(mockAdapter);
+
+        assertTrue(displayList.isEmpty());
+        verify(mockAdapter, never()).fillOval(1, 2, 3, 4);
+    }
+
+    /**
+     * Tests that a recorder records elements instead of drawing them.
+     */
+    @Test
+    public void testRecorderRecordsElements() {
+        DisplayList displayList = new DisplayList();
+        DisplayListRecorder recorder = new DisplayListRecorder(mockAdapter);
+        recorder.setDisplayList(displayList);
+
+        new Polygon(new int[] { 0, 10, 0 }, new int[] { 0, 0, 10 }, "green", "black", 2).draw(recorder);
+        verify(mockAdapter, never()).fillPolygon(any(), any(), anyInt());
+
+        displayList.replay(mockAdapter);
+        verify(mockAdapter).fillPolygon(points(0, 10, 0), points(0, 0, 10), eq(3));
+        verify(mockAdapter).strokePolygon(points(0, 10, 0), points(0, 0, 10), eq(3));
+    }
+
+    /**
+     * Tests that raw pixels are recorded and replayed with the same pixel array.
+     */
+    @Test
+    public void testPixelsAreRecorded() {
+        DisplayList displayList = new DisplayList();
+        DisplayListRecorder recorder = new DisplayListRecorder(mockAdapter);
+        recorder.setDisplayList(displayList);
+        int[] pixels = { 0xFFFF0000, 0xFF00FF00 };
+
+        new PixelImage(pixels, 2, 1, 5, 6, 20, 10).draw(recorder);
+        verify(mockAdapter, never()).drawPixels(anyString(), any(), anyInt(), anyInt(), anyInt(), anyInt(),
+                anyInt(), anyInt());
+
+        displayList.replay(mockAdapter);
+        verify(mockAdapter).drawPixels(anyString(), same(pixels), eq(2), eq(1), eq(5), eq(6), eq(20), eq(10));
+    }
+
+    /**
+     * Tests that a static group is recorded and rasterized once, and again only
+     * after a member changes.
+     */
+    @Test
+    public void testStaticGroupRecordedOnlyOnChange() {
+        when(mockAdapter.hasLayer(anyString())).thenReturn(true);
+        ElementList<Element> elements = new ElementList<Element>();
+        Rectangle background = new Rectangle(0, 0, 100, 100, "white", null, 0);
+        Circle circle = new Circle(50, 50, 10, "red", null, 0);
+        elements.add(background);
+        elements.add(circle);
+        Renderer renderer = new Renderer(mockAdapter, elements);
+        StaticGroup group = renderer.markStatic("background", elements);
+
+        renderer.renderFrame();
+        renderer.renderFrame();
+
+        verify(mockAdapter, times(1)).beginLayer(group.getLayerId(), 1000, 1000);
+        verify(mockAdapter, times(1)).fillRect(0, 0, 100, 100);
+        verify(mockAdapter, times(1)).fillOval(40, 40, 20, 20);
+        verify(mockAdapter, times(2)).drawLayer(group.getLayerId(), 0, 0, 1000, 1000);
+        assertEquals(1, renderer.getStats().getElementsDrawn());
+
+        circle.setColor("blue");
+        renderer.renderFrame();
+
+        verify(mockAdapter, times(2)).beginLayer(group.getLayerId(), 1000, 1000);
+        verify(mockAdapter, times(2)).fillRect(0, 0, 100, 100);
+        verify(mockAdapter).setFill(0xFF0000FF);
+    }
+
+    /**
+     * Tests that a group that is not rasterized is replayed every frame and that
+     * unmarked elements are drawn on their own again.
+     */
+    @Test
+    public void testStaticGroupReplayAndUnmark() {
+        ElementList<Element> elements = new ElementList<Element>();
+        Rectangle rectangle = new Rectangle(0, 0, 100, 100, "white", null, 0);
+        elements.add(rectangle);
+        Renderer renderer = new Renderer(mockAdapter, elements);
+        renderer.markStatic("group", elements).setRasterized(false);
+
+        renderer.renderFrame();
+        renderer.renderFrame();
+        verify(mockAdapter, times(2)).fillRect(0, 0, 100, 100);
+        verify(mockAdapter, never()).beginLayer(anyString(), anyInt(), anyInt());
+
+        renderer.unmarkStatic(rectangle);
+        renderer.renderFrame();
+        verify(mockAdapter, times(3)).fillRect(0, 0, 100, 100);
+    }
+}
@@ -0,0 +1,274 @@
+package com.nooblab.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+
+import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.element.Circle;
+import com.nooblab.element.Element;
+import com.nooblab.element.Image;
+import com.nooblab.element.Line;
+import com.nooblab.element.Rectangle;
+import com.nooblab.util.ElementList;
+
+/**
+ * Unit tests for the {@link Renderer} class.
+ * <p>
+ * This test suite verifies that elements hidden behind opaque elements are
+ * skipped, that the canvas is only cleared when it is not fully covered and
+ * that elements are batched by type and full state only where the draw order
+ * does not matter, that immediate-mode frames are drawn on top until they are
+ * replaced, and that removed elements release their adapter resources on the
+ * rendering thread.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class RendererTest {
+
+    private GraphicsAdapter mockAdapter;
+    private ElementList<Element> elements;
+    private Renderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        mockAdapter = mock(GraphicsAdapter.class);
+        when(mockAdapter.getCanvasWidth()).thenReturn(1000);
+        when(mockAdapter.getCanvasHeight()).thenReturn(1000);
+        elements = new ElementList<Element>();
+        renderer = new Renderer(mockAdapter, elements);
+    }
+
+    /**
+     * Tests that an opaque background covering the canvas skips the clear.
+     */
+    @Test
+    public void testFullCoverSkipsClear() {
+        elements.add(new Circle(500, 500, 10, "red", null, 0));
+        elements.add(new Rectangle(0, 0, 1000, 1000, "white", null, 0));
+        elements.add(new Circle(100, 100, 10, "blue", null, 0));
+
+        renderer.renderFrame();
+
+        verify(mockAdapter, never()).clear();
+        verify(mockAdapter, never()).fillOval(490, 490, 20, 20);
+        verify(mockAdapter).fillRect(0, 0, 1000, 1000);
+        verify(mockAdapter).fillOval(90, 90, 20, 20);
+        assertTrue(renderer.getStats().isClearSkipped());
+        assertEquals(2, renderer.getStats().getElementsDrawn());
+    }
+
+    /**
+     * Tests that elements completely covered by a later opaque rectangle are skipped.
+     */
+    @Test
+    public void testCoveredElementIsCulled() {
+        elements.add(new Circle(50, 50, 10, "red", null, 0));
+        elements.add(new Circle(95, 50, 10, "red", null, 0));
+        elements.add(new Rectangle(0, 0, 100, 100, "black", null, 0));
+
+        renderer.renderFrame();
+
+        verify(mockAdapter).clear();
+        verify(mockAdapter, never()).fillOval(40, 40, 20, 20);
+        verify(mockAdapter).fillOval(85, 40, 20, 20);
+        assertFalse(renderer.getStats().isClearSkipped());
+        assertEquals(1, renderer.getStats().getElementsCulled());
+    }
+
+    /**
+     * Tests that translucent and hidden rectangles do not hide anything.
+     */
+    @Test
+    public void testTranslucentAndHiddenRectanglesDoNotOcclude() {
+        elements.add(new Circle(50, 50, 10, "red", null, 0));
+        elements.add(new Rectangle(0, 0, 1000, 1000, "rgba(0, 0, 0, 0.5)", null, 0));
+        Rectangle hidden = new Rectangle(0, 0, 1000, 1000, "black", null, 0);
+        hidden.hide();
+        elements.add(hidden);
+
+        renderer.renderFrame();
+
+        verify(mockAdapter).clear();
+        verify(mockAdapter).fillOval(40, 40, 20, 20);
+        assertEquals(0, renderer.getStats().getElementsCulled());
+    }
+
+    /**
+     * Tests that an image decoded without transparent pixels only hides what is
+     * underneath once it is decoded.
+     */
+    @Test
+    public void testImageOccludesOnlyOnceDecoded() {
+        elements.add(new Circle(50, 50, 10, "red", null, 0));
+        Image image = new Image(new byte[] { 1 }, 0, 0, 1000, 1000);
+        elements.add(image);
+        when(mockAdapter.isRasterImageOpaque(image.getId())).thenReturn(true);
+
+        renderer.renderFrame();
+        verify(mockAdapter).clear();
+        verify(mockAdapter).fillOval(40, 40, 20, 20);
+
+        when(mockAdapter.isRasterImageReady(image.getId())).thenReturn(true);
+        renderer.renderFrame();
+        renderer.renderFrame();
+        verify(mockAdapter, times(2)).clear();
+        verify(mockAdapter, times(2)).fillOval(40, 40, 20, 20);
+        assertTrue(renderer.getStats().isClearSkipped());
+    }
+
+    /**
+     * Tests that non-overlapping elements are grouped by type and state.
+     */
+    @Test
+    public void testNonOverlappingElementsAreBatched() {
+        elements.add(new Circle(10, 10, 5, "red", null, 0));
+        elements.add(new Line(100, 100, 120, 120, "red", 1));
+        elements.add(new Circle(200, 200, 5, "blue", null, 0));
+        elements.add(new Circle(300, 300, 5, "red", null, 0));
+        elements.add(new Line(400, 400, 420, 420, "red", 1));
+
+        renderer.renderFrame();
+
+        // Lines keep their relative order within their batch
+        InOrder lineOrder = inOrder(mockAdapter);
+        lineOrder.verify(mockAdapter).strokeLine(100, 100, 120, 120);
+        lineOrder.verify(mockAdapter).strokeLine(400, 400, 420, 420);
+        verify(mockAdapter).fillOval(5, 5, 10, 10);
+        verify(mockAdapter).fillOval(195, 195, 10, 10);
+        verify(mockAdapter).fillOval(295, 295, 10, 10);
+        assertEquals(5, renderer.getStats().getElementsDrawn());
+        assertEquals(3, renderer.getStats().getBatches());
+    }
+
+    /**
+     * Tests that elements whose states differ only in the upper bits of their state
+     * keys, such as colors that differ only in alpha, are not batched together.
+     */
+    @Test
+    public void testFullStateKeySeparatesBatches() {
+        elements.add(new Circle(10, 10, 5, "red", null, 0));
+        elements.add(new Circle(200, 200, 5, "rgba(255, 0, 0, 0.5)", null, 0));
+
+        renderer.renderFrame();
+
+        assertEquals(2, renderer.getStats().getBatches());
+    }
+
+    /**
+     * Tests that overlapping elements keep their order unless the renderer is unordered.
+     */
+    @Test
+    public void testOverlappingElementsKeepOrder() {
+        elements.add(new Circle(10, 10, 5, "red", null, 0));
+        elements.add(new Circle(12, 12, 5, "blue", null, 0));
+        elements.add(new Circle(14, 14, 5, "red", null, 0));
+
+        renderer.renderFrame();
+        assertEquals(3, renderer.getStats().getBatches());
+
+        renderer.setUnordered(true);
+        renderer.renderFrame();
+        assertEquals(2, renderer.getStats().getBatches());
+    }
+
+    /**
+     * Tests that a submitted frame is drawn after the elements until it is replaced.
+     */
+    @Test
+    public void testImmediateFrameReplacesPreviousFrame() {
+        elements.add(new Rectangle(0, 0, 100, 100, "white", null, 0));
+        renderer.submitFrame(ctx -> ctx.circle(50, 50, 10, "red"));
+
+        renderer.renderFrame();
+        renderer.renderFrame();
+
+        InOrder order = inOrder(mockAdapter);
+        order.verify(mockAdapter).fillRect(0, 0, 100, 100);
+        order.verify(mockAdapter).fillOval(40, 40, 20, 20);
+        verify(mockAdapter, times(2)).fillOval(40, 40, 20, 20);
+
+        renderer.submitFrame(ctx -> ctx.line(0, 0, 10, 10, "blue", 2));
+        renderer.renderFrame();
+        renderer.clearFrame();
+        renderer.renderFrame();
+
+        verify(mockAdapter, times(2)).fillOval(40, 40, 20, 20);
+        verify(mockAdapter, times(1)).strokeLine(0, 0, 10, 10);
+        assertEquals(1, renderer.getStats().getElementsDrawn());
+    }
+
+    /**
+     * Tests that shapes drawn in a frame without a colour are drawn black, like
+     * elements without a colour.
+     */
+    @Test
+    public void testImmediateFrameDefaultsMissingColour() {
+        renderer.submitFrame(ctx -> {
+            ctx.rect(0, 0, 10, 10, null, null, 1);
+            ctx.line(0, 0, 10, 10, null, 1);
+        });
+
+        renderer.renderFrame();
+
+        verify(mockAdapter).setFill("black");
+        verify(mockAdapter, times(2)).setStroke("black");
+        verify(mockAdapter, never()).setFill((String) null);
+        verify(mockAdapter, never()).setStroke((String) null);
+    }
+
+    /**
+     * Tests that image patterns in a frame are resolved and loaded while the frame
+     * is recorded, so the adapter only ever receives loaded paints.
+     */
+    @Test
+    public void testImmediateFramePreloadsPaints(@TempDir Path directory) throws IOException {
+        Path tile = directory.resolve("tile.png");
+        Files.write(tile, new byte[] { 1, 2, 3 });
+        String pattern = "url(" + tile.toUri() + ")";
+
+        renderer.submitFrame(ctx -> ctx.rect(0, 0, 10, 10, pattern));
+        renderer.renderFrame();
+
+        verify(mockAdapter).setFillPaint(argThat(paint -> paint.getUrl().equals(tile.toUri().toString())
+                && paint.isImageLoaded()));
+        verify(mockAdapter, never()).setFill(pattern);
+    }
+
+    /**
+     * Tests that a removed image releases its cached image before the next frame,
+     * and not before.
+     */
+    @Test
+    public void testRemovedElementReleasesResources() {
+        Image image = new Image(new byte[] { 1 }, 0, 0, 10, 10);
+        elements.add(image);
+        renderer.elementAdded(image);
+        renderer.renderFrame();
+
+        elements.remove(image);
+        renderer.elementRemoved(image);
+        verify(mockAdapter, never()).purgeRasterImage(image.getId());
+
+        renderer.renderFrame();
+        renderer.renderFrame();
+        verify(mockAdapter, times(1)).purgeRasterImage(image.getId());
+    }
+}
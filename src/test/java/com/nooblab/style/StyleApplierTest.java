@@ -12,6 +12,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.nooblab.adapter.GraphicsAdapter;
+import com.nooblab.text.FontStyle;
+import com.nooblab.text.FontWeight;
+import com.nooblab.text.TextAlign;
 
 /**
  * Unit tests for the {@link StyleApplier} class.
@@ -97,7 +100,7 @@ public final class StyleApplierTest {
     @Test
     public void testApplyNullStyle() {
         Exception exception = assertThrows(NullPointerException.class, () -> {
-            StyleApplier.applyStyle(mockAdapter, null);
+            StyleApplier.applyStyle(mockAdapter, (Style) null);
         });
         assertEquals("GraphicsAdapter and Style must not be null.", exception.getMessage());
     }
@@ -112,4 +115,54 @@ public final class StyleApplierTest {
         });
         assertEquals("GraphicsAdapter and Style must not be null.", exception.getMessage());
     }
+
+    /**
+     * Tests that a resolved style applies the same settings as the style it was resolved from.
+     */
+    @Test
+    public void testApplyResolvedStyle() {
+        style.setColor("red");
+        style.setTextAlign("center");
+        style.setFontFamily("Arial");
+        style.setFontSize("16px");
+        style.setFontWeight("bold");
+        style.setFontStyle("italic");
+
+        StyleApplier.applyStyle(mockAdapter, ResolvedStyle.of(style));
+
+        verify(mockAdapter).setFill(0xFFFF0000);
+        verify(mockAdapter).setTextAlign(TextAlign.CENTER);
+        verify(mockAdapter).setFontFamily("Arial");
+        verify(mockAdapter).setFontSize(16);
+        verify(mockAdapter).setFontWeight(FontWeight.BOLD);
+        verify(mockAdapter).setFontStyle(FontStyle.ITALIC);
+    }
+
+    /**
+     * Tests that an empty resolved style does not invoke any methods on the adapter.
+     */
+    @Test
+    public void testApplyEmptyResolvedStyle() {
+        StyleApplier.applyStyle(mockAdapter, ResolvedStyle.of(style));
+
+        verify(mockAdapter, never()).setFill(anyInt());
+        verify(mockAdapter, never()).setTextAlign(any());
+        verify(mockAdapter, never()).setFontFamily(any());
+        verify(mockAdapter, never()).setFontSize(anyInt());
+        verify(mockAdapter, never()).setFontWeight(any());
+        verify(mockAdapter, never()).setFontStyle(any());
+    }
+
+    /**
+     * Tests that invalid values are reported when the style is resolved rather than when it is applied.
+     */
+    @Test
+    public void testResolveInvalidStyle() {
+        style.setFontSize("16rem");
+        assertThrows(NumberFormatException.class, () -> ResolvedStyle.of(style));
+
+        style.setFontSize(null);
+        style.setColor("#12345");
+        assertThrows(IllegalArgumentException.class, () -> ResolvedStyle.of(style));
+    }
 }
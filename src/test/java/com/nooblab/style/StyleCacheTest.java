@@ -0,0 +1,67 @@
+package com.nooblab.style;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link StyleCache} class.
+ * <p>
+ * This test suite verifies that style definitions are resolved once and shared,
+ * and that the cache stays within its size limit.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public final class StyleCacheTest {
+
+    @BeforeEach
+    void setUp() {
+        StyleCache.clear();
+    }
+
+    /**
+     * Tests that equal style definitions share one resolved style.
+     */
+    @Test
+    public void testEqualDefinitionsShareStyle() {
+        String definition = "color: white; font-size: 14px";
+        ResolvedStyle style = StyleCache.resolve(definition);
+
+        assertSame(style, StyleCache.resolve(new String(definition)));
+        assertEquals(0xFFFFFFFF, style.getColor());
+        assertEquals(14, style.getFontSize());
+        assertSame(ResolvedStyle.EMPTY, StyleCache.resolve(null));
+        assertEquals(1, StyleCache.size());
+    }
+
+    /**
+     * Tests that the least recently used definitions are evicted once the cache is full.
+     */
+    @Test
+    public void testCacheIsBounded() {
+        ResolvedStyle first = StyleCache.resolve("font-size: 0px");
+        ResolvedStyle second = StyleCache.resolve("font-size: 1px");
+        for (int i = 2; i <= StyleCache.MAX_SIZE; i++) {
+            StyleCache.resolve("font-size: 0px");
+            StyleCache.resolve("font-size: " + i + "px");
+        }
+
+        assertEquals(StyleCache.MAX_SIZE, StyleCache.size());
+        assertSame(first, StyleCache.resolve("font-size: 0px"));
+        assertNotSame(second, StyleCache.resolve("font-size: 1px"));
+    }
+
+    /**
+     * Tests that invalid definitions are rejected and not cached.
+     */
+    @Test
+    public void testInvalidDefinition() {
+        assertThrows(NumberFormatException.class, () -> StyleCache.resolve("font-size: 12rem"));
+        assertEquals(0, StyleCache.size());
+    }
+}
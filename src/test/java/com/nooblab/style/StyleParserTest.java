@@ -99,4 +99,30 @@ public final class StyleParserTest {
         assertNull(style.getFontStyle());
         assertNull(style.getTextAlign());
     }
+
+    /**
+     * Tests quoted values, the "=" separator and declarations separated by new lines.
+     */
+    @Test
+    public void testQuotedValues() {
+        String styleDefinition = "font-family: \"Comic Sans; MS\"; font-style='italic'\ncolor = blue ";
+        Style style = StyleParser.parse(styleDefinition);
+
+        assertEquals("Comic Sans; MS", style.getFontFamily());
+        assertEquals("italic", style.getFontStyle());
+        assertEquals("blue", style.getColor());
+        assertNull(style.getFontSize());
+    }
+
+    /**
+     * Tests that text which is not a declaration is skipped.
+     */
+    @Test
+    public void testMalformedDeclarations() {
+        Style style = StyleParser.parse(";; nonsense ; color red; #: x; text-align: center; font-size:");
+
+        assertNull(style.getColor());
+        assertEquals("center", style.getTextAlign());
+        assertEquals("", style.getFontSize());
+    }
 }
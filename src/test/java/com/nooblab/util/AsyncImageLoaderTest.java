@@ -0,0 +1,97 @@
+package com.nooblab.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the {@link AsyncImageLoader} class.
+ * <p>
+ * This test suite verifies that images are loaded in the background from local
+ * file URLs, that repeated and preloaded requests share one download, that SVG
+ * images are converted once per size and that failed loads are tried again.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class AsyncImageLoaderTest {
+
+    private static final String SVG = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"10\" height=\"10\">"
+            + "<rect width=\"10\" height=\"10\" fill=\"red\"/></svg>";
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that a preloaded image is downloaded once and shared by later loads.
+     */
+    @Test
+    public void testPreloadedImagesAreShared() throws IOException {
+        Path file = directory.resolve("sprite.png");
+        byte[] data = { 1, 2, 3, 4 };
+        Files.write(file, data);
+        String url = file.toUri().toString();
+
+        AsyncImageLoader.preload(url);
+        assertSame(AsyncImageLoader.load(url, 0, 0), AsyncImageLoader.load(url, 10, 10));
+        assertArrayEquals(data, AsyncImageLoader.load(url, 0, 0).join());
+
+        Files.delete(file);
+        assertArrayEquals(data, AsyncImageLoader.load(url, 0, 0).join());
+    }
+
+    /**
+     * Tests that SVG images are converted to PNG images once per requested size.
+     */
+    @Test
+    public void testSVGIsConvertedPerSize() throws IOException {
+        Path file = directory.resolve("card.svg");
+        Files.write(file, SVG.getBytes(StandardCharsets.UTF_8));
+        String url = file.toUri().toString();
+
+        CompletableFuture<byte[]> small = AsyncImageLoader.load(url, 20, 20);
+
+        assertSame(small, AsyncImageLoader.load(url, 20, 20));
+        assertNotSame(small, AsyncImageLoader.load(url, 40, 40));
+        assertNotNull(small.join());
+    }
+
+    /**
+     * Tests that an SVG image that is not well-formed fails to convert.
+     */
+    @Test
+    public void testMalformedSVGFailsToConvert() throws IOException {
+        Path file = directory.resolve("broken.svg");
+        Files.write(file, "<svg xmlns=\"http://www.w3.org/2000/svg\">".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(AsyncImageLoader.load(file.toUri().toString(), 20, 20).join());
+    }
+
+    /**
+     * Tests that a failed load completes with {@code null} and is tried again when
+     * the image is requested the next time.
+     */
+    @Test
+    public void testFailedLoadIsRetried() throws IOException {
+        Path file = directory.resolve("missing.png");
+        String url = file.toUri().toString();
+
+        assertNull(AsyncImageLoader.load(url, 0, 0).join());
+        assertNull(AsyncImageLoader.load("not a url", 0, 0).join());
+
+        byte[] data = { 5, 6, 7 };
+        Files.write(file, data);
+        assertArrayEquals(data, AsyncImageLoader.load(url, 0, 0).join());
+    }
+}
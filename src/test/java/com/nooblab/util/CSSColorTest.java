@@ -0,0 +1,107 @@
+package com.nooblab.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link CSSColor} and {@link CSSNamedColor} classes.
+ * <p>
+ * This test suite verifies that every supported CSS color notation is
+ * converted to the expected ARGB value and that malformed colors are rejected.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class CSSColorTest {
+
+    /**
+     * Tests the short and long hexadecimal notations, with and without alpha.
+     */
+    @Test
+    public void testHexColors() {
+        assertEquals(0xFFFF0000, CSSColor.toARGB("#F00"));
+        assertEquals(0x88FF0000, CSSColor.toARGB("#f008"));
+        assertEquals(0xFF12AB34, CSSColor.toARGB("#12ab34"));
+        assertEquals(0x8012AB34, CSSColor.toARGB("#12AB3480"));
+        assertEquals(0xFF000000, CSSColor.toARGB("  #000000  "));
+    }
+
+    /**
+     * Tests the rgb() and rgba() notations, including percentages and the
+     * space-separated syntax.
+     */
+    @Test
+    public void testRgbColors() {
+        assertEquals(0xFFFF0000, CSSColor.toARGB("rgb(255, 0, 0)"));
+        assertEquals(0x800000FF, CSSColor.toARGB("rgba(0, 0, 255, 0.5)"));
+        assertEquals(0xFFFF8000, CSSColor.toARGB("rgb(100%, 50.2%, 0%)"));
+        assertEquals(0x4000FF00, CSSColor.toARGB("rgb(0 255 0 / 25%)"));
+        assertEquals(0xFF0A0B0C, CSSColor.toARGB("RGBA(10,11,12)"));
+        assertEquals(0xFFFF0000, CSSColor.toARGB("rgb(300, -5, 0)"));
+    }
+
+    /**
+     * Tests the hsl() and hsla() notations.
+     */
+    @Test
+    public void testHslColors() {
+        assertEquals(0xFFFF0000, CSSColor.toARGB("hsl(0, 100%, 50%)"));
+        assertEquals(0xFF00FF00, CSSColor.toARGB("hsl(120deg 100% 50%)"));
+        assertEquals(0x800000FF, CSSColor.toARGB("hsla(240, 100%, 50%, 0.5)"));
+        assertEquals(0xFF808080, CSSColor.toARGB("hsl(0, 0%, 50.2%)"));
+        assertEquals(0xFFFF0000, CSSColor.toARGB("hsl(360, 100%, 50%)"));
+    }
+
+    /**
+     * Tests named colors, which are matched regardless of case.
+     */
+    @Test
+    public void testNamedColors() {
+        assertEquals(0xFFFF0000, CSSColor.toARGB("red"));
+        assertEquals(0xFF6495ED, CSSColor.toARGB("CornflowerBlue"));
+        assertEquals(0x00000000, CSSColor.toARGB("transparent"));
+        assertEquals(0x00000000, CSSColor.toARGB("notacolor"));
+
+        for (CSSNamedColor color : CSSNamedColor.values()) {
+            assertSame(color, CSSNamedColor.fromName(color.getName().toUpperCase()));
+        }
+        assertNull(CSSNamedColor.fromName("reds"));
+        assertNull(CSSNamedColor.fromName(null));
+        assertSame(CSSNamedColor.BLUE, CSSNamedColor.fromName("[blue]", 1, 5));
+    }
+
+    /**
+     * Tests that malformed colors are rejected and that the fallback is used for them.
+     */
+    @Test
+    public void testMalformedColors() {
+        assertThrows(IllegalArgumentException.class, () -> CSSColor.toARGB("#12345"));
+        assertThrows(IllegalArgumentException.class, () -> CSSColor.toARGB("#GG0000"));
+        assertThrows(IllegalArgumentException.class, () -> CSSColor.toARGB("rgb(1, 2)"));
+        assertThrows(IllegalArgumentException.class, () -> CSSColor.toARGB("rgb(1, 2, 3, 4, 5)"));
+        assertThrows(IllegalArgumentException.class, () -> CSSColor.toARGB("rgb(1px, 2, 3)"));
+        assertThrows(IllegalArgumentException.class, () -> CSSColor.toARGB("rgb(1, 2, 3"));
+        assertThrows(IllegalArgumentException.class, () -> CSSColor.toARGB("cmyk(1, 2, 3)"));
+        assertEquals(CSSColor.BLACK, CSSColor.toARGB("rgb(", CSSColor.BLACK));
+        assertEquals(CSSColor.BLACK, CSSColor.toARGB(null, CSSColor.BLACK));
+        assertEquals(0x00000000, CSSColor.toARGB("notacolor", CSSColor.BLACK));
+    }
+
+    /**
+     * Tests that repeated conversions of the same string return the same value.
+     */
+    @Test
+    public void testRepeatedConversion() {
+        String color = "rgba(1, 2, 3, 1)";
+        assertEquals(0xFF010203, CSSColor.toARGB(color));
+        assertEquals(0xFF010203, CSSColor.toARGB(new String(color)));
+        assertTrue(CSSColor.isOpaque(color));
+        assertFalse(CSSColor.isOpaque("rgba(1, 2, 3, 0.99)"));
+    }
+}
@@ -0,0 +1,106 @@
+package com.nooblab.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link CSSPaint} class.
+ * <p>
+ * This test suite verifies that gradient and image pattern definitions are
+ * parsed into the expected directions, stops and URLs, that repeated
+ * definitions share one parsed paint and that malformed definitions are rejected.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class CSSPaintTest {
+
+    /**
+     * Tests that paint definitions are told apart from plain colors.
+     */
+    @Test
+    public void testIsPaint() {
+        assertTrue(CSSPaint.isPaint("linear-gradient(red, blue)"));
+        assertTrue(CSSPaint.isPaint("  Radial-Gradient(red, blue)"));
+        assertTrue(CSSPaint.isPaint("url(tile.png)"));
+        assertFalse(CSSPaint.isPaint("red"));
+        assertFalse(CSSPaint.isPaint("rgb(0, 0, 0)"));
+        assertFalse(CSSPaint.isPaint(null));
+    }
+
+    /**
+     * Tests the angle and direction forms of a linear gradient.
+     */
+    @Test
+    public void testLinearGradientDirection() {
+        assertEquals(180, CSSPaint.parse("linear-gradient(red, blue)").getAngle());
+        assertEquals(45, CSSPaint.parse("linear-gradient(45deg, red, blue)").getAngle());
+        assertEquals(90, CSSPaint.parse("linear-gradient(to right, red, blue)").getAngle());
+        assertEquals(315, CSSPaint.parse("linear-gradient(to top left, red, blue)").getAngle());
+        assertEquals(CSSPaint.Type.LINEAR_GRADIENT, CSSPaint.parse("linear-gradient(red, blue)").getType());
+    }
+
+    /**
+     * Tests that stops without a position are spread between their neighbours and
+     * that stop colors may contain commas.
+     */
+    @Test
+    public void testStops() {
+        CSSPaint paint = CSSPaint.parse("radial-gradient(circle, rgba(255, 0, 0, 0.5), lime 40%, blue, black)");
+
+        assertEquals(CSSPaint.Type.RADIAL_GRADIENT, paint.getType());
+        assertEquals(4, paint.getStopCount());
+        assertEquals(0, paint.getStopOffset(0), 1e-6);
+        assertEquals(0.4f, paint.getStopOffset(1), 1e-6);
+        assertEquals(0.7f, paint.getStopOffset(2), 1e-6);
+        assertEquals(1, paint.getStopOffset(3), 1e-6);
+        assertEquals(0x80FF0000, paint.getStopColor(0));
+        assertEquals(0xFF00FF00, paint.getStopColor(1));
+        assertFalse(paint.isOpaque());
+        assertTrue(CSSPaint.parse("linear-gradient(red, blue)").isOpaque());
+    }
+
+    /**
+     * Tests that image patterns keep their URL, with or without quotes.
+     */
+    @Test
+    public void testPattern() {
+        CSSPaint paint = CSSPaint.parse("url('images/tile.png')");
+
+        assertEquals(CSSPaint.Type.PATTERN, paint.getType());
+        assertEquals("images/tile.png", paint.getUrl());
+        assertEquals(0, paint.getStopCount());
+        assertFalse(paint.isOpaque());
+    }
+
+    /**
+     * Tests that parsing the same definition again returns the same paint.
+     */
+    @Test
+    public void testParsedPaintsAreShared() {
+        CSSPaint first = CSSPaint.parse("linear-gradient(to bottom, white, black)");
+
+        assertSame(first, CSSPaint.parse("linear-gradient(to bottom, white, black)"));
+        assertEquals(first, CSSPaint.fromColor("linear-gradient(to bottom, white, black)"));
+    }
+
+    /**
+     * Tests that malformed definitions are rejected.
+     */
+    @Test
+    public void testMalformedPaints() {
+        assertThrows(IllegalArgumentException.class, () -> CSSPaint.parse("linear-gradient(red)"));
+        assertThrows(IllegalArgumentException.class, () -> CSSPaint.parse("linear-gradient(to nowhere, red, blue)"));
+        assertThrows(IllegalArgumentException.class, () -> CSSPaint.parse("linear-gradient(red, rgb(1, 2))"));
+        assertThrows(IllegalArgumentException.class, () -> CSSPaint.parse("url()"));
+        assertThrows(IllegalArgumentException.class, () -> CSSPaint.parse("conic-gradient(red, blue)"));
+        assertNull(CSSPaint.fromColor("linear-gradient(red)"));
+        assertNull(CSSPaint.fromColor("red"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.nooblab.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link CardAtlas} class.
+ * <p>
+ * This test suite verifies that card images are packed into a grid with one row
+ * per suit and one column per card, that card positions are looked up by name, that
+ * the whole deck is bundled and that card URLs fall back to the web for cards
+ * that are not.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class CardAtlasTest {
+
+    /**
+     * Tests that every card is drawn into its own cell of the atlas.
+     */
+    @Test
+    public void testCardsArePacked() throws IOException {
+        CardAtlas atlas = CardAtlas.pack(10, 14, name -> createPng(name.hashCode() | 0xFF000000));
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(atlas.getData()));
+
+        assertEquals(130, image.getWidth());
+        assertEquals(56, image.getHeight());
+        assertEquals("queen_of_hearts".hashCode() | 0xFF000000,
+                image.getRGB(atlas.getCardX("queen") + 5, atlas.getCardY("hearts") + 7));
+        assertEquals("ace_of_clubs".hashCode() | 0xFF000000, image.getRGB(0, 0));
+        assertEquals(110, atlas.getCardX("queen"));
+        assertEquals(28, atlas.getCardY("hearts"));
+    }
+
+    /**
+     * Tests that unknown cards and suits are rejected.
+     */
+    @Test
+    public void testUnknownCard() {
+        CardAtlas atlas = CardAtlas.pack(1, 1, name -> createPng(0xFF000000));
+
+        assertThrows(IllegalArgumentException.class, () -> atlas.getCardX("joker"));
+        assertThrows(IllegalArgumentException.class, () -> atlas.getCardY("stars"));
+        assertThrows(IllegalStateException.class, () -> CardAtlas.pack(1, 1, name -> null));
+    }
+
+    /**
+     * Tests that cards are downloaded from the NoobLab deck by default, and that
+     * every card of the deck is bundled for use without a network connection.
+     */
+    @Test
+    public void testCardUrl() throws IOException {
+        assertFalse(CardAtlas.isBundledCards());
+        assertEquals("https://www.nooblab.com/NoobLab/images/cards/king_of_hearts.svg",
+                CardAtlas.getCardUrl("king", "hearts"));
+        assertEquals("https://www.nooblab.com/NoobLab/images/cards/", CardAtlas.getCardSource());
+
+        CardAtlas.setBundledCards(true);
+        try {
+            for (String suit : CardAtlas.SUITS) {
+                for (String card : CardAtlas.CARDS) {
+                    String url = CardAtlas.getCardUrl(card, suit);
+                    assertFalse(url.startsWith("https:"), url);
+                    try (InputStream input = new URL(url).openStream()) {
+                        assertTrue(new String(input.readAllBytes(), StandardCharsets.UTF_8).contains("<svg"));
+                    }
+                }
+            }
+            assertEquals("bundled", CardAtlas.getCardSource());
+            assertEquals("https://www.nooblab.com/NoobLab/images/cards/joker_of_stars.svg",
+                    CardAtlas.getCardUrl("joker", "stars"));
+        } finally {
+            CardAtlas.setBundledCards(false);
+        }
+        assertEquals(145, CardAtlas.getCardHeight(100));
+    }
+
+    private static byte[] createPng(int color) {
+        BufferedImage image = new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 2; y++) {
+            for (int x = 0; x < 2; x++) {
+                image.setRGB(x, y, color);
+            }
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+}
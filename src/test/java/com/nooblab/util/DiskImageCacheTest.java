@@ -0,0 +1,93 @@
+package com.nooblab.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the {@link DiskImageCache} class.
+ * <p>
+ * This test suite verifies that downloaded and converted images are stored under
+ * separate entries, that entries survive a new cache instance as they would a new
+ * run of the program, and that damaged entries are discarded.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class DiskImageCacheTest {
+
+    private static final String URL = "https://www.nooblab.com/NoobLab/images/cards/ace_of_spades.svg";
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that entries written by one cache are read by another cache using the
+     * same directory.
+     */
+    @Test
+    public void testEntriesPersist() throws IOException {
+        byte[] svg = { 1, 2, 3 };
+        byte[] png = { 4, 5, 6, 7 };
+        DiskImageCache cache = new DiskImageCache(directory);
+        assertNull(cache.read(URL));
+
+        cache.write(URL, svg);
+        cache.write(URL, 100, 145, png);
+        assertEquals(2, listFiles().size());
+
+        DiskImageCache nextRun = new DiskImageCache(directory);
+        assertArrayEquals(svg, nextRun.read(URL));
+        assertArrayEquals(png, nextRun.read(URL, 100, 145));
+        assertNull(nextRun.read(URL, 200, 290));
+    }
+
+    /**
+     * Tests that an entry whose data no longer matches its header is discarded.
+     */
+    @Test
+    public void testDamagedEntryIsDiscarded() throws IOException {
+        DiskImageCache cache = new DiskImageCache(directory);
+        cache.write(URL, new byte[] { 1, 2, 3 });
+        Path entryFile = findFile(".img");
+
+        byte[] entry = Files.readAllBytes(entryFile);
+        entry[entry.length - 1] = 4;
+        Files.write(entryFile, entry);
+
+        assertNull(cache.read(URL));
+        assertFalse(Files.exists(entryFile));
+    }
+
+    /**
+     * Tests that writing nothing leaves the cache directory untouched.
+     */
+    @Test
+    public void testNullDataIsIgnored() throws IOException {
+        new DiskImageCache(directory).write(URL, null);
+
+        assertEquals(0, listFiles().size());
+    }
+
+    private Path findFile(String suffix) throws IOException {
+        return listFiles().stream().filter(file -> file.toString().endsWith(suffix)).findFirst()
+                .orElse(directory.resolve("missing" + suffix));
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+}
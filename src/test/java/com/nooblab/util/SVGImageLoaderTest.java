@@ -0,0 +1,43 @@
+package com.nooblab.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+
+/**
+ * Unit tests for the {@link SVGImageLoader} class.
+ * <p>
+ * This test suite verifies that SVG documents loaded from the web cannot pull
+ * local files into the document through external entities.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class SVGImageLoaderTest {
+
+    /**
+     * Tests that an external entity referring to a local file is not resolved.
+     */
+    @Test
+    public void testExternalEntitiesAreNotResolved(@TempDir Path directory) throws IOException {
+        Path secret = directory.resolve("secret.txt");
+        Files.writeString(secret, "top secret");
+        String svg = "<?xml version=\"1.0\"?>\n"
+                + "<!DOCTYPE svg [<!ENTITY secret SYSTEM \"" + secret.toUri() + "\">]>\n"
+                + "<svg xmlns=\"http://www.w3.org/2000/svg\"><text>&secret;</text></svg>";
+
+        Document document = SVGImageLoader.getDocument("https://example.com/entity.svg",
+                svg.getBytes(StandardCharsets.UTF_8));
+
+        assertNotNull(document);
+        assertFalse(document.getDocumentElement().getTextContent().contains("top secret"));
+    }
+}
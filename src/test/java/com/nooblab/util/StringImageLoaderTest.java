@@ -0,0 +1,82 @@
+package com.nooblab.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link StringImageLoader} class.
+ * <p>
+ * This test suite verifies that string-based sprites are converted into a
+ * palette with one entry per distinct color, that large sprites converted in
+ * parallel give the same pixels as the direct ARGB conversion and that sprites
+ * with too many colors are not indexed.
+ * </p>
+ *
+ * @author Samuel Jonatan Boczek <samuelboczek@gmail.com>
+ */
+public class StringImageLoaderTest {
+
+    /**
+     * Tests that every distinct color string gets one palette entry.
+     */
+    @Test
+    public void testPaletteHasOneEntryPerColor() {
+        String[][] data = {
+                { "red", "red", "transparent" },
+                { "#0000ff", "red", "transparent" }
+        };
+
+        IndexedPixels pixels = StringImageLoader.loadAsIndexed(data);
+
+        assertEquals(3, pixels.getWidth());
+        assertEquals(2, pixels.getHeight());
+        assertEquals(3, pixels.getPalette().length);
+        assertEquals(0xFFFF0000, pixels.getColor(1, 1));
+        assertEquals(0xFF0000FF, pixels.getColor(0, 1));
+        assertEquals(0, pixels.getColor(2, 0));
+        assertEquals(pixels.getIndices()[0], pixels.getIndices()[4]);
+        assertFalse(pixels.isOpaque());
+    }
+
+    /**
+     * Tests that a sprite large enough to be converted in parallel matches the
+     * direct ARGB conversion.
+     */
+    @Test
+    public void testLargeSpriteMatchesARGB() {
+        String[] colors = { "black", "white", "rgb(10, 20, 30)", "orange" };
+        String[][] data = new String[256][256];
+        for (int y = 0; y < 256; y++) {
+            for (int x = 0; x < 256; x++) {
+                data[y][x] = colors[(x * 7 + y * 3) % colors.length];
+            }
+        }
+
+        IndexedPixels pixels = StringImageLoader.loadAsIndexed(data);
+        int[] argb = StringImageLoader.loadAsARGB(data);
+
+        assertEquals(4, pixels.getPalette().length);
+        assertEquals(256 * 256, pixels.getIndices().length);
+        for (int i = 0; i < argb.length; i++) {
+            assertEquals(argb[i], pixels.getColor(i % 256, i / 256));
+        }
+        assertTrue(pixels.isOpaque());
+    }
+
+    /**
+     * Tests that sprites with more colors than a palette holds are not indexed.
+     */
+    @Test
+    public void testTooManyColors() {
+        String[][] data = new String[1][300];
+        for (int x = 0; x < 300; x++) {
+            data[0][x] = "rgb(" + x % 256 + ", " + x / 256 + ", 0)";
+        }
+
+        assertNull(StringImageLoader.loadAsIndexed(data));
+    }
+}